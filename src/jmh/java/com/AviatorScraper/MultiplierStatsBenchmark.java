@@ -0,0 +1,133 @@
+package com.AviatorScraper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Old list-based {@code calculateMode} against {@link MultiplierStats} on 10^4 to 10^7
+ * multipliers drawn like real crash points (two decimals, heavy tail). Setup checks that
+ * both give the same result before anything is timed.
+ *
+ * <pre>
+ *   mvn -Pjmh package
+ *   java -jar target/Noider-1.0-SNAPSHOT-jmh.jar MultiplierStatsBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class MultiplierStatsBenchmark {
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int samples;
+
+    private double[] values;
+    private List<Double> boxed;
+    private final MultiplierStats stats = new MultiplierStats();
+    private final double[] out = new double[6];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        values = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            // 1 / (1 - u) with a 3% house edge, truncated to two decimals and capped like the game
+            double crash = 0.97 / (1.0 - random.nextDouble());
+            values[i] = Math.max(1.0, Math.min(Math.floor(crash * 100) / 100.0, 10_000.0));
+        }
+        boxed = new ArrayList<>(samples);
+        for (double v : values) {
+            boxed.add(v);
+        }
+        double[] expected = legacyCalculateMode(new ArrayList<>(boxed));
+        double[] actual = stats.modeStats(values, samples);
+        if (!Arrays.equals(expected, actual)) {
+            throw new IllegalStateException("MultiplierStats differs from calculateMode: "
+                    + Arrays.toString(actual) + " vs " + Arrays.toString(expected));
+        }
+    }
+
+    // The list is copied first because the old method sorted it in place; the copy stands in
+    // for the List<Double> that updateGroup used to fill from the ResultSet
+    @Benchmark
+    public double[] listCalculateMode() {
+        return legacyCalculateMode(new ArrayList<>(boxed));
+    }
+
+    @Benchmark
+    public double[] primitiveModeStats() {
+        stats.modeStats(values, samples, out);
+        return out;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // InputTensorAggregator.calculateMode as it was before MultiplierStats
+    // ———————————————————————————————————————————————————————————————————————
+    static double[] legacyCalculateMode(List<Double> multipliers) {
+        if (multipliers == null || multipliers.isEmpty()) {
+            return new double[]{1.0, 1.0, 0, 0, 0, 0};
+        }
+        Collections.sort(multipliers);
+        int n = multipliers.size();
+        int q1Index = (int) Math.floor(0.25 * (n - 1));
+        int q3Index = (int) Math.floor(0.75 * (n - 1));
+        double q1 = multipliers.get(q1Index);
+        double q3 = multipliers.get(q3Index);
+        double iqr = q3 - q1;
+
+        double binWidth = (iqr > 0) ? (2.0 * iqr / Math.pow(n, 1.0 / 3.0)) : 0.1;
+        if (binWidth <= 0) {
+            binWidth = 0.1;
+        }
+
+        Map<Double, Integer> binCounts = new HashMap<>();
+        double modeStart = 0, modeEnd = 0;
+        int modeCount = 0;
+        for (double value : multipliers) {
+            double binStart = Math.floor(value / binWidth) * binWidth;
+            int count = binCounts.getOrDefault(binStart, 0) + 1;
+            binCounts.put(binStart, count);
+            if (count > modeCount) {
+                modeCount = count;
+                modeStart = binStart;
+                modeEnd = binStart + binWidth;
+            }
+        }
+        modeStart = Math.max(modeStart, 1.0);
+        modeEnd = Math.max(modeEnd, modeStart + binWidth);
+
+        int belowCount = 0, aboveCount = 0;
+        for (double v : multipliers) {
+            if (v < modeStart) {
+                belowCount++;
+            } else if (v > modeEnd) {
+                aboveCount++;
+            }
+        }
+
+        double confidence = modeCount + aboveCount - belowCount;
+        return new double[]{modeStart, modeEnd, modeCount, aboveCount, belowCount, confidence};
+    }
+}
@@ -0,0 +1,31 @@
+package com.AviatorScraper;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.IOException;
+
+/**
+ * Where {@link SoundDetector} gets its samples from. Every source delivers audio in
+ * {@link #CAPTURE_FORMAT}, so the detector never has to care whether it is listening to the
+ * live VAC cable, replaying a recording or running on generated test signals.
+ */
+public interface AudioSource extends AutoCloseable {
+
+    // 8 kHz, 8-bit signed mono: one byte is one sample
+    AudioFormat CAPTURE_FORMAT = new AudioFormat(8000f, 8, 1, true, true);
+
+    void open() throws Exception;
+
+    /**
+     * Blocks until {@code length} bytes are available or the source is exhausted.
+     * Returns the number of bytes read, or -1 at end of stream.
+     */
+    int read(byte[] buffer, int offset, int length) throws IOException;
+
+    /** True when samples arrive at wall-clock speed, so onset latency can be measured. */
+    boolean isRealtime();
+
+    String describe();
+
+    @Override
+    void close();
+}
@@ -6,8 +6,6 @@ import org.openqa.selenium.NoSuchFrameException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -20,27 +18,75 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.Deque;
-import java.util.LinkedList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class AviatorScraperShare implements SoundDetectionListener {
     private static final String CONFIG_FILE = "config.properties";
 
-    private WebDriver driver;
-    private WebDriverWait wait;
-    private Connection connection;
+    private volatile WebDriver driver;
+    private volatile WebDriverWait wait;
+    private ChromeLauncher launcher;
+
+    // Who this session is (profile, game tile, trigger source) and the shared writer it feeds
+    private SessionConfig session;
+    private BetDataStore store;
+    private boolean ownsStore;
+
+    // Dialogs allowed (classic start) or not (unattended start / session manager)
+    private boolean interactive = true;
+
+    // For the startup and time-to-first-round log lines
+    private final long constructedNanos = System.nanoTime();
+    private volatile boolean firstRoundLogged;
 
     private int bradThreshold = 4000;
-    private Deque<Integer> bradDeque = new LinkedList<>();
+    private final BradHistory bradHistory = BradHistory.fromSystemProperties();
 
-    private Set<String> lastBetItems = new HashSet<>();
+    // Fingerprints of recently recorded rounds; a repeat is a replay of an earlier round
+    private final RoundFingerprintWindow recentRounds = RoundFingerprintWindow.fromSystemProperties();
 
     // Tracks whether this is the very first SummaryData insert in this run
     private boolean newSession = true;
 
     // To keep track of which row we last inserted, so we can mark it STOPPED
-    private Long lastSummaryId = null;
+    private CompletableFuture<Long> lastSummaryId = null;
+
+    // Hands detector triggers to the scrape thread
+    private TriggerDispatcher triggerDispatcher;
+
+    // Observer-based capture engine when running with -Dcapture.mode=push
+    private PushRoundCapture pushCapture;
+
+    // Frame-based capture engine when running with -Dcapture.mode=websocket,
+    // plus the optional DOM cross-check
+    private WebSocketRoundCapture webSocketCapture;
+    private ExecutorService verifyExecutor;
+    private final AtomicLong verifiedRounds = new AtomicLong();
+    private final AtomicLong mismatchedRounds = new AtomicLong();
+
+    // Virtual-scroll harvest coverage: rounds harvested, and how many came up short
+    private final AtomicLong harvestedRounds = new AtomicLong();
+    private final AtomicLong incompleteRounds = new AtomicLong();
+
+    // Optional pre-launched browser parked in the game iframe (-Dstandby.enabled=true)
+    private StandbyBrowser standby;
+    private final FailoverMonitor failoverMonitor = new FailoverMonitor();
+    private ScheduledExecutorService resourceReporter;
+    private final Object failoverLock = new Object();
+    private volatile long lastFailoverNanos;
+
+    // Cheapest fix first: retry, re-enter the iframes, reload, and only then restart Chrome
+    private final RecoveryLadder recovery = new RecoveryLadder()
+            .on(RecoveryLadder.Level.REENTER_IFRAMES, cause -> reenterIframes())
+            .on(RecoveryLadder.Level.RELOAD_PAGE, cause -> GamePage.load(driver, wait, session.getGameTileId()))
+            .on(RecoveryLadder.Level.RESTART_BROWSER, this::handleCriticalError);
 
     public AviatorScraperShare() {
         // 1) Kill any stray Chrome processes
@@ -50,10 +96,7 @@ public class AviatorScraperShare implements SoundDetectionListener {
         promptForBradThreshold();
 
         // 3) Dynamically discover all Chrome profiles under the User Data folder
-        String userDataDir = System.getenv("LOCALAPPDATA")
-                + File.separator + "Google"
-                + File.separator + "Chrome"
-                + File.separator + "User Data";
+        String userDataDir = SessionConfig.defaultUserDataDir();
 
         File userDataFolder = new File(userDataDir);
         if (!userDataFolder.exists() || !userDataFolder.isDirectory()) {
@@ -67,16 +110,7 @@ public class AviatorScraperShare implements SoundDetectionListener {
             System.exit(1);
         }
 
-        // List all immediate subdirectories (candidate profile folders)
-        String[] allSubfolders = userDataFolder.list((current, name) -> {
-            File f = new File(current, name);
-            return f.isDirectory();
-        });
-
-        // Filter to include only "Default" or "Profile N" where N is an integer
-        List<String> profileFolders = Arrays.stream(allSubfolders)
-                .filter(name -> name.equals("Default") || name.matches("Profile \\d+"))
-                .collect(Collectors.toList());
+        List<String> profileFolders = discoverProfiles(userDataDir);
 
         if (profileFolders.isEmpty()) {
             JOptionPane.showMessageDialog(
@@ -104,11 +138,159 @@ public class AviatorScraperShare implements SoundDetectionListener {
             System.exit(0);
         }
 
-        // 4) Build ChromeOptions, including using the chosen profile
-        ChromeOptions options = new ChromeOptions();
+        // 4) Open the database, then launch Chrome with the chosen profile
+        session = SessionConfig.fromSystemProperties(userDataDir, profileChoice, bradThreshold);
+        try {
+            store = openStore("jdbc:sqlite:betdata.db");
+        } catch (SQLException e) {
+            System.err.println("Error initializing database: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+        ownsStore = true;
+        launchSession(resolveChromeBinary(System.getProperty("chrome.binary")));
+
+        // 5) Hook to mark last summary as STOPPED on JVM shutdown
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop));
+
+        // 6) Load the Aviator game page and switch into nested iframes
+        loadGamePage();
+
+        // 7) Park the standby only once the live session is up, so they don't compete
+        if (standby != null) {
+            standby.prepareAsync();
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Non-interactive session for ScraperSessionManager: no prompts, no Chrome
+    // kill, and the store and shutdown belong to the manager
+    // ———————————————————————————————————————————————————————————————————————
+    public AviatorScraperShare(SessionConfig session, BetDataStore store) {
+        this.interactive = false;
+        this.session = session;
+        this.bradThreshold = session.getBradThreshold();
+        this.store = store;
+        launchSession(resolveChromeBinary(System.getProperty("chrome.binary")));
+        loadGamePage();
+        if (standby != null) {
+            standby.prepareAsync();
+        }
+    }
 
-        // 4a) Try to find a bundled chrome.exe under drivers; else prompt/user-specified override
-        String chromeBinaryOverride = System.getProperty("chrome.binary");
+    // ———————————————————————————————————————————————————————————————————————
+    // Unattended start (command-line flags / --config): no dialogs, and the
+    // database open runs alongside the Chrome kill, launch and game page load
+    // ———————————————————————————————————————————————————————————————————————
+    public AviatorScraperShare(StartupOptions options) {
+        interactive = false;
+        bradThreshold = options.getBradThreshold();
+
+        String profile = options.getProfile();
+        if (profile == null) {
+            List<String> profiles = discoverProfiles(options.getUserDataDir());
+            if (profiles.isEmpty()) {
+                throw new IllegalStateException("No Chrome profiles found under " + options.getUserDataDir());
+            }
+            profile = profiles.get(0);
+        }
+        session = options.toSessionConfig(profile);
+        ownsStore = true;
+        System.out.println("Unattended start: session " + session + ", Brad threshold " + bradThreshold);
+
+        ExecutorService startup = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "startup");
+            t.setDaemon(true);
+            return t;
+        });
+        CompletableFuture<BetDataStore> database = CompletableFuture.supplyAsync(() -> {
+            long t0 = System.nanoTime();
+            try {
+                BetDataStore opened = openStore(options.getJdbcUrl());
+                System.out.println("Startup: database and schema ready in " + millisSince(t0) + " ms");
+                return opened;
+            } catch (SQLException e) {
+                throw new IllegalStateException("Error initializing database: " + e.getMessage(), e);
+            }
+        }, startup);
+        CompletableFuture<Void> browser = CompletableFuture.runAsync(() -> {
+            long t0 = System.nanoTime();
+            if (options.isKillChrome()) {
+                closeChromeIfRunning();
+            }
+            launchSession(resolveChromeBinary(options.getChromeBinary()));
+            System.out.println("Startup: Chrome launched in " + millisSince(t0) + " ms");
+            long t1 = System.nanoTime();
+            loadGamePage();
+            System.out.println("Startup: game page loaded in " + millisSince(t1) + " ms");
+        }, startup);
+
+        try {
+            store = database.join();
+            browser.join();
+        } catch (RuntimeException e) {
+            abortStartup(database, browser);
+            Throwable cause = (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+            throw (cause instanceof RuntimeException) ? (RuntimeException) cause : e;
+        } finally {
+            startup.shutdown();
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop));
+        if (standby != null) {
+            standby.prepareAsync();
+        }
+        System.out.println("Startup: ready in " + millisSince(constructedNanos) + " ms");
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public SessionConfig getSession() {
+        return session;
+    }
+
+    // "Default" and "Profile N" folders under a Chrome User Data directory
+    static List<String> discoverProfiles(String userDataDir) {
+        String[] allSubfolders = new File(userDataDir).list((current, name) -> new File(current, name).isDirectory());
+        if (allSubfolders == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(allSubfolders)
+                .filter(name -> name.equals("Default") || name.matches("Profile \\d+"))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static BetDataStore openStore(String jdbcUrl) throws SQLException {
+        BetDataStore opened = new BetDataStore(jdbcUrl);
+        opened.startPartitionMaintenance();
+        return opened;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // One half of the unattended start failed: let the other half finish, then
+    // close the store and quit Chrome so nothing outlives the failed start
+    // ———————————————————————————————————————————————————————————————————————
+    private void abortStartup(CompletableFuture<BetDataStore> database, CompletableFuture<Void> browser) {
+        browser.handle((ignored, error) -> null).join();
+        BetDataStore opened = database.handle((result, error) -> result).join();
+        if (opened != null) {
+            opened.close();
+        }
+        store = null;
+        if (resourceReporter != null) {
+            resourceReporter.shutdownNow();
+        }
+        StandbyBrowser.quitQuietly(driver);
+        driver = null;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Try to find a bundled chrome.exe under drivers; else prompt/user-specified override
+    // ———————————————————————————————————————————————————————————————————————
+    private String resolveChromeBinary(String chromeBinaryOverride) {
         String chromeBinaryPath;
         if (chromeBinaryOverride != null && new File(chromeBinaryOverride).exists()) {
             chromeBinaryPath = chromeBinaryOverride;
@@ -118,6 +300,9 @@ public class AviatorScraperShare implements SoundDetectionListener {
             if (!new File(chromeBinaryPath).exists()) {
                 // If that bundled path doesn’t exist, prompt the user
                 chromeBinaryPath = getOrPromptForChromePath();
+                if (chromeBinaryPath == null && !interactive) {
+                    throw new IllegalStateException("Chrome executable not found; pass --chromeBinary=...");
+                }
                 if (chromeBinaryPath == null) {
                     JOptionPane.showMessageDialog(
                             null,
@@ -129,36 +314,51 @@ public class AviatorScraperShare implements SoundDetectionListener {
                 }
             }
         }
-        options.setBinary(chromeBinaryPath);
-
-        // 4b) Reuse the chosen Chrome profile so SportyBet cookies carry over
-        options.addArguments(
-                "user-data-dir=" + userDataDir,
-                "profile-directory=" + profileChoice
-        );
-
-        // 4c) Hide Chrome’s “controlled by automated test software” banner
-        options.setExperimentalOption("excludeSwitches", Arrays.asList("enable-automation"));
-        options.setExperimentalOption("useAutomationExtension", false);
+        return chromeBinaryPath;
+    }
 
-        // 5) Launch ChromeDriver + mask navigator.webdriver
-        System.setProperty("webdriver.chrome.driver", "drivers/chromedriver.exe");
-        driver = new ChromeDriver(options);
-        wait = new WebDriverWait(driver, Duration.ofSeconds(20));
+    // ———————————————————————————————————————————————————————————————————————
+    // One launcher for the first start, crash restarts and the standby, so all
+    // of them reuse this session's profile
+    // ———————————————————————————————————————————————————————————————————————
+    private void launchSession(String chromeBinaryPath) {
+        launcher = new ChromeLauncher(chromeBinaryPath, session.getUserDataDir(), session.getProfileDirectory());
+        if (isPushCaptureMode() || isWebSocketCaptureMode()) {
+            launcher.customize(PushRoundCapture::addLaunchArguments);
+        }
 
-        // Override navigator.webdriver to avoid detection
-        ((JavascriptExecutor) driver).executeScript(
-                "Object.defineProperty(navigator, 'webdriver', { get: () => undefined });"
-        );
+        // Lean profile (-Dbrowser.lean=true): headless, CDP-blocked images/fonts/media/analytics,
+        // no animations. Audio-triggered sessions keep a window and their sounds.
+        if (LeanBrowserProfile.isEnabled()) {
+            LeanBrowserProfile lean = new LeanBrowserProfile(!isPushCaptureMode() && !isWebSocketCaptureMode());
+            launcher.customize(lean::addLaunchArguments).onLaunch(lean::apply);
+        }
 
-        // 6) Initialize SQLite database + tables
-        initializeDatabaseAndTables();
+        // Warm standby gets its own copy of the profile (this session's Chrome is not running yet)
+        if (Boolean.getBoolean("standby.enabled")) {
+            String standbyDir = session.getStandbyUserDataDir();
+            StandbyBrowser.seedProfile(session.getUserDataDir(), session.getProfileDirectory(), standbyDir);
+            standby = new StandbyBrowser(launcher.withProfile(standbyDir, session.getProfileDirectory()),
+                    session.getGameTileId());
+        }
 
-        // 7) Hook to mark last summary as STOPPED on JVM shutdown
-        Runtime.getRuntime().addShutdownHook(new Thread(this::stop));
+        // Launch ChromeDriver + mask navigator.webdriver
+        driver = launcher.launch();
+        wait = new WebDriverWait(driver, Duration.ofSeconds(20));
 
-        // 8) Load the Aviator game page and switch into nested iframes
-        loadGamePage();
+        // Periodic RSS/CPU of this session's Chrome tree (-Dbrowser.resourceReportSeconds=60)
+        int reportSeconds = Integer.getInteger("browser.resourceReportSeconds", 0);
+        if (reportSeconds > 0) {
+            BrowserResourceProbe probe = new BrowserResourceProbe(session.getUserDataDir());
+            resourceReporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "resource-report-" + session.getId());
+                t.setDaemon(true);
+                return t;
+            });
+            resourceReporter.scheduleWithFixedDelay(
+                    () -> System.out.println("[" + session.getId() + "] " + probe.report()),
+                    0, reportSeconds, TimeUnit.SECONDS);
+        }
     }
 
     // ———————————————————————————————————————————————————————————————————————
@@ -173,6 +373,9 @@ public class AviatorScraperShare implements SoundDetectionListener {
                 return p;
             }
         } catch (IOException ignored) {}
+        if (!interactive) {
+            return null;
+        }
 
         // Config didn’t exist or path was invalid—prompt user
         String chromePath = promptUserForChromePath();
@@ -227,7 +430,7 @@ public class AviatorScraperShare implements SoundDetectionListener {
     // ———————————————————————————————————————————————————————————————————————
     // Kill Chrome if already running (no changes here)
     // ———————————————————————————————————————————————————————————————————————
-    private void closeChromeIfRunning() {
+    static void closeChromeIfRunning() {
         try {
             new ProcessBuilder("taskkill", "/F", "/IM", "chrome.exe").start().waitFor();
         } catch (Exception e) {
@@ -236,68 +439,10 @@ public class AviatorScraperShare implements SoundDetectionListener {
     }
 
     // ———————————————————————————————————————————————————————————————————————
-    // Initializes SQLite connection and (re)creates tables
+    // Play-safe element finder; once its retries are spent the caller's
+    // recovery ladder decides how far to escalate
     // ———————————————————————————————————————————————————————————————————————
-    private void initializeDatabaseAndTables() {
-        try {
-            connection = DriverManager.getConnection("jdbc:sqlite:betdata.db");
-            try (Statement stmt = connection.createStatement()) {
-                stmt.execute(
-                        "CREATE TABLE IF NOT EXISTS BetData (" +
-                                "  id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                                "  BetAmount REAL, " +
-                                "  Multiplier TEXT, " +
-                                "  CashOut REAL, " +
-                                "  RoundMultiplier TEXT" +
-                                ")"
-                );
-
-                stmt.execute(
-                        "CREATE TABLE IF NOT EXISTS SummaryData (" +
-                                "  id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                                "  RoundMultiplier TEXT, " +
-                                "  TotalBetAmount REAL, " +
-                                "  TotalCashOut REAL, " +
-                                "  ProfitLoss REAL, " +
-                                "  Brad INTEGER, " +
-                                "  Bank REAL, " +
-                                "  SummaryDate TEXT, " +
-                                "  SummaryTime TEXT, " +
-                                "  Status TEXT" +
-                                ")"
-                );
-
-                stmt.execute(
-                        "CREATE TABLE IF NOT EXISTS InputTensorData (" +
-                                "  id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                                "  input_tensor_group TEXT UNIQUE, " +
-                                "  lowest_target_multiplier REAL, " +
-                                "  highest_target_multiplier REAL, " +
-                                "  mean_target_multiplier REAL, " +
-                                "  mode_target_range_start REAL, " +
-                                "  mode_target_range_end REAL, " +
-                                "  mode_range_target_count INTEGER, " +
-                                "  above_mode_range_target_count INTEGER, " +
-                                "  below_mode_range_target_count INTEGER, " +
-                                "  group_count INTEGER, " +
-                                "  target_confidence REAL, " +
-                                "  TerminationTimestamp TEXT" +
-                                ")"
-                );
-
-                System.out.println("Database tables (BetData, SummaryData, InputTensorData) recreated.");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error initializing database: " + e.getMessage());
-            e.printStackTrace();
-            System.exit(1);
-        }
-    }
-
-    // ———————————————————————————————————————————————————————————————————————
-    // Play-safe element finder (no changes here)
-    // ———————————————————————————————————————————————————————————————————————
-    private WebElement findElementWithRetry(By locator, int maxRetries, long delayMillis) {
+    private WebElement findElementWithRetry(WebDriverWait wait, By locator, int maxRetries, long delayMillis) {
         int attempts = 0;
         while (attempts < maxRetries) {
             try {
@@ -305,7 +450,6 @@ public class AviatorScraperShare implements SoundDetectionListener {
             } catch (Exception e) {
                 attempts++;
                 if (attempts >= maxRetries) {
-                    handleCriticalError(e);
                     throw new RuntimeException("Failed to locate element: " + locator, e);
                 }
                 try { Thread.sleep(delayMillis); } catch (InterruptedException ie) { Thread.currentThread().interrupt(); }
@@ -315,53 +459,85 @@ public class AviatorScraperShare implements SoundDetectionListener {
     }
 
     // ———————————————————————————————————————————————————————————————————————
-    // Critical-error recovery (no changes here)
+    // Critical-error recovery: swap to the warm standby when one is parked,
+    // otherwise cold-restart Chrome. A replacement whose capture cannot be
+    // re-attached is dropped and another tried, up to -Dfailover.maxAttempts
+    // (default 3), backing off -Dfailover.backoffMillis (default 2000),
+    // doubled per attempt. The attach methods throw rather than recurse here.
     // ———————————————————————————————————————————————————————————————————————
     private void handleCriticalError(Exception e) {
-        System.err.println("Critical error: " + e.getMessage());
-        if (lastSummaryId != null) {
-            updateSummaryStatus(lastSummaryId, "STOPPED");
-        }
-        recordTerminationTimestamp();
-        if (driver != null) {
-            driver.quit();
-        }
-        restartChromeAndResume();
-    }
+        synchronized (failoverLock) {
+            System.err.println("Critical error: " + e.getMessage());
+
+            // A scrape still running on the old session fails right after a swap; the new one is fine
+            long settleNanos = Long.getLong("standby.settleMillis", 2000) * 1_000_000L;
+            if (lastFailoverNanos != 0 && System.nanoTime() - lastFailoverNanos < settleNanos
+                    && GamePage.isParked(driver)) {
+                System.out.println("Ignoring error from the previous browser session.");
+                return;
+            }
 
-    // ———————————————————————————————————————————————————————————————————————
-    // Helper: update a single SummaryData row’s Status (no changes here)
-    // ———————————————————————————————————————————————————————————————————————
-    private void updateSummaryStatus(long id, String status) {
-        try (PreparedStatement ps = connection.prepareStatement(
-                "UPDATE SummaryData SET Status = ? WHERE id = ?")) {
-            ps.setString(1, status);
-            ps.setLong(2, id);
-            ps.executeUpdate();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-        }
-    }
+            failoverMonitor.failoverStarted();
+            if (lastSummaryId != null) {
+                store.updateSummaryStatus(lastSummaryId, "STOPPED");
+            }
+            store.recordTerminationTimestamp();
+            // Rounds are missed while the browser is swapped; neither the label nor the window spans that
+            store.clearPendingLabel(session.getId());
+            synchronized (this) {
+                bradHistory.clear();
+            }
 
-    // ———————————————————————————————————————————————————————————————————————
-    // Helper: record termination time in InputTensorData (no changes here)
-    // ———————————————————————————————————————————————————————————————————————
-    private void recordTerminationTimestamp() {
-        String now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        try (PreparedStatement ps = connection.prepareStatement(
-                "UPDATE InputTensorData SET TerminationTimestamp = ? WHERE input_tensor_group = ?")) {
-            ps.setString(1, now);
-            ps.setString(2, "TERMINATION");
-            if (ps.executeUpdate() == 0) {
-                try (PreparedStatement ips = connection.prepareStatement(
-                        "INSERT INTO InputTensorData (input_tensor_group, TerminationTimestamp) VALUES (?, ?)")) {
-                    ips.setString(1, "TERMINATION");
-                    ips.setString(2, now);
-                    ips.executeUpdate();
+            WebDriver failed = driver;
+            WebDriver replacement = (standby != null) ? standby.takeover() : null;
+            if (replacement != null) {
+                // Tearing down the dead session can take seconds; don't wait for it
+                new Thread(() -> StandbyBrowser.quitQuietly(failed), "browser-teardown").start();
+            } else if (failed != null) {
+                StandbyBrowser.quitQuietly(failed);
+            }
+
+            int maxAttempts = Integer.getInteger("failover.maxAttempts", 3);
+            long backoffMillis = Long.getLong("failover.backoffMillis", 2000);
+            RuntimeException lastFailure = null;
+            for (int attempt = 0; attempt < maxAttempts; attempt++) {
+                boolean warm = (attempt == 0 && replacement != null);
+                try {
+                    if (warm) {
+                        driver = replacement;
+                        wait = new WebDriverWait(driver, Duration.ofSeconds(20));
+                        newSession = true;
+                        reattachCapture();
+                    } else {
+                        restartChromeAndResume();
+                    }
+                    failoverMonitor.failoverCompleted(warm);
+                    lastFailure = null;
+                    break;
+                } catch (RuntimeException retry) {
+                    lastFailure = retry;
+                    System.err.println("Failover attempt " + (attempt + 1) + " of " + maxAttempts
+                            + " failed: " + retry.getMessage());
+                    StandbyBrowser.quitQuietly(driver);
+                    if (attempt + 1 < maxAttempts) {
+                        try {
+                            Thread.sleep(backoffMillis << attempt);
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                    }
                 }
             }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
+            lastFailoverNanos = System.nanoTime();
+            if (lastFailure != null) {
+                throw new IllegalStateException("Failover gave up after " + maxAttempts
+                        + " attempt(s); capture is stopped", lastFailure);
+            }
+
+            if (standby != null) {
+                standby.prepareAsync();
+            }
         }
     }
 
@@ -369,38 +545,25 @@ public class AviatorScraperShare implements SoundDetectionListener {
     // Restart Chrome after a crash (updated to include binary and masking)
     // ———————————————————————————————————————————————————————————————————————
     private void restartChromeAndResume() {
-        ChromeOptions options = new ChromeOptions();
-
-        // Re‐use the same Chrome binary and profile
-        String chromeBinary = System.getProperty("chrome.binary");
-        if (chromeBinary == null) {
-            chromeBinary = "drivers/chrome_win64/chrome.exe";
-        }
-        options.setBinary(chromeBinary);
-
-        // The same user-data-dir used earlier
-        String userDataDir = System.getenv("LOCALAPPDATA")
-                + File.separator + "Google"
-                + File.separator + "Chrome"
-                + File.separator + "User Data";
-
-        options.addArguments("user-data-dir=" + userDataDir);
-        options.setExperimentalOption("excludeSwitches", Arrays.asList("enable-automation"));
-        options.setExperimentalOption("useAutomationExtension", false);
-
-        this.driver = new ChromeDriver(options);
+        // Same binary, user-data-dir and profile as the first launch
+        this.driver = launcher.launch();
         this.wait   = new WebDriverWait(driver, Duration.ofSeconds(20));
 
-        // Re‐mask navigator.webdriver
-        ((JavascriptExecutor) driver).executeScript(
-                "Object.defineProperty(navigator, 'webdriver', { get: () => undefined });"
-        );
-
         newSession = true;
         loadGamePage();
+        reattachCapture();
         System.out.println("Chrome restarted successfully.");
     }
 
+    // Capture engines are bound to a driver; re-install them on the new one
+    private void reattachCapture() {
+        if (isPushCaptureMode()) {
+            attachPushCapture();
+        } else if (isWebSocketCaptureMode()) {
+            attachWebSocketCapture();
+        }
+    }
+
     // ———————————————————————————————————————————————————————————————————————
     // Wrapper for tasks that need crash handling (no changes here)
     // ———————————————————————————————————————————————————————————————————————
@@ -413,55 +576,179 @@ public class AviatorScraperShare implements SoundDetectionListener {
         }
     }
 
+    // First attach at start; a failure goes through the same bounded failover
+    private void attachCaptureOrFailover() {
+        try {
+            reattachCapture();
+        } catch (RuntimeException e) {
+            handleCriticalError(e);
+        }
+    }
+
     // ———————————————————————————————————————————————————————————————————————
-    // Start scraping loop (no changes here)
+    // Start scraping loop
     // ———————————————————————————————————————————————————————————————————————
     public void start() {
-        SoundDetector detector = new SoundDetector(this);
-        new Thread(() -> runWithCriticalHandling(detector::detectSound)).start();
-        loadGamePage();
+        if (isPushCaptureMode()) {
+            // No audio at all: the in-page observer pushes every finished round to us
+            ensureGamePage();
+            attachCaptureOrFailover();
+            return;
+        }
+        if (isWebSocketCaptureMode()) {
+            // No audio either: rounds are decoded from the game's own WebSocket frames
+            ensureGamePage();
+            attachCaptureOrFailover();
+            return;
+        }
+
+        // Capture thread only enqueues; scrapes run on the dispatcher thread so audio
+        // keeps flowing (and triggers get merged) while WebDriver is busy
+        triggerDispatcher = new TriggerDispatcher(this, Integer.getInteger("trigger.queueCapacity", 64));
+        triggerDispatcher.start();
+        // Each session listens on its own cable (-Dsound.mixer or session.<id>.mixer)
+        SoundDetector detector = new SoundDetector(triggerDispatcher, new MixerAudioSource(session.getMixerName(),
+                Integer.getInteger("sound.frameSamples", 160) * 4));
+        new Thread(() -> runWithCriticalHandling(detector::detectSound), "sound-detector-" + session.getId()).start();
+        ensureGamePage();
     }
 
     // ———————————————————————————————————————————————————————————————————————
-    // Load the Aviator game page and switch into nested iframes
+    // Push capture (-Dcapture.mode=push): show the "Previous" tab once and let a
+    // MutationObserver + CDP binding deliver each round as the DOM updates
     // ———————————————————————————————————————————————————————————————————————
-    private void loadGamePage() {
+    private boolean isPushCaptureMode() {
+        return session.isPushCapture();
+    }
+
+    // Throws on failure; handleCriticalError owns the retries
+    private void attachPushCapture() {
         try {
-            // 1) Navigate to SportyBet’s games lobby
-            driver.get("https://www.sportybet.com/gh/games");
+            clickPreviousTab();
 
-            // 2) Wait for the outer “games-lobby” iframe and switch into it
-            WebElement lobby = wait.until(
-                    ExpectedConditions.presenceOfElementLocated(By.id("games-lobby"))
-            );
-            driver.switchTo().frame(lobby);
+            if (pushCapture != null) {
+                pushCapture.close();
+            }
+            pushCapture = new PushRoundCapture(driver, this::recordRound);
+            pushCapture.install();
+        } catch (Exception e) {
+            throw new IllegalStateException("Error attaching push capture: " + e.getMessage(), e);
+        }
+    }
 
-            // 3) Click the Aviator tile (id="game_item19")
-            WebElement item = wait.until(
-                    ExpectedConditions.elementToBeClickable(By.id("game_item19"))
-            );
-            item.click();
+    // ———————————————————————————————————————————————————————————————————————
+    // WebSocket capture (-Dcapture.mode=websocket): decode round results from CDP
+    // Network.webSocketFrameReceived. With -Dcapture.ws.verify=true each decoded
+    // round is cross-checked against a DOM scrape of the "Previous" tab.
+    // ———————————————————————————————————————————————————————————————————————
+    private boolean isWebSocketCaptureMode() {
+        return session.isWebSocketCapture();
+    }
 
-            // 4) Switch into the inner “turbo-games-iframe”
-            WebElement turboFrame = wait.until(
-                    ExpectedConditions.visibilityOfElementLocated(By.className("turbo-games-iframe"))
-            );
-            driver.switchTo().frame(turboFrame);
+    // Throws on failure; handleCriticalError owns the retries
+    private void attachWebSocketCapture() {
+        try {
+            String decoderConfig = System.getProperty("capture.ws.decoder");
+            RoundFrameDecoder decoder = (decoderConfig != null)
+                    ? JsonRoundFrameDecoder.fromFile(new File(decoderConfig))
+                    : new JsonRoundFrameDecoder();
+
+            boolean verify = Boolean.getBoolean("capture.ws.verify");
+            if (verify) {
+                clickPreviousTab();
+                if (verifyExecutor == null) {
+                    verifyExecutor = Executors.newSingleThreadExecutor(r -> {
+                        Thread t = new Thread(r, "ws-dom-verify");
+                        t.setDaemon(true);
+                        return t;
+                    });
+                }
+            }
+
+            if (webSocketCapture != null) {
+                webSocketCapture.close();
+            }
+            webSocketCapture = new WebSocketRoundCapture(driver, decoder, round -> {
+                recordRound(round);
+                if (verify) {
+                    verifyExecutor.submit(() -> verifyAgainstDom(round));
+                }
+            });
+            webSocketCapture.install();
+        } catch (Exception e) {
+            throw new IllegalStateException("Error attaching WebSocket capture: " + e.getMessage(), e);
+        }
+    }
 
-            // 5) (Optional) Click the “auto” tab if your setup requires it
-            wait.until(ExpectedConditions.elementToBeClickable(
-                    By.cssSelector("button.tab.ng-star-inserted")
-            )).click();
+    // Give the page a moment to render the round, then compare it with what the frame said.
+    // Driver and a short wait are taken under failoverLock, but the read runs outside it, so a
+    // failover never waits on this diagnostic; a read caught by a swap just fails.
+    private void verifyAgainstDom(Round fromSocket) {
+        try {
+            Thread.sleep(Integer.getInteger("capture.ws.verifyDelayMillis", 300));
+            WebDriver current;
+            WebDriverWait shortWait;
+            synchronized (failoverLock) {
+                current = driver;
+                shortWait = recoveryWait();
+            }
+            Round fromDom = extractRound(current, shortWait);
+            boolean match = fromDom.getRoundMultiplier().equals(fromSocket.getRoundMultiplier())
+                    && fromDom.getPaidBetCount() == fromSocket.getPaidBetCount()
+                    && Math.abs(fromDom.getTotalBetAmount() - fromSocket.getTotalBetAmount()) < 0.01
+                    && Math.abs(fromDom.getTotalCashOut() - fromSocket.getTotalCashOut()) < 0.01;
+            if (match) {
+                verifiedRounds.incrementAndGet();
+            } else {
+                mismatchedRounds.incrementAndGet();
+                System.out.printf("[verify] MISMATCH socket %sx/%d bets/%.2f vs DOM %sx/%d bets/%.2f%n",
+                        fromSocket.getRoundMultiplier(), fromSocket.getPaidBetCount(), fromSocket.getTotalBetAmount(),
+                        fromDom.getRoundMultiplier(), fromDom.getPaidBetCount(), fromDom.getTotalBetAmount());
+            }
+            System.out.println("[verify] matched=" + verifiedRounds.get() + " mismatched=" + mismatchedRounds.get()
+                    + " " + webSocketCapture.describeCounters());
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.out.println("[verify] DOM check failed: " + e.getMessage());
+        }
+    }
+
+    private void clickPreviousTab() {
+        WebElement previousButton = wait.until(
+                ExpectedConditions.elementToBeClickable(
+                        By.xpath(
+                                "//button[contains(@class,'tab') and contains(@class,'ng-star-inserted') " +
+                                        "and normalize-space(text())='Previous']"
+                        )
+                )
+        );
+        previousButton.click();
+    }
 
+    // ———————————————————————————————————————————————————————————————————————
+    // Load the Aviator game page and switch into nested iframes
+    // ———————————————————————————————————————————————————————————————————————
+    private void loadGamePage() {
+        try {
+            GamePage.load(driver, wait, session.getGameTileId());
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    // The constructor normally leaves us in the game iframe already; skip a second lobby trip
+    private void ensureGamePage() {
+        if (!GamePage.isParked(driver)) {
+            loadGamePage();
+        }
+    }
+
     // ———————————————————————————————————————————————————————————————————————
     // Retry switching into nested iframes (no changes here)
     // ———————————————————————————————————————————————————————————————————————
-    private boolean switchToIframeWithRetry(By[] locators, int maxRetries, long delayMillis) throws NoSuchFrameException {
+    private boolean switchToIframeWithRetry(WebDriverWait wait, By[] locators, int maxRetries, long delayMillis)
+            throws NoSuchFrameException {
         for (By locator : locators) {
             int attempts = 0;
             while (attempts++ < maxRetries) {
@@ -478,6 +765,21 @@ public class AviatorScraperShare implements SoundDetectionListener {
         return false;
     }
 
+    // Recovery level 2: back to the top document, then down the lobby → game iframe chain
+    private void reenterIframes() throws NoSuchFrameException {
+        int retries = Integer.getInteger("recovery.iframeRetries", 2);
+        WebDriverWait shortWait = recoveryWait();
+        driver.switchTo().defaultContent();
+        switchToIframeWithRetry(shortWait, new By[]{By.id("games-lobby")}, retries, 200);
+        switchToIframeWithRetry(shortWait, new By[]{By.className("turbo-games-iframe")}, retries, 200);
+    }
+
+    // In-session recovery looks for elements that should already be there, so it waits
+    // only -Drecovery.waitMillis (default 300) instead of the 20 s page-load wait
+    private WebDriverWait recoveryWait() {
+        return new WebDriverWait(driver, Duration.ofMillis(Long.getLong("recovery.waitMillis", 300)));
+    }
+
     // ———————————————————————————————————————————————————————————————————————
     // Log all visible iframes (no changes here)
     // ———————————————————————————————————————————————————————————————————————
@@ -494,9 +796,35 @@ public class AviatorScraperShare implements SoundDetectionListener {
     // ———————————————————————————————————————————————————————————————————————
     @Override
     public void onSoundDetected() {
+        ScrapeProgress progress = new ScrapeProgress();
         try {
+            recovery.run("round scrape", () -> {
+                scrapeRound(progress);
+                return null;
+            });
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.out.println("Error during sound detection handling: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // What one triggered scrape has done so far; a recovery retry resumes at the step that failed
+    private static final class ScrapeProgress {
+        int runs;
+        Round round;      // extracted from the "Previous" tab
+        boolean recorded; // persisted, or skipped as a duplicate
+        boolean duplicate;
+    }
+
+    // One scrape, or the rest of one: the first run uses the page wait, retries the short one
+    private void scrapeRound(ScrapeProgress progress) {
+        WebDriverWait stepWait = (progress.runs++ == 0) ? wait : recoveryWait();
+
+        if (progress.round == null) {
             // 1) Locate and click the “Previous” button
-            WebElement previousButton = wait.until(
+            WebElement previousButton = stepWait.until(
                     ExpectedConditions.elementToBeClickable(
                             By.xpath(
                                     "//button[contains(@class,'tab') and contains(@class,'ng-star-inserted') " +
@@ -511,233 +839,269 @@ public class AviatorScraperShare implements SoundDetectionListener {
             }
             System.out.println("'Previous' button clicked.");
 
-            // 2) Read the current round multiplier from <app-previous-round-result>
-            WebElement roundMultiplierElement = findElementWithRetry(
-                    By.cssSelector("app-previous-round-result .result-multiplier"),
-                    3,
-                    200
-            );
-            String roundText = roundMultiplierElement.getText().trim();   // e.g. "1.10x"
-            String numericPart = roundText.endsWith("x")
-                    ? roundText.substring(0, roundText.length() - 1)
-                    : roundText;
-            System.out.println("Round multiplier: " + numericPart);
-            String currentRoundMultiplier = numericPart;
-
-            // 3) Locate the scrollable container for <app-bets-list-item>
-            WebElement betWrapper = findElementWithRetry(
-                    By.className("cdk-virtual-scroll-content-wrapper"),
-                    3,
-                    200
-            );
+            // 2-5) Build the Round once: round multiplier, bank and every <app-bets-list-item>
+            progress.round = extractRound(driver, stepWait);
+        }
 
-            // 4) Find every <app-bets-list-item> and parse bet amounts + cash-out
-            List<WebElement> betItemsList = betWrapper.findElements(
-                    By.cssSelector("app-bets-list-item")
-            );
-            System.out.println("Found " + betItemsList.size() + " bet items.");
-
-            Set<String> currentBetItems = new HashSet<>();
-            double totalBetAmount = 0.0;
-            double totalCashOut  = 0.0;
-
-            for (WebElement betItem : betItemsList) {
-                // 4a) Bet amount (e.g. "950.00")
-                WebElement amountDiv = betItem.findElement(
-                        By.cssSelector("app-bet-amount > div")
-                );
-                String betAmountText = amountDiv.getText().trim().replace(",", "");
-                if (betAmountText.equalsIgnoreCase("FREE BET")) {
-                    System.out.println("Skipping FREE BET item.");
-                    continue;
-                }
-                double betAmount = Double.parseDouble(betAmountText);
-                totalBetAmount += betAmount;
-
-                // 4b) Cash-out / win (e.g. "0.00")
-                WebElement winDiv = betItem.findElement(
-                        By.cssSelector(".bet-list-item-column.win")
-                );
-                String cashOutText = winDiv.getText().trim().replace(",", "");
-                double cashOut = Double.parseDouble(cashOutText);
-                totalCashOut += cashOut;
-
-                // 4c) Build a dedupe key
-                String betIdentifier = betAmountText + "_" + cashOutText;
-                currentBetItems.add(betIdentifier);
-            }
+        // 6-8) Dedupe and persist; a replay of the last round means we are on a stale view
+        if (!progress.recorded) {
+            progress.duplicate = !recordRound(progress.round);
+            progress.recorded = true;
+        }
+
+        // 9) Finally, click “All Bets” to prepare for next iteration
+        WebElement allBetsButton = stepWait.until(
+                ExpectedConditions.elementToBeClickable(
+                        By.xpath("//button[contains(@class,'tab') and normalize-space(text())='All Bets']")
+                )
+        );
+        try {
+            allBetsButton.click();
+        } catch (WebDriverException clickFail) {
+            ((JavascriptExecutor) driver).executeScript("arguments[0].click();", allBetsButton);
+        }
+        System.out.println(progress.duplicate
+                ? "'All Bets' button clicked for duplicate skip."
+                : "'All Bets' button clicked.");
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Dedupe and persist one captured round, whichever engine captured it.
+    // Returns false when it repeats a recently recorded round and was skipped.
+    // ———————————————————————————————————————————————————————————————————————
+    private synchronized boolean recordRound(Round round) {
+        System.out.println("Round multiplier: " + round.getRoundMultiplier());
+        System.out.println("Extracted Bank value: " + round.getBank());
+        if (round.getFreeBetCount() > 0) {
+            System.out.println("Skipping " + round.getFreeBetCount() + " FREE BET item(s).");
+        }
 
-            // 5) Read the current bank balance from <span class="balance-amount">
-            double bank = 0.0;
+        // Deduplication: a fingerprint seen in the last few rounds means we re-read an old round
+        if (!recentRounds.addIfAbsent(round.getFingerprint())) {
+            System.out.printf("Duplicate round detected (fingerprint %016x).%n", round.getFingerprint());
+            return false;
+        }
+
+        // Insert the Round row and its bets (marked “STARTED” on the very first run)
+        // as one atomic write
+        persistRound(round);
+        failoverMonitor.onRoundRecorded(round.getCapturedAt());
+        if (!firstRoundLogged) {
+            firstRoundLogged = true;
+            System.out.println("Time to first round: " + millisSince(constructedNanos) + " ms after start");
+        }
+        return true;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Bet list extraction. By default the virtual bet list is scrolled through
+    // in one executeAsyncScript call so rows outside the viewport are captured
+    // too; -Dscrape.extraction=script reads only the rendered rows in one
+    // executeScript, =elements walks them through WebDriver. Each step falls
+    // back to the next if it fails or finds nothing.
+    // ———————————————————————————————————————————————————————————————————————
+    private Round extractRound(WebDriver driver, WebDriverWait wait) {
+        String mode = System.getProperty("scrape.extraction", "harvest");
+        if ("harvest".equalsIgnoreCase(mode)) {
+            Round round = harvestRound(driver);
+            if (round != null) {
+                return round;
+            }
+            mode = "script";
+        }
+        if ("script".equalsIgnoreCase(mode)) {
+            long t0 = System.nanoTime();
             try {
-                WebElement balanceAmountElem = wait.until(
-                        ExpectedConditions.visibilityOfElementLocated(
-                                By.cssSelector("span.balance-amount")
-                        )
-                );
-                String bankText = balanceAmountElem.getText().trim().replace(",", "");
-                bank = Double.parseDouble(bankText);
-                System.out.println("Extracted Bank value: " + bank);
+                Object result = ((JavascriptExecutor) driver).executeScript(RoundCaptureScripts.BET_LIST_SCRIPT);
+                Round round = RoundParser.fromScriptResult(result, System.currentTimeMillis());
+                if (!round.getBets().isEmpty()) {
+                    System.out.printf("Extracted %d bet items via script in %.1f ms.%n",
+                            round.getBets().size(), (System.nanoTime() - t0) / 1_000_000.0);
+                    return round;
+                }
+                System.out.println("Script extraction found no bet items, falling back to element walk.");
             } catch (Exception e) {
-                System.out.println("Failed to extract Bank value: " + e.getMessage());
-                e.printStackTrace();
+                System.out.println("Script extraction failed, falling back to element walk: " + e.getMessage());
             }
+        }
+        return extractRoundFromElements(wait);
+    }
 
-            // 6) Deduplication: if same bet items as last time, click “All Bets” instead of “Previous”
-            if (currentBetItems.equals(lastBetItems)) {
-                System.out.println("Duplicate bet items detected. Switching to All Bets.");
-
-                WebElement allBetsButton = wait.until(
-                        ExpectedConditions.elementToBeClickable(
-                                By.xpath("//button[contains(@class,'tab') and normalize-space(text())='All Bets']")
-                        )
-                );
-                try {
-                    allBetsButton.click();
-                } catch (WebDriverException clickFail) {
-                    ((JavascriptExecutor) driver).executeScript("arguments[0].click();", allBetsButton);
-                }
-                System.out.println("'All Bets' button clicked for duplicate skip.");
-                return;
+    // Scroll-and-harvest within -Dscrape.harvest.budgetMillis; null means fall back
+    private Round harvestRound(WebDriver driver) {
+        int budgetMillis = Integer.getInteger("scrape.harvest.budgetMillis", 2000);
+        int stepMillis = Integer.getInteger("scrape.harvest.stepMillis", 25);
+        try {
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(
+                    RoundCaptureScripts.HARVEST_ROUND_SCRIPT, budgetMillis, stepMillis);
+            Round round = RoundParser.fromScriptResult(result, System.currentTimeMillis());
+            if (round.getBets().isEmpty()) {
+                System.out.println("Harvest found no bet items, falling back to script extraction.");
+                return null;
+            }
+            List<?> parts = (List<?>) result;
+            harvestedRounds.incrementAndGet();
+            if (!round.isComplete()) {
+                incompleteRounds.incrementAndGet();
             }
+            System.out.printf("Harvested %d of %s bet items in %s ms over %s scroll step(s) (%.1f%% coverage).%n",
+                    round.getBets().size(),
+                    round.getExpectedRowCount() < 0 ? "?" : String.valueOf(round.getExpectedRowCount()),
+                    parts.get(RoundCaptureScripts.RESULT_ELAPSED_MILLIS),
+                    parts.get(RoundCaptureScripts.RESULT_SCROLL_STEPS), round.getCoverage() * 100.0);
+            return round;
+        } catch (Exception e) {
+            System.out.println("Harvest extraction failed, falling back to script extraction: " + e.getMessage());
+            return null;
+        }
+    }
 
-            lastBetItems = currentBetItems;
+    private Round extractRoundFromElements(WebDriverWait wait) {
+        long t0 = System.nanoTime();
 
-            // 7) Insert each bet row into BetData
-            try (PreparedStatement pstmt = connection.prepareStatement(
-                    "INSERT INTO BetData (BetAmount, Multiplier, CashOut, RoundMultiplier) VALUES (?, ?, ?, ?)"
-            )) {
-                for (WebElement betItem : betItemsList) {
-                    WebElement amountDiv = betItem.findElement(
-                            By.cssSelector("app-bet-amount > div")
-                    );
-                    String betAmountText = amountDiv.getText().trim().replace(",", "");
-                    if (betAmountText.equalsIgnoreCase("FREE BET")) {
-                        continue;
-                    }
-                    double betAmount = Double.parseDouble(betAmountText);
+        // Read the current round multiplier from <app-previous-round-result>
+        WebElement roundMultiplierElement = findElementWithRetry(wait,
+                By.cssSelector("app-previous-round-result .result-multiplier"),
+                3,
+                200
+        );
+        String roundText = roundMultiplierElement.getText().trim();   // e.g. "1.10x"
 
-                    String multiplierText = "N/A";
+        // Locate the scrollable container for <app-bets-list-item>
+        WebElement betWrapper = findElementWithRetry(wait,
+                By.className("cdk-virtual-scroll-content-wrapper"),
+                3,
+                200
+        );
 
-                    WebElement winDiv = betItem.findElement(
-                            By.cssSelector(".bet-list-item-column.win")
-                    );
-                    String cashOutText = winDiv.getText().trim().replace(",", "");
-                    double cashOut = Double.parseDouble(cashOutText);
-
-                    pstmt.setDouble(1, betAmount);
-                    pstmt.setString(2, multiplierText);
-                    pstmt.setDouble(3, cashOut);
-                    pstmt.setString(4, currentRoundMultiplier);
-                    pstmt.addBatch();
-                }
-                pstmt.executeBatch();
-                System.out.println("Bet data inserted into database.");
-            } catch (SQLException e) {
-                System.out.println("Error inserting BetData: " + e.getMessage());
-                e.printStackTrace();
+        // Collect the raw text of every <app-bets-list-item>; RoundParser does the parsing
+        List<WebElement> betItemsList = betWrapper.findElements(
+                By.cssSelector("app-bets-list-item")
+        );
+
+        List<Object> rows = new ArrayList<>(betItemsList.size() * RoundParser.FIELDS_PER_ROW);
+        for (WebElement betItem : betItemsList) {
+            // Bet amount (e.g. "950.00")
+            String betAmountText = betItem.findElement(
+                    By.cssSelector("app-bet-amount > div")
+            ).getText().trim();
+            if (betAmountText.equalsIgnoreCase("FREE BET")) {
+                rows.add(betAmountText);
+                rows.add("0");
+                rows.add("");
+                rows.add(Boolean.TRUE);
+                continue;
             }
 
-            // 8) Insert a SummaryData row (mark “STARTED” on the very first run)
-            insertSummaryData(currentRoundMultiplier, totalBetAmount, totalCashOut, bank);
+            // Cash-out / win (e.g. "0.00")
+            String cashOutText = betItem.findElement(
+                    By.cssSelector(".bet-list-item-column.win")
+            ).getText().trim();
+            rows.add(betAmountText);
+            rows.add(cashOutText);
+            rows.add("");
+            rows.add(Boolean.FALSE);
+        }
 
-            // 9) Finally, click “All Bets” to prepare for next iteration
-            WebElement allBetsButton = wait.until(
-                    ExpectedConditions.elementToBeClickable(
-                            By.xpath("//button[contains(@class,'tab') and normalize-space(text())='All Bets']")
+        // Read the current bank balance from <span class="balance-amount">
+        String bankText = null;
+        try {
+            bankText = wait.until(
+                    ExpectedConditions.visibilityOfElementLocated(
+                            By.cssSelector("span.balance-amount")
                     )
-            );
-            allBetsButton.click();
-            System.out.println("'All Bets' button clicked.");
-
+            ).getText();
         } catch (Exception e) {
-            System.out.println("Error during sound detection handling: " + e.getMessage());
-            e.printStackTrace();
-            handleCriticalError(e);
+            System.out.println("Failed to extract Bank value: " + e.getMessage());
         }
+
+        Round round = RoundParser.parse(roundText, bankText, rows, System.currentTimeMillis());
+        System.out.printf("Extracted %d bet items via element walk in %.1f ms.%n",
+                round.getBets().size(), (System.nanoTime() - t0) / 1_000_000.0);
+        return round;
     }
 
     // ———————————————————————————————————————————————————————————————————————
-    // Inserts a new SummaryData row (no changes here)
+    // Queues the round and its bets as one write
     // ———————————————————————————————————————————————————————————————————————
-    private void insertSummaryData(String roundMultiplier,
-                                   double totalBetAmount,
-                                   double totalCashOut,
-                                   double bank) {
-        // 1) Compute profit/loss and the Brad flag
-        double profitLoss = totalBetAmount - totalCashOut;
-        int currentBrad = (profitLoss > bradThreshold) ? 1 : 0;
-
-        // 2) Maintain rolling window of last 4 Brad values
-        bradDeque.addLast(currentBrad);
-        if (bradDeque.size() > 4) {
-            bradDeque.removeFirst();
-        }
+    private void persistRound(Round round) {
+        // 1) Compute the Brad flag from profit/loss
+        int currentBrad = (round.getProfitLoss() > bradThreshold) ? 1 : 0;
 
-        // 3) Get current date/time
-        LocalDateTime now = LocalDateTime.now();
-        String summaryDate = now.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        String summaryTime = now.format(DateTimeFormatter.ofPattern("HH:mm:ss"));
+        // 2) Shift it into the rolling window of the last -Dtensor.length Brad values
+        bradHistory.push(currentBrad);
 
-        // 4) Only the first insert in this run gets "STARTED"
+        // 3) Only the first insert in this run gets "STARTED"
         String statusValue = newSession ? "STARTED" : "";
         newSession = false;
 
-        // 5) Insert the row (no input_tensor, PredictionTargetID or TargetMultiplier)
-        String sql =
-                "INSERT INTO SummaryData " +
-                        "(RoundMultiplier, TotalBetAmount, TotalCashOut, ProfitLoss, " +
-                        "Brad, Bank, SummaryDate, SummaryTime, Status) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-        try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, roundMultiplier);
-            ps.setDouble(2, totalBetAmount);
-            ps.setDouble(3, totalCashOut);
-            ps.setDouble(4, profitLoss);
-            ps.setInt(5, currentBrad);
-            ps.setDouble(6, bank);
-            ps.setString(7, summaryDate);
-            ps.setString(8, summaryTime);
-            ps.setString(9, statusValue);
-
-            ps.executeUpdate();
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    lastSummaryId = rs.getLong(1);
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        // 4) Insert Round + Bet rows; the full Brad window is the round's input tensor, e.g. "[0,1,0,1]"
+        String inputTensor = bradHistory.label();
+        lastSummaryId = store.recordRound(session.getId(), round, currentBrad, inputTensor, statusValue);
     }
 
     // ———————————————————————————————————————————————————————————————————————
     // On JVM shutdown: mark last summary as "STOPPED" & record termination timestamp (no changes here)
     // ———————————————————————————————————————————————————————————————————————
     public void stop() {
+        if (resourceReporter != null) {
+            resourceReporter.shutdownNow();
+        }
+        System.out.println("Recovery: " + recovery.describeCounters());
+        System.out.println("Dedupe: " + recentRounds.describeCounters());
+        if (harvestedRounds.get() > 0) {
+            System.out.println("Harvest: " + harvestedRounds.get() + " round(s), "
+                    + incompleteRounds.get() + " below full coverage");
+        }
+        if (standby != null) {
+            standby.close();
+            System.out.println("Failover: " + failoverMonitor.describe());
+        }
+        if (pushCapture != null) {
+            pushCapture.close();
+        }
+        if (webSocketCapture != null) {
+            System.out.println("WebSocket capture: " + webSocketCapture.describeCounters());
+            webSocketCapture.close();
+        }
+        if (verifyExecutor != null) {
+            verifyExecutor.shutdownNow();
+        }
+        if (triggerDispatcher != null) {
+            triggerDispatcher.stop();
+            System.out.println("Trigger queue: " + triggerDispatcher.getQueue().describeCounters());
+        }
         if (lastSummaryId != null) {
-            updateSummaryStatus(lastSummaryId, "STOPPED");
+            store.updateSummaryStatus(lastSummaryId, "STOPPED");
         }
-        recordTerminationTimestamp();
+        store.recordTerminationTimestamp();
 
         if (driver != null) {
             driver.quit();
         }
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+        if (ownsStore) {
+            store.close();
         }
     }
 
     // ———————————————————————————————————————————————————————————————————————
-    // Main entrypoint (no changes here)
+    // Main entrypoint
     // ———————————————————————————————————————————————————————————————————————
     public static void main(String[] args) {
-        AviatorScraperShare scraper = new AviatorScraperShare();
+        // Any flag selects the unattended start: no dialogs, parallel initialization
+        AviatorScraperShare scraper;
+        if (args.length > 0) {
+            try {
+                scraper = new AviatorScraperShare(StartupOptions.parse(args));
+            } catch (Exception e) {
+                System.err.println("Startup failed: " + e.getMessage());
+                e.printStackTrace();
+                System.exit(1);
+                return;
+            }
+        } else {
+            scraper = new AviatorScraperShare();
+        }
         Thread.setDefaultUncaughtExceptionHandler((t, err) -> {
             if (err instanceof Exception) {
                 scraper.handleCriticalError((Exception) err);
@@ -750,241 +1114,16 @@ public class AviatorScraperShare implements SoundDetectionListener {
     }
 
     // ———————————————————————————————————————————————————————————————————————
-    // InputTensorData aggregation methods (no changes here)
-    // buildInputTensorDataTableFull, updateLatestInputTensorDataGroup,
-    // updateOrInsertGroupAggregation, calculateMode, etc.
+    // InputTensorData aggregation: a full rebuild (InputTensorAggregator) or
+    // a flush of the in-memory groups (LiveTensorAggregator). Both run on the
+    // database writer thread; these wait until it has finished.
     // ———————————————————————————————————————————————————————————————————————
 
     public void buildInputTensorDataTableFull() {
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute("DROP TABLE IF EXISTS InputTensorData");
-            String createSQL = "CREATE TABLE IF NOT EXISTS InputTensorData (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                    "input_tensor_group TEXT UNIQUE, " +
-                    "lowest_target_multiplier REAL, " +
-                    "highest_target_multiplier REAL, " +
-                    "mean_target_multiplier REAL, " +
-                    "mode_target_range_start REAL, " +
-                    "mode_target_range_end REAL, " +
-                    "mode_range_target_count INTEGER, " +
-                    "above_mode_range_target_count INTEGER, " +
-                    "below_mode_range_target_count INTEGER, " +
-                    "group_count INTEGER, " +
-                    "target_confidence REAL, " +
-                    "TerminationTimestamp TEXT" +
-                    ")";
-            stmt.execute(createSQL);
-            System.out.println("InputTensorData table created (full build).");
-
-            String[] groups = {
-                    "[0,0,0,0]", "[0,0,0,1]", "[0,0,1,0]", "[0,0,1,1]",
-                    "[0,1,0,0]", "[0,1,0,1]", "[0,1,1,0]", "[0,1,1,1]",
-                    "[1,0,0,0]", "[1,0,0,1]", "[1,0,1,0]", "[1,0,1,1]",
-                    "[1,1,0,0]", "[1,1,0,1]", "[1,1,1,0]", "[1,1,1,1]"
-            };
-            for (String group : groups) {
-                updateOrInsertGroupAggregation(group);
-            }
-            System.out.println("Full build of InputTensorData completed.");
-        } catch (SQLException e) {
-            System.out.println("Error building InputTensorData table (full build): " + e.getMessage());
-            e.printStackTrace();
-        }
+        store.rebuildInputTensorData();
     }
 
     public void updateLatestInputTensorDataGroup() {
-        try {
-            String getLatestGroupQuery =
-                    "SELECT input_tensor " +
-                            "FROM SummaryData " +
-                            "WHERE TargetMultiplier IS NOT NULL " +
-                            "  AND LENGTH(input_tensor)=9 " +
-                            "ORDER BY id DESC LIMIT 1";
-
-            try (PreparedStatement ps = connection.prepareStatement(getLatestGroupQuery);
-                 ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    String group = rs.getString("input_tensor").replaceAll("\\s+", "");
-                    updateOrInsertGroupAggregation(group);
-                }
-            }
-        } catch (SQLException ex) {
-            System.out.println("Error updating latest InputTensorData group: " + ex.getMessage());
-            ex.printStackTrace();
-        }
-    }
-
-    private void updateOrInsertGroupAggregation(String group) throws SQLException {
-        String aggQuery =
-                "SELECT " +
-                        "   MIN(CAST(TargetMultiplier AS REAL)) AS lowest_target_multiplier, " +
-                        "   MAX(CAST(TargetMultiplier AS REAL)) AS highest_target_multiplier, " +
-                        "   AVG(CAST(TargetMultiplier AS REAL)) AS mean_target_multiplier, " +
-                        "   COUNT(*) AS group_count " +
-                        "FROM SummaryData " +
-                        "WHERE input_tensor = ? " +
-                        "  AND LENGTH(input_tensor)=9 " +
-                        "  AND TargetMultiplier IS NOT NULL " +
-                        "  AND id >= ? " +
-                        "  AND SummaryDate = ?";
-
-        try (PreparedStatement aggStmt = connection.prepareStatement(aggQuery)) {
-            long minId = 1;  // or previously tracked minAggregationId
-            String currentRunDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-
-            aggStmt.setString(1, group);
-            aggStmt.setLong(2, minId);
-            aggStmt.setString(3, currentRunDate);
-
-            try (ResultSet aggRs = aggStmt.executeQuery()) {
-                if (aggRs.next()) {
-                    double lowest = aggRs.getDouble("lowest_target_multiplier");
-                    double highest = aggRs.getDouble("highest_target_multiplier");
-                    double mean = aggRs.getDouble("mean_target_multiplier");
-                    int groupCount = aggRs.getInt("group_count");
-
-                    if (groupCount == 0) return;
-
-                    List<Double> multipliers = new ArrayList<>();
-                    String fetchMultipliersQuery =
-                            "SELECT CAST(TargetMultiplier AS REAL) AS val " +
-                                    "FROM SummaryData " +
-                                    "WHERE input_tensor = ? " +
-                                    "  AND LENGTH(input_tensor)=9 " +
-                                    "  AND TargetMultiplier IS NOT NULL " +
-                                    "  AND id >= ? " +
-                                    "  AND SummaryDate = ?";
-                    try (PreparedStatement fetchStmt = connection.prepareStatement(fetchMultipliersQuery)) {
-                        fetchStmt.setString(1, group);
-                        fetchStmt.setLong(2, minId);
-                        fetchStmt.setString(3, currentRunDate);
-                        try (ResultSet fetchRs = fetchStmt.executeQuery()) {
-                            while (fetchRs.next()) {
-                                multipliers.add(fetchRs.getDouble("val"));
-                            }
-                        }
-                    }
-
-                    double modeStart = 0.0, modeEnd = 0.0, confidence = 0.0;
-                    int modeCount = 0, aboveCount = 0, belowCount = 0;
-                    if (!multipliers.isEmpty()) {
-                        double[] modeStats = calculateMode(multipliers);
-                        modeStart   = modeStats[0];
-                        modeEnd     = modeStats[1];
-                        modeCount   = (int) modeStats[2];
-                        aboveCount  = (int) modeStats[3];
-                        belowCount  = (int) modeStats[4];
-                        confidence  = modeStats[5];
-                    }
-
-                    String checkQuery = "SELECT id FROM InputTensorData WHERE input_tensor_group = ?";
-                    try (PreparedStatement checkStmt = connection.prepareStatement(checkQuery)) {
-                        checkStmt.setString(1, group);
-                        try (ResultSet checkRs = checkStmt.executeQuery()) {
-                            if (checkRs.next()) {
-                                String updateQuery =
-                                        "UPDATE InputTensorData " +
-                                                "SET lowest_target_multiplier = ?, " +
-                                                "    highest_target_multiplier= ?, " +
-                                                "    mean_target_multiplier   = ?, " +
-                                                "    mode_target_range_start  = ?, " +
-                                                "    mode_target_range_end    = ?, " +
-                                                "    mode_range_target_count  = ?, " +
-                                                "    above_mode_range_target_count = ?, " +
-                                                "    below_mode_range_target_count = ?, " +
-                                                "    group_count              = ?, " +
-                                                "    target_confidence        = ? " +
-                                                "WHERE input_tensor_group = ?";
-                                try (PreparedStatement updateStmt = connection.prepareStatement(updateQuery)) {
-                                    updateStmt.setDouble(1, lowest);
-                                    updateStmt.setDouble(2, highest);
-                                    updateStmt.setDouble(3, mean);
-                                    updateStmt.setDouble(4, modeStart);
-                                    updateStmt.setDouble(5, modeEnd);
-                                    updateStmt.setInt(6, modeCount);
-                                    updateStmt.setInt(7, aboveCount);
-                                    updateStmt.setInt(8, belowCount);
-                                    updateStmt.setInt(9, groupCount);
-                                    updateStmt.setDouble(10, confidence);
-                                    updateStmt.setString(11, group);
-                                    updateStmt.executeUpdate();
-                                }
-                            } else {
-                                String insertQuery =
-                                        "INSERT INTO InputTensorData (" +
-                                                "  input_tensor_group, lowest_target_multiplier, highest_target_multiplier, " +
-                                                "  mean_target_multiplier, mode_target_range_start, mode_target_range_end, " +
-                                                "  mode_range_target_count, above_mode_range_target_count, below_mode_range_target_count, " +
-                                                "  group_count, target_confidence" +
-                                                ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-                                try (PreparedStatement insertStmt = connection.prepareStatement(insertQuery)) {
-                                    insertStmt.setString(1, group);
-                                    insertStmt.setDouble(2, lowest);
-                                    insertStmt.setDouble(3, highest);
-                                    insertStmt.setDouble(4, mean);
-                                    insertStmt.setDouble(5, modeStart);
-                                    insertStmt.setDouble(6, modeEnd);
-                                    insertStmt.setInt(7, modeCount);
-                                    insertStmt.setInt(8, aboveCount);
-                                    insertStmt.setInt(9, belowCount);
-                                    insertStmt.setInt(10, groupCount);
-                                    insertStmt.setDouble(11, confidence);
-                                    insertStmt.executeUpdate();
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (SQLException ex) {
-            System.out.println("Error updating latest InputTensorData group: " + ex.getMessage());
-            ex.printStackTrace();
-        }
-    }
-
-    private double[] calculateMode(List<Double> multipliers) {
-        if (multipliers == null || multipliers.isEmpty()) {
-            return new double[]{1.0, 1.0, 0, 0, 0, 0};
-        }
-        Collections.sort(multipliers);
-        int n = multipliers.size();
-        int q1Index = (int) Math.floor(0.25 * (n - 1));
-        int q3Index = (int) Math.floor(0.75 * (n - 1));
-        double q1 = multipliers.get(q1Index);
-        double q3 = multipliers.get(q3Index);
-        double iqr = q3 - q1;
-
-        double binWidth = (iqr > 0) ? (2.0 * iqr / Math.pow(n, 1.0 / 3.0)) : 0.1;
-        if (binWidth <= 0) {
-            binWidth = 0.1;
-        }
-
-        Map<Double, Integer> binCounts = new HashMap<>();
-        double modeStart = 0, modeEnd = 0;
-        int modeCount = 0;
-        for (double value : multipliers) {
-            double binStart = Math.floor(value / binWidth) * binWidth;
-            int count = binCounts.getOrDefault(binStart, 0) + 1;
-            binCounts.put(binStart, count);
-            if (count > modeCount) {
-                modeCount = count;
-                modeStart = binStart;
-                modeEnd = binStart + binWidth;
-            }
-        }
-        modeStart = Math.max(modeStart, 1.0);
-        modeEnd = Math.max(modeEnd, modeStart + binWidth);
-
-        int belowCount = 0, aboveCount = 0;
-        for (double v : multipliers) {
-            if (v < modeStart) {
-                belowCount++;
-            } else if (v > modeEnd) {
-                aboveCount++;
-            }
-        }
-
-        double confidence = modeCount + aboveCount - belowCount;
-        return new double[]{modeStart, modeEnd, modeCount, aboveCount, belowCount, confidence};
+        store.updateLatestInputTensorGroup();
     }
 }
@@ -0,0 +1,38 @@
+package com.AviatorScraper;
+
+/**
+ * One row of the bet list for a finished round.
+ */
+public final class Bet {
+    private final double amount;
+    private final double cashOut;
+    private final String multiplier; // cash-out multiplier as shown, "N/A" when not shown
+    private final boolean freeBet;
+
+    public Bet(double amount, double cashOut, String multiplier, boolean freeBet) {
+        this.amount = amount;
+        this.cashOut = cashOut;
+        this.multiplier = multiplier;
+        this.freeBet = freeBet;
+    }
+
+    public static Bet freeBet(String multiplier) {
+        return new Bet(0.0, 0.0, multiplier, true);
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public double getCashOut() {
+        return cashOut;
+    }
+
+    public String getMultiplier() {
+        return multiplier;
+    }
+
+    public boolean isFreeBet() {
+        return freeBet;
+    }
+}
@@ -0,0 +1,318 @@
+package com.AviatorScraper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Exports {@code BetData}, {@code SummaryData} and {@code InputTensorData} to CSV and/or
+ * {@link ColumnarFile} without getting in the way of live capture.
+ *
+ * <ul>
+ *   <li>It opens its own read-only connection, and all tables are read inside one read
+ *       transaction. Under WAL that transaction is a snapshot: the export is consistent
+ *       across tables and the scraper's writer keeps committing while it runs.</li>
+ *   <li>Rows are streamed straight from the cursor to the file, so memory does not grow
+ *       with the table (columnar output holds one group of {@code groupRows}).</li>
+ *   <li>Incremental by default: the last exported id per table is kept in a state file,
+ *       and the next run starts after it. A round is only exported once it is
+ *       {@code settleSeconds} old, because its TargetMultiplier is filled in by the next
+ *       round. Export stops at the first round that is too new, so nothing is skipped.
+ *       InputTensorData is rebuilt in place by the scraper and is always exported in
+ *       full.</li>
+ * </ul>
+ *
+ * Files are written as {@code <table>-<first id>-<last id>.csv|.col} (InputTensorData gets
+ * a timestamp instead) through a {@code .part} file. The state is saved only after every
+ * table has succeeded, so a failed run is simply repeated.
+ *
+ * <pre>
+ *   BetDataExporter [--db=betdata.db] [--out=exports] [--format=csv|columnar|both]
+ *                   [--tables=BetData,SummaryData,InputTensorData] [--full] [--settleSeconds=300]
+ *                   [--groupRows=8192] [--state=&lt;out&gt;/export.state]
+ *   BetDataExporter --dump=exports/SummaryData-1-4840.col      (columnar file as CSV on stdout)
+ * </pre>
+ */
+public class BetDataExporter {
+    private static final String BET_BOUND_SQL = "SELECT MAX(id) FROM Bet";
+    private static final String ROUND_MAX_SQL = "SELECT MAX(id) FROM Round";
+    private static final String FIRST_UNSETTLED_SQL = "SELECT MIN(id) FROM Round WHERE id > ? AND CapturedAt >= ?";
+
+    private final String databasePath;
+    private final File outDir;
+    private final File stateFile;
+    private final boolean csv;
+    private final boolean columnar;
+    private final long settleMillis;
+    private final int groupRows;
+
+    public BetDataExporter(String databasePath, File outDir, File stateFile, String format, long settleMillis,
+                           int groupRows) {
+        this.databasePath = databasePath;
+        this.outDir = outDir;
+        this.stateFile = stateFile;
+        this.csv = format.equals("csv") || format.equals("both");
+        this.columnar = format.equals("columnar") || format.equals("both");
+        if (!csv && !columnar) {
+            throw new IllegalArgumentException("Unknown export format: " + format);
+        }
+        this.settleMillis = settleMillis;
+        this.groupRows = groupRows;
+    }
+
+    // Read-only: the exporter can never take the database write lock
+    private Connection openSnapshotReader() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("open_mode", "1"); // SQLITE_OPEN_READONLY
+        Connection connection = DriverManager.getConnection("jdbc:sqlite:" + databasePath, properties);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout=5000");
+        }
+        return connection;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Export the given tables from one snapshot; full ignores the saved ids
+    // ———————————————————————————————————————————————————————————————————————
+    public void export(List<String> tables, boolean full) throws SQLException, IOException {
+        if (!outDir.isDirectory() && !outDir.mkdirs()) {
+            throw new IOException("Cannot create export directory " + outDir);
+        }
+        Properties state = loadState();
+        long snapshotTime = System.currentTimeMillis();
+        long t0 = System.nanoTime();
+
+        try (Connection connection = openSnapshotReader()) {
+            // Everything below reads from the snapshot taken by the first SELECT
+            connection.setAutoCommit(false);
+            try {
+                for (String table : tables) {
+                    long after = full ? 0L : Long.parseLong(state.getProperty(table + ".lastId", "0"));
+                    switch (table) {
+                        case "BetData": {
+                            long upTo = queryLong(connection, BET_BOUND_SQL);
+                            exportRange(connection, table, after, upTo, state);
+                            break;
+                        }
+                        case "SummaryData": {
+                            long upTo = settledBound(connection, after, snapshotTime - settleMillis);
+                            exportRange(connection, table, after, upTo, state);
+                            break;
+                        }
+                        case "InputTensorData": {
+                            String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+                            exportQuery(connection, "SELECT * FROM InputTensorData ORDER BY id", table + "-" + stamp);
+                            break;
+                        }
+                        default:
+                            throw new IllegalArgumentException("Unknown table: " + table);
+                    }
+                }
+            } finally {
+                connection.rollback(); // ends the read transaction
+            }
+        }
+        saveState(state);
+        System.out.printf("Export finished in %.1f s.%n", (System.nanoTime() - t0) / 1e9);
+    }
+
+    // Newest round id that is old enough to be final, stopping before the first one that is not
+    private long settledBound(Connection connection, long after, long settledBefore) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(FIRST_UNSETTLED_SQL)) {
+            ps.setLong(1, after);
+            ps.setLong(2, settledBefore);
+            try (ResultSet rs = ps.executeQuery()) {
+                long firstUnsettled = rs.next() ? rs.getLong(1) : 0L;
+                if (!rs.wasNull()) {
+                    return firstUnsettled - 1;
+                }
+            }
+        }
+        return queryLong(connection, ROUND_MAX_SQL);
+    }
+
+    private void exportRange(Connection connection, String table, long after, long upTo, Properties state)
+            throws SQLException, IOException {
+        if (upTo <= after) {
+            System.out.println(table + ": nothing new after id " + after + ".");
+            return;
+        }
+        String sql = "SELECT * FROM " + table + " WHERE id > " + after + " AND id <= " + upTo + " ORDER BY id";
+        exportQuery(connection, sql, table + "-" + (after + 1) + "-" + upTo);
+        state.setProperty(table + ".lastId", Long.toString(upTo));
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // One pass over the cursor, written to every requested format at once
+    // ———————————————————————————————————————————————————————————————————————
+    private void exportQuery(Connection connection, String sql, String baseName) throws SQLException, IOException {
+        long t0 = System.nanoTime();
+        File csvFile = new File(outDir, baseName + ".csv");
+        File colFile = new File(outDir, baseName + ".col");
+        File csvPart = new File(outDir, baseName + ".csv.part");
+        File colPart = new File(outDir, baseName + ".col.part");
+        long rows = 0;
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            ResultSetMetaData meta = rs.getMetaData();
+            String[] names = new String[meta.getColumnCount()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = meta.getColumnName(i + 1);
+            }
+
+            try (Writer csvOut = csv ? new BufferedWriter(new OutputStreamWriter(
+                         new FileOutputStream(csvPart), StandardCharsets.UTF_8), 1 << 16) : null;
+                 ColumnarFile.Writer colOut = columnar ? new ColumnarFile.Writer(
+                         new BufferedOutputStream(new FileOutputStream(colPart), 1 << 16), names, groupRows) : null) {
+                if (csvOut != null) {
+                    writeCsvRow(csvOut, names);
+                }
+                Object[] values = new Object[names.length];
+                String[] text = new String[names.length];
+                while (rs.next()) {
+                    for (int i = 0; i < names.length; i++) {
+                        if (colOut != null) {
+                            values[i] = rs.getObject(i + 1);
+                        }
+                        if (csvOut != null) {
+                            text[i] = rs.getString(i + 1);
+                        }
+                    }
+                    if (csvOut != null) {
+                        writeCsvRow(csvOut, text);
+                    }
+                    if (colOut != null) {
+                        colOut.write(values);
+                    }
+                    rows++;
+                }
+            }
+        }
+
+        if (csv) {
+            Files.move(csvPart.toPath(), csvFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (columnar) {
+            Files.move(colPart.toPath(), colFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        System.out.printf("%s: %d row(s) in %.1f s.%n", baseName, rows, (System.nanoTime() - t0) / 1e9);
+    }
+
+    private static void writeCsvRow(Writer out, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    private Properties loadState() throws IOException {
+        Properties state = new Properties();
+        if (stateFile.exists()) {
+            try (InputStream in = new FileInputStream(stateFile)) {
+                state.load(in);
+            }
+        }
+        return state;
+    }
+
+    private void saveState(Properties state) throws IOException {
+        File part = new File(stateFile.getPath() + ".part");
+        try (OutputStream out = new FileOutputStream(part)) {
+            state.store(out, "Last exported id per table (BetDataExporter)");
+        }
+        Files.move(part.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Columnar file back to CSV, for checking an export or feeding other tools
+    // ———————————————————————————————————————————————————————————————————————
+    private static void dump(File file) throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+            ColumnarFile.read(in, names -> csvQuietly(out, names), row -> {
+                String[] text = new String[row.length];
+                for (int i = 0; i < row.length; i++) {
+                    text[i] = (row[i] == null) ? null : row[i].toString();
+                }
+                csvQuietly(out, text);
+            });
+        }
+        out.flush();
+    }
+
+    private static void csvQuietly(Writer out, String[] values) {
+        try {
+            writeCsvRow(out, values);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        StartupOptions options = StartupOptions.parse(args);
+        String dumpPath = options.get("dump", "");
+        if (!dumpPath.isEmpty()) {
+            dump(new File(dumpPath));
+            return;
+        }
+
+        File outDir = new File(options.get("out", "exports"));
+        List<String> tables = new ArrayList<>();
+        for (String table : options.get("tables", "BetData,SummaryData,InputTensorData").split(",")) {
+            if (!table.isBlank()) {
+                tables.add(table.trim());
+            }
+        }
+        BetDataExporter exporter = new BetDataExporter(
+                options.get("db", "betdata.db"),
+                outDir,
+                new File(options.get("state", new File(outDir, "export.state").getPath())),
+                options.get("format", "csv"),
+                Long.parseLong(options.get("settleSeconds", "300")) * 1000L,
+                Integer.parseInt(options.get("groupRows", "8192")));
+        exporter.export(tables, Boolean.parseBoolean(options.get("full", "false")));
+    }
+}
@@ -0,0 +1,860 @@
+package com.AviatorScraper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The one writer for {@code betdata.db}. Every scraper session in the JVM hands its rounds
+ * to the same store, which owns the only SQLite connection and serializes writes on it.
+ * Sessions therefore never contend for the database file lock, and adding a session costs
+ * another browser, not another writer. Every Round row carries the id of
+ * the session that captured it.
+ *
+ * <p>Writes are write-behind: the insert/update methods only queue the work and return, and
+ * a dedicated writer thread applies it. The writer group-commits everything that arrives
+ * within {@code -Dstore.flushMillis} (or up to {@code -Dstore.groupCommitOps} writes) in
+ * one transaction, so the scrape thread never waits on an fsync. The queue is bounded
+ * ({@code -Dstore.queueCapacity}); when it is full, callers block until the writer catches
+ * up, and those waits are counted. {@link #close()} drains every queued write before the
+ * connection is closed.
+ *
+ * <p>A round is one queued write: its Round row and its Bet rows are applied under one
+ * SAVEPOINT, so a failure leaves no orphaned bets behind. Statements are prepared once per
+ * connection through a {@link StatementCache}. What a write changes outside the database
+ * (its Round id future, the session's pending label, the in-memory tensor groups) is held
+ * back until its transaction commits. A group commit that finds the database busy or locked
+ * is rolled back and applied again, up to {@code -Dstore.commitRetries} (default 3) times.
+ *
+ * <p>InputTensorData is maintained in memory by a {@link LiveTensorAggregator}, loaded once
+ * on open and fed each round as it is labelled. Changed groups are upserted in a small
+ * transaction after a group commit, at most every {@code -Dtensor.flushMillis} (default
+ * 5000), or after every commit with {@code -Dtensor.updatePerRound=true}, and always on close.
+ *
+ * <p>Before a round is queued it is appended to the {@link RoundJournal} next to the database
+ * ({@code <db>.journal}), so the Round/Bet rows are a projection of the journal. Each Round
+ * row records the journal sequence it came from, and every group commit advances the newest
+ * projected sequence in {@code JournalState}, which partitioning leaves alone. On open,
+ * journal records the database does not hold are projected again: those newer than the
+ * newest projected sequence (rounds
+ * queued but never committed before a crash) and holes below it (writes that were rolled
+ * back while later ones committed). {@code -Djournal.enabled=false} turns the journal off, and
+ * {@code -Djournal.rollMB} (default 256) sets the size at which a fully projected journal
+ * is rolled aside on open.
+ */
+public class BetDataStore {
+
+    private final Connection connection;
+    private final StatementCache statements;
+    private final int tensorLength; // Brad window length, -Dtensor.length
+    private final long maxLabelGapMillis; // rounds further apart than this did not follow each other
+    private final InputTensorAggregator tensors;
+    private final LiveTensorAggregator liveTensors;
+    private final long tensorFlushNanos;
+    private long lastTensorFlushNanos; // writer thread only
+    private final Statement control; // SAVEPOINT / RELEASE / ROLLBACK TO, writer thread only
+    private final RoundJournal journal; // null when disabled or for in-memory databases
+    private final Object journalOrder = new Object();
+    private final long projectedSequence; // newest JournalSeq in the database at open
+    private final long oldestSequence;    // oldest JournalSeq still in Round at open
+    private final BitSet presentSequences; // those in Round at open, from oldestSequence; null without a file
+    private final String databasePath;
+    private PartitionManager partitions;
+
+    private static final String INSERT_ROUND_SQL =
+            "INSERT INTO Round " +
+                    "(SessionId, CapturedAt, RoundMultiplier, TotalBetAmount, TotalCashOut, ProfitLoss, " +
+                    "Brad, Bank, Status, RowsCaptured, RowsExpected, InputTensor, JournalSeq) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_BET_SQL =
+            "INSERT INTO Bet (RoundId, Amount, CashOut, CashOutMultiplier) VALUES (?, ?, ?, ?)";
+    private static final String SET_TARGET_SQL = "UPDATE Round SET TargetMultiplier = ? WHERE id = ?";
+    private static final String UPDATE_STATUS_SQL = "UPDATE Round SET Status = ? WHERE id = ?";
+    private static final String ADVANCE_JOURNAL_SQL =
+            "UPDATE JournalState SET ProjectedSeq = MAX(ProjectedSeq, ?) WHERE id = 1";
+
+    // Last round per session, so the next round can label it (writer thread only)
+    private static final class PendingLabel {
+        final long roundId;
+        final int tensorCode; // BradHistory code, -1 without a full window
+        final long capturedAt;
+
+        PendingLabel(long roundId, int tensorCode, long capturedAt) {
+            this.roundId = roundId;
+            this.tensorCode = tensorCode;
+            this.capturedAt = capturedAt;
+        }
+    }
+
+    private final Map<String, PendingLabel> lastRoundBySession = new HashMap<>();
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Side effects of the writes in the open transaction (writer thread only).
+    // A write registers them while it applies; they run once the transaction
+    // commits, or are abandoned with it. Labels staged by earlier writes in
+    // the same transaction are visible to later ones, and so are the ids of
+    // rounds inserted by them.
+    // ———————————————————————————————————————————————————————————————————————
+    private final List<Runnable> opCommitted = new ArrayList<>();
+    private final List<Runnable> opAbandoned = new ArrayList<>();
+    private final List<Runnable> batchCommitted = new ArrayList<>();
+    private final List<Runnable> batchAbandoned = new ArrayList<>();
+    private final Map<String, PendingLabel> stagedLabels = new HashMap<>();
+    private final Map<CompletableFuture<Long>, Long> stagedRoundIds = new HashMap<>();
+    private long stagedSequence; // newest journal sequence written in the open transaction
+    private boolean tensorReloadRequested;
+    private boolean tensorFlushRequested;
+    private static final String UPDATE_TERMINATION_SQL =
+            "UPDATE InputTensorData SET TerminationTimestamp = ? WHERE input_tensor_group = ?";
+    private static final String INSERT_TERMINATION_SQL =
+            "INSERT INTO InputTensorData (input_tensor_group, TerminationTimestamp) VALUES (?, ?)";
+
+    // One unit of queued work, run on the writer thread inside the current transaction
+    private interface WriteOp {
+        void apply() throws SQLException;
+    }
+
+    private static final class Queued {
+        final WriteOp op;
+        final long enqueuedNanos = System.nanoTime();
+        final CompletableFuture<Void> flushed; // non-null for flush markers
+
+        Queued(WriteOp op, CompletableFuture<Void> flushed) {
+            this.op = op;
+            this.flushed = flushed;
+        }
+    }
+
+    private static final Queued SHUTDOWN = new Queued(null, null);
+
+    private final BlockingQueue<Queued> queue;
+    private final int groupCommitOps;
+    private final long flushNanos;
+    private final long lagWarnNanos;
+    private final int commitRetries;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    // Pipeline metrics
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong backpressureWaits = new AtomicLong();
+    private final AtomicLong backpressureNanos = new AtomicLong();
+    private volatile long committedOps;
+    private volatile long failedOps;
+    private volatile long transactions;
+    private volatile long commitRetriesUsed;
+    private volatile long totalLagNanos;
+    private volatile long maxLagNanos;
+    private volatile int maxDepth;
+
+    public BetDataStore(String jdbcUrl) throws SQLException {
+        this(jdbcUrl, Boolean.parseBoolean(System.getProperty("journal.enabled", "true")));
+    }
+
+    public BetDataStore(String jdbcUrl, boolean journaled) throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl);
+        initializeDatabase(jdbcUrl);
+        statements = new StatementCache(connection);
+        tensorLength = BradHistory.configuredLength();
+        maxLabelGapMillis = Long.getLong("tensor.maxLabelGapMillis", 120_000);
+        tensors = new InputTensorAggregator(statements, tensorLength);
+        liveTensors = new LiveTensorAggregator(statements, tensorLength);
+        control = connection.createStatement();
+        projectedSequence = newestJournalSequence();
+        databasePath = databasePath(jdbcUrl);
+        boolean journalOpen = journaled && databasePath != null;
+        // Read before the writer starts; it owns the connection from then on
+        oldestSequence = (databasePath != null) ? oldestJournalSequence() : 0L;
+        presentSequences = (databasePath != null) ? projectedSequences(oldestSequence) : null;
+
+        queue = new ArrayBlockingQueue<>(Integer.getInteger("store.queueCapacity", 1024));
+        groupCommitOps = Integer.getInteger("store.groupCommitOps", 512);
+        flushNanos = TimeUnit.MILLISECONDS.toNanos(Integer.getInteger("store.flushMillis", 200));
+        lagWarnNanos = TimeUnit.MILLISECONDS.toNanos(Integer.getInteger("store.lagWarnMillis", 2000));
+        commitRetries = Integer.getInteger("store.commitRetries", 3);
+        tensorFlushNanos = Boolean.getBoolean("tensor.updatePerRound") ? 0L
+                : TimeUnit.MILLISECONDS.toNanos(Integer.getInteger("tensor.flushMillis", 5000));
+        writer = new Thread(this::writeLoop, "betdata-writer");
+        writer.setDaemon(true);
+        writer.start();
+        submit(() -> tensorReloadRequested = true, null); // ahead of any journal projection
+
+        journal = journalOpen
+                ? openJournal(Paths.get(databasePath + ".journal"), oldestSequence, presentSequences)
+                : null;
+    }
+
+    // JournalState keeps it once partitioning has moved the newest rounds out of Round
+    private long newestJournalSequence() throws SQLException {
+        try (ResultSet rs = control.executeQuery(
+                "SELECT MAX((SELECT COALESCE(MAX(ProjectedSeq), 0) FROM JournalState), " +
+                        "(SELECT COALESCE(MAX(JournalSeq), 0) FROM Round))")) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    // Where the search for holes starts; older rounds have been moved to partitions
+    private long oldestJournalSequence() throws SQLException {
+        try (ResultSet rs = control.executeQuery("SELECT MIN(JournalSeq) FROM Round")) {
+            long oldest = rs.next() ? rs.getLong(1) : 0L;
+            return (oldest > 0) ? oldest : projectedSequence + 1;
+        }
+    }
+
+    // Sequences from 'from' up to projectedSequence that are in Round, as bits offset by 'from'
+    private BitSet projectedSequences(long from) throws SQLException {
+        BitSet present = new BitSet();
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT JournalSeq FROM Round WHERE JournalSeq >= ? AND JournalSeq <= ?")) {
+            ps.setLong(1, from);
+            ps.setLong(2, projectedSequence);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    present.set((int) (rs.getLong(1) - from));
+                }
+            }
+        }
+        return present;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Open the journal and project whatever it holds that the database lacks:
+    // records past the newest projected sequence, and holes from 'oldest' (the
+    // oldest sequence still in Round) up to it, i.e. sequences not in
+    // 'present'. A journal that cannot be opened is reported and capture goes
+    // on without it.
+    // ———————————————————————————————————————————————————————————————————————
+    private RoundJournal openJournal(Path path, long oldest, BitSet present) {
+        long rollBytes = Long.getLong("journal.rollMB", 256) << 20;
+        try {
+            long projectedThrough = projectedSequence;
+            if (Files.exists(path) && Files.size(path) > 0) {
+                long[] holes = {0, Long.MAX_VALUE}; // count, lowest
+                long[] newer = {0};
+                RoundJournal.Scan scan = RoundJournal.read(path, oldest - 1, entry -> {
+                    long sequence = entry.getSequence();
+                    if (sequence > projectedSequence) {
+                        newer[0]++;
+                    } else if (!present.get((int) (sequence - oldest))) {
+                        holes[0]++;
+                        holes[1] = Math.min(holes[1], sequence);
+                    } else {
+                        return;
+                    }
+                    project(entry);
+                });
+                if (holes[0] + newer[0] > 0) {
+                    System.out.println("Round journal: projected " + newer[0] + " round(s) after sequence "
+                            + projectedSequence + " and " + holes[0] + " missing below it, from " + scan + ".");
+                    flush();
+                }
+                if (holes[0] > 0) {
+                    projectedThrough = holes[1] - 1; // keep the journal from rolling until a clean open
+                }
+            }
+            return RoundJournal.open(path, projectedThrough, rollBytes);
+        } catch (IOException e) {
+            System.err.println("Round journal " + path + " unavailable, writing to the database only: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Connection settings, then bring the schema up to date (see SchemaMigrator)
+    // ———————————————————————————————————————————————————————————————————————
+    private void initializeDatabase(String jdbcUrl) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA journal_mode=WAL");
+            stmt.execute("PRAGMA busy_timeout=5000");
+            stmt.execute("PRAGMA foreign_keys=ON");
+        }
+        int found = SchemaMigrator.migrate(connection, databasePath(jdbcUrl));
+        System.out.println("Database ready (schema version " + SchemaMigrator.CURRENT_VERSION
+                + (found < SchemaMigrator.CURRENT_VERSION ? ", upgraded from " + found : "") + ").");
+    }
+
+    // File behind a jdbc:sqlite: URL, or null for in-memory databases
+    static String databasePath(String jdbcUrl) {
+        String path = jdbcUrl.startsWith("jdbc:sqlite:") ? jdbcUrl.substring("jdbc:sqlite:".length()) : jdbcUrl;
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        if (path.startsWith("file:")) {
+            path = path.substring("file:".length());
+        }
+        return (path.isEmpty() || path.equals(":memory:")) ? null : path;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Producer side: queue the write and return. Blocks only when the queue
+    // is full (backpressure).
+    // ———————————————————————————————————————————————————————————————————————
+    private void submit(WriteOp op, CompletableFuture<Void> flushed) {
+        if (closed) {
+            System.err.println("BetDataStore is closed; dropping write.");
+            if (flushed != null) {
+                flushed.complete(null);
+            }
+            return;
+        }
+        Queued item = new Queued(op, flushed);
+        if (!queue.offer(item)) {
+            long t0 = System.nanoTime();
+            try {
+                queue.put(item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.err.println("Interrupted while waiting for the database writer; write dropped.");
+                return;
+            }
+            long waited = System.nanoTime() - t0;
+            backpressureWaits.incrementAndGet();
+            backpressureNanos.addAndGet(waited);
+            System.out.printf("Database writer backpressure: waited %.1f ms for queue space.%n", waited / 1_000_000.0);
+        }
+        if (op != null) {
+            submitted.incrementAndGet();
+        }
+        int depth = queue.size();
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+    }
+
+    // Blocks until everything queued so far is committed
+    public void flush() {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        submit(null, done);
+        done.join();
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Writer thread: take the first write, gather more until the size or time
+    // threshold, commit them as one transaction
+    // ———————————————————————————————————————————————————————————————————————
+    private void writeLoop() {
+        List<Queued> batch = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                Queued first = queue.take();
+                if (first == SHUTDOWN) {
+                    break;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushNanos;
+                while (batch.size() < groupCommitOps && first.flushed == null) {
+                    long remaining = deadline - System.nanoTime();
+                    Queued next = (remaining > 0) ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    if (next == SHUTDOWN) {
+                        running = false;
+                        break;
+                    }
+                    batch.add(next);
+                    if (next.flushed != null) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                commitBatch(batch);
+                batch.clear();
+            }
+        }
+        // Anything still queued after an interrupt is committed before close
+        List<Queued> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        rest.remove(SHUTDOWN);
+        if (!rest.isEmpty()) {
+            commitBatch(rest);
+        }
+    }
+
+    private void commitBatch(List<Queued> batch) {
+        int ops = 0;
+        for (Queued item : batch) {
+            if (item.op != null) {
+                ops++;
+            }
+        }
+        boolean[] rejected = new boolean[batch.size()]; // failed on their own; not applied again
+        boolean committed = false;
+        for (int attempt = 0; !committed; attempt++) {
+            try {
+                connection.setAutoCommit(false);
+                applyBatch(batch, rejected);
+                connection.commit();
+                committed = true;
+            } catch (SQLException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException ignored) {
+                }
+                batchCommitted.clear();
+                stagedLabels.clear();
+                stagedRoundIds.clear();
+                stagedSequence = 0;
+                if (isBusy(e) && attempt < commitRetries) {
+                    commitRetriesUsed++;
+                    System.out.println("Group commit of " + ops + " write(s) found the database busy, retrying: "
+                            + e.getMessage());
+                    batchAbandoned.clear();
+                    try {
+                        Thread.sleep(50L << attempt);
+                        continue;
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                System.err.println("Group commit of " + ops + " write(s) failed: " + e.getMessage());
+                e.printStackTrace();
+                break;
+            } finally {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+
+        int failed = 0;
+        for (boolean r : rejected) {
+            if (r) {
+                failed++;
+            }
+        }
+        if (committed) {
+            transactions++;
+            committedOps += ops - failed;
+            failedOps += failed;
+            batchCommitted.forEach(Runnable::run);
+        } else {
+            failedOps += ops;
+            batchAbandoned.forEach(Runnable::run);
+        }
+        batchCommitted.clear();
+        batchAbandoned.clear();
+        stagedLabels.clear();
+        stagedRoundIds.clear();
+        stagedSequence = 0;
+
+        if (tensorReloadRequested) {
+            tensorReloadRequested = false;
+            try {
+                liveTensors.rebuild();
+            } catch (SQLException e) {
+                System.out.println("Error loading InputTensorData groups: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        if (tensorFlushRequested
+                || (System.nanoTime() - lastTensorFlushNanos >= tensorFlushNanos && liveTensors.isDirty())) {
+            tensorFlushRequested = false;
+            commitTensors();
+        }
+
+        long now = System.nanoTime();
+        long batchMaxLag = 0;
+        for (Queued item : batch) {
+            long lag = now - item.enqueuedNanos;
+            if (item.op != null) {
+                totalLagNanos += lag;
+                batchMaxLag = Math.max(batchMaxLag, lag);
+            }
+            if (item.flushed != null) {
+                item.flushed.complete(null);
+            }
+        }
+        if (batchMaxLag > maxLagNanos) {
+            maxLagNanos = batchMaxLag;
+        }
+        if (batchMaxLag > lagWarnNanos) {
+            System.out.printf("Database writer is behind: %d write(s) committed %.0f ms after queuing, %d still queued.%n",
+                    ops, batchMaxLag / 1_000_000.0, queue.size());
+        }
+    }
+
+    // One pass over the batch inside the open transaction. A busy or locked error aborts the
+    // pass so the whole group is retried; any other failure undoes just that write.
+    private void applyBatch(List<Queued> batch, boolean[] rejected) throws SQLException {
+        for (int i = 0; i < batch.size(); i++) {
+            Queued item = batch.get(i);
+            if (item.op == null || rejected[i]) {
+                continue;
+            }
+            control.execute("SAVEPOINT write_op");
+            try {
+                item.op.apply();
+                batchCommitted.addAll(opCommitted);
+                batchAbandoned.addAll(opAbandoned);
+            } catch (SQLException e) {
+                control.execute("ROLLBACK TO write_op");
+                if (isBusy(e)) {
+                    batchAbandoned.addAll(opAbandoned);
+                    throw e;
+                }
+                rejected[i] = true;
+                System.out.println("Error applying queued write, rolled back: " + e.getMessage());
+                e.printStackTrace();
+                opAbandoned.forEach(Runnable::run);
+            } finally {
+                opCommitted.clear();
+                opAbandoned.clear();
+            }
+            control.execute("RELEASE write_op");
+        }
+        if (stagedSequence > 0) {
+            PreparedStatement ps = statements.get(ADVANCE_JOURNAL_SQL);
+            ps.setLong(1, stagedSequence);
+            ps.executeUpdate();
+        }
+    }
+
+    // SQLITE_BUSY or SQLITE_LOCKED, including their extended codes
+    private static boolean isBusy(SQLException e) {
+        int primary = e.getErrorCode() & 0xff;
+        return primary == 5 || primary == 6;
+    }
+
+    // Run once the open transaction commits
+    private void afterCommit(Runnable effect) {
+        opCommitted.add(effect);
+    }
+
+    // Run if the write is rolled back or its transaction never commits
+    private void ifAbandoned(Runnable effect) {
+        opAbandoned.add(effect);
+    }
+
+    // Upsert the changed InputTensorData groups in a transaction of their own
+    private void commitTensors() {
+        try {
+            connection.setAutoCommit(false);
+            liveTensors.flush();
+            connection.commit();
+            transactions++;
+            liveTensors.flushCommitted();
+        } catch (SQLException e) {
+            System.out.println("Error writing InputTensorData, kept for the next flush: " + e.getMessage());
+            e.printStackTrace();
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+            }
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException ignored) {
+            }
+        }
+        lastTensorFlushNanos = System.nanoTime();
+    }
+
+    public String describeCounters() {
+        long committed = committedOps;
+        long txns = transactions;
+        return String.format(Locale.ROOT,
+                "writes submitted=%d committed=%d failed=%d, transactions=%d (%.1f writes each), "
+                        + "busy retries=%d, lag avg=%.1f ms max=%.1f ms, queue depth now=%d max=%d, "
+                        + "backpressure waits=%d (%.0f ms)",
+                submitted.get(), committed, failedOps, txns, (txns > 0) ? committed / (double) txns : 0.0,
+                commitRetriesUsed,
+                (committed + failedOps > 0) ? totalLagNanos / 1_000_000.0 / (committed + failedOps) : 0.0, maxLagNanos / 1_000_000.0,
+                queue.size(), maxDepth, backpressureWaits.get(), backpressureNanos.get() / 1_000_000.0);
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Queues one round: its Round row and a Bet row per paid bet, written
+    // atomically. inputTensor is the Brad window ending at this round (null
+    // until the window is full); this round's multiplier becomes the
+    // TargetMultiplier of the session's previous round. The future completes
+    // with the Round id once committed (null on failure).
+    // ———————————————————————————————————————————————————————————————————————
+    public CompletableFuture<Long> recordRound(String sessionId, Round round, int brad, String inputTensor,
+                                               String status) {
+        if (journal == null) {
+            return project(sessionId, round, brad, inputTensor, status, 0L);
+        }
+        // Queue in sequence order. A write that fails while later ones commit leaves a hole
+        // below the newest JournalSeq; the next open finds it and projects it again.
+        synchronized (journalOrder) {
+            long sequence = 0L;
+            try {
+                sequence = journal.append(sessionId, round, brad, inputTensor, status);
+            } catch (IOException e) {
+                System.err.println("Round journal append failed, writing to the database only: " + e.getMessage());
+            }
+            return project(sessionId, round, brad, inputTensor, status, sequence);
+        }
+    }
+
+    // Queue a round read back from the journal (startup recovery, JournalReplay)
+    public CompletableFuture<Long> project(RoundJournal.Entry entry) {
+        return project(entry.getSessionId(), entry.getRound(), entry.getBrad(), entry.getInputTensor(),
+                entry.getStatus(), entry.getSequence());
+    }
+
+    // Whether a journal record was in the database at open. Below the oldest sequence still in
+    // Round it is taken to be, since older rounds are moved to partitions; holes are not.
+    public boolean isProjected(long sequence) {
+        if (sequence > projectedSequence) {
+            return false;
+        }
+        if (presentSequences == null || sequence < oldestSequence) {
+            return true;
+        }
+        return presentSequences.get((int) (sequence - oldestSequence));
+    }
+
+    private CompletableFuture<Long> project(String sessionId, Round round, int brad, String inputTensor,
+                                            String status, long sequence) {
+        CompletableFuture<Long> id = new CompletableFuture<>();
+        submit(() -> {
+            ifAbandoned(() -> id.complete(null));
+            long roundId = insertRound(sessionId, round, brad, inputTensor, status, sequence);
+            insertBets(sessionId, roundId, round);
+            labelPreviousRound(sessionId, roundId, round, inputTensor);
+            stagedSequence = Math.max(stagedSequence, sequence);
+            stagedRoundIds.put(id, roundId);
+            afterCommit(() -> id.complete(roundId));
+        }, null);
+        return id;
+    }
+
+    private long insertRound(String sessionId, Round round, int brad, String inputTensor, String status,
+                             long sequence) throws SQLException {
+        PreparedStatement ps = statements.getReturningKeys(INSERT_ROUND_SQL);
+        ps.setString(1, sessionId);
+        ps.setLong(2, round.getCapturedAt());
+        setNullableDouble(ps, 3, RoundParser.parseMultiplier(round.getRoundMultiplier()));
+        ps.setDouble(4, round.getTotalBetAmount());
+        ps.setDouble(5, round.getTotalCashOut());
+        ps.setDouble(6, round.getProfitLoss());
+        ps.setInt(7, brad);
+        ps.setDouble(8, round.getBank());
+        ps.setString(9, status);
+        ps.setInt(10, round.getBets().size());
+        if (round.getExpectedRowCount() >= 0) {
+            ps.setInt(11, round.getExpectedRowCount());
+        } else {
+            ps.setNull(11, Types.INTEGER);
+        }
+        ps.setString(12, inputTensor);
+        if (sequence > 0) {
+            ps.setLong(13, sequence);
+        } else {
+            ps.setNull(13, Types.INTEGER);
+        }
+
+        ps.executeUpdate();
+        try (ResultSet rs = ps.getGeneratedKeys()) {
+            if (!rs.next()) {
+                throw new SQLException("No id returned for new Round row");
+            }
+            return rs.getLong(1);
+        }
+    }
+
+    private void insertBets(String sessionId, long roundId, Round round) throws SQLException {
+        PreparedStatement pstmt = statements.get(INSERT_BET_SQL);
+        for (Bet bet : round.getBets()) {
+            if (bet.isFreeBet()) {
+                continue;
+            }
+            pstmt.setLong(1, roundId);
+            pstmt.setDouble(2, bet.getAmount());
+            pstmt.setDouble(3, bet.getCashOut());
+            setNullableDouble(pstmt, 4, RoundParser.parseMultiplier(bet.getMultiplier()));
+            pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+        System.out.println("[" + sessionId + "] Bet data inserted into database.");
+    }
+
+    // The multiplier that followed a Brad window is what the tensor aggregation predicts
+    private void labelPreviousRound(String sessionId, long roundId, Round round, String inputTensor)
+            throws SQLException {
+        PendingLabel previous = stagedLabels.containsKey(sessionId)
+                ? stagedLabels.get(sessionId)
+                : lastRoundBySession.get(sessionId);
+        Double multiplier = RoundParser.parseMultiplier(round.getRoundMultiplier());
+        long gap = (previous != null) ? round.getCapturedAt() - previous.capturedAt : 0;
+        if (gap < 0 || gap > maxLabelGapMillis) {
+            previous = null; // rounds were missed in between, or this one is a late re-projection
+        }
+        if (previous != null && multiplier != null) {
+            PreparedStatement ps = statements.get(SET_TARGET_SQL);
+            ps.setDouble(1, multiplier);
+            ps.setLong(2, previous.roundId);
+            ps.executeUpdate();
+        }
+        PendingLabel next = new PendingLabel(roundId, BradHistory.code(inputTensor, tensorLength), round.getCapturedAt());
+        stagedLabels.put(sessionId, next);
+        PendingLabel labelled = (multiplier != null) ? previous : null;
+        afterCommit(() -> {
+            lastRoundBySession.put(sessionId, next);
+            if (labelled != null) {
+                liveTensors.add(labelled.tensorCode, labelled.capturedAt, multiplier);
+            }
+        });
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // The session's capture restarted (failover, browser restart): the next
+    // round it records does not follow the last one, so it labels nothing
+    // ———————————————————————————————————————————————————————————————————————
+    public void clearPendingLabel(String sessionId) {
+        submit(() -> {
+            stagedLabels.put(sessionId, null);
+            afterCommit(() -> lastRoundBySession.remove(sessionId));
+        }, null);
+    }
+
+    private static void setNullableDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.REAL);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Helper: update a single Round row’s Status. Queued behind the
+    // insert: an insert in the same transaction has staged its id, an
+    // earlier one has completed the future. Null: the insert failed.
+    // ———————————————————————————————————————————————————————————————————————
+    public void updateSummaryStatus(CompletableFuture<Long> summaryId, String status) {
+        submit(() -> {
+            Long id = stagedRoundIds.containsKey(summaryId) ? stagedRoundIds.get(summaryId) : summaryId.getNow(null);
+            if (id == null) {
+                return;
+            }
+            PreparedStatement ps = statements.get(UPDATE_STATUS_SQL);
+            ps.setString(1, status);
+            ps.setLong(2, id);
+            ps.executeUpdate();
+        }, null);
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Helper: record termination time in InputTensorData
+    // ———————————————————————————————————————————————————————————————————————
+    public void recordTerminationTimestamp() {
+        String now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        submit(() -> {
+            PreparedStatement ps = statements.get(UPDATE_TERMINATION_SQL);
+            ps.setString(1, now);
+            ps.setString(2, "TERMINATION");
+            if (ps.executeUpdate() == 0) {
+                PreparedStatement ips = statements.get(INSERT_TERMINATION_SQL);
+                ips.setString(1, "TERMINATION");
+                ips.setString(2, now);
+                ips.executeUpdate();
+            }
+        }, null);
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // InputTensorData on demand, run on the writer thread so it sees every
+    // queued round. Both block until done. A full rebuild recomputes today's
+    // table from Round and reloads the in-memory groups from it once that
+    // commits; an update writes the groups changed since the last flush.
+    // Other date ranges are rebuilt by InputTensorAggregator's command line
+    // into their own table.
+    // ———————————————————————————————————————————————————————————————————————
+    public void rebuildInputTensorData() {
+        submit(() -> {
+            tensors.buildFull();
+            tensorReloadRequested = true;
+        }, null);
+        flush();
+    }
+
+    public void updateLatestInputTensorGroup() {
+        submit(() -> tensorFlushRequested = true, null);
+        flush();
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Move rounds past the retention window into partition files in the
+    // background (see PartitionManager). For the scraper's own database only;
+    // tools that open a store leave it off.
+    // ———————————————————————————————————————————————————————————————————————
+    public synchronized void startPartitionMaintenance() {
+        if (partitions == null && !closed) {
+            partitions = PartitionManager.fromSystemProperties(databasePath);
+            if (partitions != null) {
+                partitions.start();
+            }
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Drain every queued write, stop the writer, then close the connection
+    // ———————————————————————————————————————————————————————————————————————
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        submit(() -> tensorFlushRequested = true, null);
+        closed = true;
+        if (partitions != null) {
+            partitions.close();
+            System.out.println("Partitions: " + partitions.describeCounters());
+        }
+        try {
+            queue.put(SHUTDOWN);
+            writer.join();
+        } catch (InterruptedException e) {
+            // The writer commits whatever is still queued when interrupted
+            writer.interrupt();
+            try {
+                writer.join(5000);
+            } catch (InterruptedException ignored) {
+            }
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("Database writer: " + describeCounters());
+        System.out.println("InputTensorData: " + liveTensors.describeCounters());
+        if (journal != null) {
+            System.out.println("Round journal: " + journal.describeCounters());
+            journal.close();
+        }
+        statements.close();
+        try {
+            control.close();
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
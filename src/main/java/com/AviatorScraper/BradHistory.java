@@ -0,0 +1,116 @@
+package com.AviatorScraper;
+
+/**
+ * The last {@code length} Brad flags of a session, kept as bits of an {@code int}: the
+ * newest flag is bit 0, the oldest bit {@code length - 1}. Once the window is full,
+ * {@link #code()} is the tensor group, a number in {@code [0, 2^length)} that indexes
+ * per-group arrays directly. {@link #label()} gives the text stored in
+ * {@code Round.InputTensor} and {@code InputTensorData}, e.g. {@code "[0,1,0,1]"} for code 5.
+ * Groups sort the same way numerically and as labels.
+ *
+ * <p>The window length comes from {@code -Dtensor.length} (default 4, at most
+ * {@value #MAX_LENGTH}). Not thread-safe; each session keeps its own.
+ */
+public class BradHistory {
+    static final int MAX_LENGTH = 12; // 4096 groups; every group array is 2^length long
+
+    private final int length;
+    private final int mask;
+    private int bits;
+    private int size;
+
+    public BradHistory(int length) {
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Brad window length must be 1.." + MAX_LENGTH + ": " + length);
+        }
+        this.length = length;
+        this.mask = (1 << length) - 1;
+    }
+
+    // Window length from -Dtensor.length (default 4 rounds)
+    public static int configuredLength() {
+        int length = Integer.getInteger("tensor.length", 4);
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("-Dtensor.length must be 1.." + MAX_LENGTH + ": " + length);
+        }
+        return length;
+    }
+
+    public static BradHistory fromSystemProperties() {
+        return new BradHistory(configuredLength());
+    }
+
+    // Shifts in the newest flag (0 or 1); the oldest falls off once the window is full
+    public void push(int brad) {
+        bits = ((bits << 1) | (brad & 1)) & mask;
+        if (size < length) {
+            size++;
+        }
+    }
+
+    // Starts the window over, e.g. after rounds were missed
+    public void clear() {
+        bits = 0;
+        size = 0;
+    }
+
+    public boolean isFull() {
+        return size == length;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int code() {
+        return bits;
+    }
+
+    // The stored label of the full window, or null while it is still filling
+    public String label() {
+        return isFull() ? label(bits, length) : null;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Label <-> group code
+    // ———————————————————————————————————————————————————————————————————————
+    public static String label(int code, int length) {
+        StringBuilder sb = new StringBuilder(2 * length + 1).append('[');
+        for (int i = length - 1; i >= 0; i--) {
+            sb.append((code >>> i) & 1);
+            if (i > 0) {
+                sb.append(',');
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    // The group code of a stored label, or -1 if it is not a window of this length
+    public static int code(String label, int length) {
+        if (label == null) {
+            return -1;
+        }
+        int code = 0, flags = 0;
+        for (int i = 0; i < label.length(); i++) {
+            char c = label.charAt(i);
+            if (c == '0' || c == '1') {
+                code = (code << 1) | (c - '0');
+                if (++flags > length) {
+                    return -1;
+                }
+            } else if (c != '[' && c != ']' && c != ',' && c != ' ') {
+                return -1;
+            }
+        }
+        return (flags == length) ? code : -1;
+    }
+
+    // Every group label of this length, indexed by code
+    public static String[] labels(int length) {
+        String[] labels = new String[1 << length];
+        for (int code = 0; code < labels.length; code++) {
+            labels[code] = label(code, length);
+        }
+        return labels;
+    }
+}
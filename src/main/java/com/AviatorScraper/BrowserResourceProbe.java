@@ -0,0 +1,292 @@
+package com.AviatorScraper;
+
+import org.openqa.selenium.chrome.ChromeDriver;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resident memory and CPU time of one session's Chrome process tree. The tree is found from
+ * the browser process launched with the session's {@code --user-data-dir}; renderers, GPU
+ * and utility processes are its descendants. Uses /proc on Linux and a CIM query through
+ * PowerShell on Windows, where Java cannot see other processes' command lines.
+ *
+ * <p>{@code main} launches Chrome twice, once with the default profile and once with
+ * {@link LeanBrowserProfile}, and prints both side by side:
+ * <pre>
+ *   BrowserResourceProbe https://www.sportybet.com/gh/games [seconds=30] [warmupSeconds=10] [--headless-baseline]
+ * </pre>
+ */
+public class BrowserResourceProbe {
+    private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("win");
+
+    private final String userDataDir;
+    private Usage previous;
+
+    public BrowserResourceProbe(String userDataDir) {
+        this.userDataDir = normalize(userDataDir);
+    }
+
+    public static final class Usage {
+        final int processes;
+        final long rssBytes;
+        final long cpuNanos;
+        final long sampledAtNanos;
+
+        Usage(int processes, long rssBytes, long cpuNanos, long sampledAtNanos) {
+            this.processes = processes;
+            this.rssBytes = rssBytes;
+            this.cpuNanos = cpuNanos;
+            this.sampledAtNanos = sampledAtNanos;
+        }
+
+        public int getProcesses() {
+            return processes;
+        }
+
+        public double getRssMegabytes() {
+            return rssBytes / (1024.0 * 1024.0);
+        }
+
+        // Share of one core used between two samples
+        public double cpuPercentSince(Usage earlier) {
+            long wall = sampledAtNanos - earlier.sampledAtNanos;
+            return (wall > 0) ? 100.0 * (cpuNanos - earlier.cpuNanos) / wall : 0.0;
+        }
+    }
+
+    private static final class ProcessInfo {
+        long pid;
+        long parentPid;
+        long rssBytes;
+        long cpuNanos;
+        String commandLine = "";
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // One snapshot of the whole tree
+    // ———————————————————————————————————————————————————————————————————————
+    public Usage sample() throws IOException {
+        List<ProcessInfo> all = WINDOWS ? listWindows() : listProc();
+        Map<Long, List<ProcessInfo>> children = new HashMap<>();
+        Deque<ProcessInfo> pending = new ArrayDeque<>();
+        for (ProcessInfo p : all) {
+            children.computeIfAbsent(p.parentPid, k -> new ArrayList<>()).add(p);
+            String cmd = normalize(p.commandLine);
+            if (cmd.contains("user-data-dir=" + userDataDir) && !cmd.contains("--type=")) {
+                pending.add(p); // the browser process itself
+            }
+        }
+
+        Set<Long> seen = new HashSet<>();
+        long rss = 0;
+        long cpu = 0;
+        while (!pending.isEmpty()) {
+            ProcessInfo p = pending.poll();
+            if (!seen.add(p.pid)) {
+                continue;
+            }
+            rss += p.rssBytes;
+            cpu += p.cpuNanos;
+            pending.addAll(children.getOrDefault(p.pid, List.of()));
+        }
+        return new Usage(seen.size(), rss, cpu, System.nanoTime());
+    }
+
+    // Sample and describe, with CPU averaged since the previous report
+    public String report() {
+        try {
+            Usage now = sample();
+            String cpu = (previous != null)
+                    ? String.format(Locale.ROOT, "%.1f%%", now.cpuPercentSince(previous))
+                    : "n/a";
+            previous = now;
+            return String.format(Locale.ROOT, "Chrome: %d processes, RSS %.0f MB, CPU %s of one core",
+                    now.processes, now.getRssMegabytes(), cpu);
+        } catch (IOException e) {
+            return "Chrome resource probe failed: " + e.getMessage();
+        }
+    }
+
+    private static String normalize(String s) {
+        return s.replace('\\', '/').replace("\"", "").toLowerCase(Locale.ROOT);
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Linux: /proc/<pid>/{cmdline,status}; CPU time from ProcessHandle
+    // ———————————————————————————————————————————————————————————————————————
+    private static List<ProcessInfo> listProc() throws IOException {
+        List<ProcessInfo> result = new ArrayList<>();
+        File[] entries = new File("/proc").listFiles((dir, name) -> name.chars().allMatch(Character::isDigit));
+        if (entries == null) {
+            throw new IOException("/proc is not available");
+        }
+        for (File entry : entries) {
+            try {
+                ProcessInfo p = new ProcessInfo();
+                p.pid = Long.parseLong(entry.getName());
+                p.commandLine = new String(Files.readAllBytes(entry.toPath().resolve("cmdline")),
+                        StandardCharsets.UTF_8).replace('\0', ' ');
+                for (String line : Files.readAllLines(entry.toPath().resolve("status"))) {
+                    if (line.startsWith("PPid:")) {
+                        p.parentPid = Long.parseLong(line.substring(5).trim());
+                    } else if (line.startsWith("VmRSS:")) {
+                        p.rssBytes = Long.parseLong(line.substring(6).replace("kB", "").trim()) * 1024;
+                    }
+                }
+                p.cpuNanos = ProcessHandle.of(p.pid)
+                        .flatMap(h -> h.info().totalCpuDuration())
+                        .map(d -> d.toNanos())
+                        .orElse(0L);
+                result.add(p);
+            } catch (IOException | RuntimeException ignored) {
+                // Process exited while we were reading it
+            }
+        }
+        return result;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Windows: Win32_Process via PowerShell, one call per sample
+    // ———————————————————————————————————————————————————————————————————————
+    private static List<ProcessInfo> listWindows() throws IOException {
+        String query = "Get-CimInstance Win32_Process -Filter \"Name='chrome.exe'\" | "
+                + "Select-Object ProcessId,ParentProcessId,WorkingSetSize,KernelModeTime,UserModeTime,CommandLine | "
+                + "ConvertTo-Csv -NoTypeInformation";
+        Process ps = new ProcessBuilder("powershell", "-NoProfile", "-NonInteractive", "-Command", query)
+                .redirectErrorStream(true)
+                .start();
+        List<ProcessInfo> result = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ps.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            boolean header = true;
+            while ((line = reader.readLine()) != null) {
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                List<String> cells = parseCsvLine(line);
+                if (cells.size() < 6) {
+                    continue;
+                }
+                ProcessInfo p = new ProcessInfo();
+                p.pid = parseLong(cells.get(0));
+                p.parentPid = parseLong(cells.get(1));
+                p.rssBytes = parseLong(cells.get(2));
+                // Kernel and user time are reported in 100 ns units
+                p.cpuNanos = (parseLong(cells.get(3)) + parseLong(cells.get(4))) * 100;
+                p.commandLine = cells.get(5);
+                result.add(p);
+            }
+        }
+        try {
+            ps.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    private static long parseLong(String s) {
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    // Quoted CSV as written by ConvertTo-Csv ("" escapes a quote)
+    static List<String> parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Before/after: default launch vs lean launch on the same page
+    // ———————————————————————————————————————————————————————————————————————
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: BrowserResourceProbe <url> [seconds=30] [warmupSeconds=10] [--headless-baseline]");
+            System.exit(2);
+        }
+        String url = args[0];
+        long seconds = (args.length > 1) ? Long.parseLong(args[1]) : 30;
+        long warmup = (args.length > 2) ? Long.parseLong(args[2]) : 10;
+        boolean headlessBaseline = List.of(args).contains("--headless-baseline");
+        String binary = System.getProperty("chrome.binary", "drivers/chrome_win64/chrome.exe");
+
+        Usage[] baseline = measure(binary, url, null, headlessBaseline, seconds, warmup);
+        Usage[] lean = measure(binary, url, new LeanBrowserProfile(false), false, seconds, warmup);
+
+        System.out.printf("%-10s %10s %10s %10s%n", "profile", "processes", "RSS MB", "CPU %");
+        print("default", baseline);
+        print("lean", lean);
+        System.out.printf(Locale.ROOT, "RSS ratio %.2fx, CPU ratio %.2fx%n",
+                baseline[1].getRssMegabytes() / Math.max(1e-9, lean[1].getRssMegabytes()),
+                baseline[1].cpuPercentSince(baseline[0]) / Math.max(1e-9, lean[1].cpuPercentSince(lean[0])));
+    }
+
+    private static void print(String label, Usage[] usage) {
+        System.out.printf(Locale.ROOT, "%-10s %10d %10.0f %10.1f%n", label, usage[1].processes,
+                usage[1].getRssMegabytes(), usage[1].cpuPercentSince(usage[0]));
+    }
+
+    private static Usage[] measure(String binary, String url, LeanBrowserProfile lean, boolean headless,
+                                   long seconds, long warmup) throws Exception {
+        Path dir = Files.createTempDirectory("resource-probe-");
+        ChromeLauncher launcher = new ChromeLauncher(binary, dir.toString(), "Default");
+        if (lean != null) {
+            launcher.customize(lean::addLaunchArguments).onLaunch(lean::apply);
+        } else if (headless) {
+            launcher.customize(options -> options.addArguments("--headless=new"));
+        }
+        ChromeDriver driver = launcher.launch();
+        try {
+            driver.get(url);
+            Thread.sleep(warmup * 1000);
+            BrowserResourceProbe probe = new BrowserResourceProbe(dir.toString());
+            Usage start = probe.sample();
+            Thread.sleep(seconds * 1000);
+            return new Usage[]{start, probe.sample()};
+        } finally {
+            driver.quit();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.AviatorScraper;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Builds identical ChromeDriver sessions on demand: same binary, same user-data-dir and
+ * profile, same anti-automation switches. The first launch, crash restarts and the warm
+ * standby all go through here so they cannot drift apart.
+ */
+public class ChromeLauncher {
+    private final String chromeBinaryPath;
+    private final String userDataDir;
+    private final String profileDirectory;
+    private final List<Consumer<ChromeOptions>> customizers = new ArrayList<>();
+    private final List<Consumer<ChromeDriver>> launchHooks = new ArrayList<>();
+
+    public ChromeLauncher(String chromeBinaryPath, String userDataDir, String profileDirectory) {
+        this.chromeBinaryPath = chromeBinaryPath;
+        this.userDataDir = userDataDir;
+        this.profileDirectory = profileDirectory;
+    }
+
+    // Same binary and customizations, different profile (Chrome locks a user-data-dir per process)
+    public ChromeLauncher withProfile(String userDataDir, String profileDirectory) {
+        ChromeLauncher copy = new ChromeLauncher(chromeBinaryPath, userDataDir, profileDirectory);
+        copy.customizers.addAll(customizers);
+        copy.launchHooks.addAll(launchHooks);
+        return copy;
+    }
+
+    // Extra switches applied on every launch, e.g. PushRoundCapture::addLaunchArguments
+    public ChromeLauncher customize(Consumer<ChromeOptions> customizer) {
+        customizers.add(customizer);
+        return this;
+    }
+
+    // Run against every freshly launched driver, e.g. LeanBrowserProfile::apply
+    public ChromeLauncher onLaunch(Consumer<ChromeDriver> hook) {
+        launchHooks.add(hook);
+        return this;
+    }
+
+    public String getUserDataDir() {
+        return userDataDir;
+    }
+
+    public String getProfileDirectory() {
+        return profileDirectory;
+    }
+
+    public ChromeOptions buildOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.setBinary(chromeBinaryPath);
+
+        // Reuse the chosen Chrome profile so SportyBet cookies carry over
+        options.addArguments(
+                "user-data-dir=" + userDataDir,
+                "profile-directory=" + profileDirectory
+        );
+
+        // Hide Chrome’s “controlled by automated test software” banner
+        options.setExperimentalOption("excludeSwitches", Arrays.asList("enable-automation"));
+        options.setExperimentalOption("useAutomationExtension", false);
+
+        for (Consumer<ChromeOptions> customizer : customizers) {
+            customizer.accept(options);
+        }
+        return options;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Launch ChromeDriver + mask navigator.webdriver
+    // ———————————————————————————————————————————————————————————————————————
+    public ChromeDriver launch() {
+        if (System.getProperty("webdriver.chrome.driver") == null) {
+            System.setProperty("webdriver.chrome.driver", "drivers/chromedriver.exe");
+        }
+        ChromeDriver driver = new ChromeDriver(buildOptions());
+
+        // Override navigator.webdriver to avoid detection
+        ((JavascriptExecutor) driver).executeScript(
+                "Object.defineProperty(navigator, 'webdriver', { get: () => undefined });"
+        );
+        for (Consumer<ChromeDriver> hook : launchHooks) {
+            hook.accept(driver);
+        }
+        return driver;
+    }
+}
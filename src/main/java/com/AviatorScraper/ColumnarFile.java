@@ -0,0 +1,287 @@
+package com.AviatorScraper;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Compact column-oriented export format, in the spirit of Arrow record batches. Rows are
+ * buffered into groups of at most {@code groupRows}, and each group is written column by
+ * column. Memory use is bounded by one group, whatever the size of the table.
+ *
+ * <pre>
+ *   file   := "AVC1" | column count (int) | column name (UTF) * count | group* | 0 (int)
+ *   group  := row count (int) | column * count
+ *   column := type (byte) | null bitmap ((rows + 7) / 8 bytes, bit set = NULL) | values
+ *     type 0 NULL    no values
+ *     type 1 INT64   per non-null row: zigzag varint of the difference to the previous one
+ *     type 2 FLOAT64 per non-null row: 8 bytes
+ *     type 3 UTF8    per non-null row: varint byte length, bytes
+ *     type 4 DICT    varint entry count, entries as UTF8, then per non-null row: varint index
+ * </pre>
+ *
+ * SQLite columns are dynamically typed, so each column gets its type per group from the
+ * values it actually holds. Text columns with few distinct values (multipliers, session
+ * ids, dates) are dictionary-encoded. Ids and other increasing integers shrink to one or
+ * two bytes per row. Fixed-width numbers are big-endian.
+ */
+public final class ColumnarFile {
+    static final int MAGIC = 0x41564331; // "AVC1"
+    private static final byte NULL = 0, INT64 = 1, FLOAT64 = 2, UTF8 = 3, DICT = 4;
+    private static final int MAX_DICTIONARY = 4096;
+
+    private ColumnarFile() {
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Streaming writer; rows are copied into a reused group buffer
+    // ———————————————————————————————————————————————————————————————————————
+    public static final class Writer implements AutoCloseable {
+        private final DataOutputStream out;
+        private final int columns;
+        private final Object[][] group;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private int rows;
+        private long written;
+
+        public Writer(OutputStream out, String[] columnNames, int groupRows) throws IOException {
+            this.out = new DataOutputStream(out);
+            this.columns = columnNames.length;
+            this.group = new Object[groupRows][columns];
+            this.out.writeInt(MAGIC);
+            this.out.writeInt(columns);
+            for (String name : columnNames) {
+                this.out.writeUTF(name);
+            }
+        }
+
+        public void write(Object[] row) throws IOException {
+            System.arraycopy(row, 0, group[rows], 0, columns);
+            if (++rows == group.length) {
+                flushGroup();
+            }
+        }
+
+        public long getRowsWritten() {
+            return written + rows;
+        }
+
+        private void flushGroup() throws IOException {
+            if (rows == 0) {
+                return;
+            }
+            out.writeInt(rows);
+            for (int c = 0; c < columns; c++) {
+                writeColumn(c);
+            }
+            written += rows;
+            rows = 0;
+        }
+
+        private void writeColumn(int c) throws IOException {
+            byte type = NULL;
+            for (int r = 0; r < rows; r++) {
+                Object value = group[r][c];
+                if (value == null) {
+                    continue;
+                }
+                byte valueType = (value instanceof Long || value instanceof Integer) ? INT64
+                        : (value instanceof Number) ? FLOAT64 : UTF8;
+                type = (byte) Math.max(type, valueType);
+            }
+            byte[] nulls = new byte[(rows + 7) / 8];
+            for (int r = 0; r < rows; r++) {
+                if (group[r][c] == null) {
+                    nulls[r >> 3] |= (byte) (1 << (r & 7));
+                }
+            }
+
+            if (type == UTF8 && useDictionary(c)) {
+                out.writeByte(DICT);
+                out.write(nulls);
+                writeVarint(out, dictionary.size());
+                String[] entries = new String[dictionary.size()];
+                dictionary.forEach((entry, index) -> entries[index] = entry);
+                for (String entry : entries) {
+                    writeText(out, entry);
+                }
+                for (int r = 0; r < rows; r++) {
+                    if (group[r][c] != null) {
+                        writeVarint(out, dictionary.get(group[r][c].toString()));
+                    }
+                }
+                return;
+            }
+            out.writeByte(type);
+            out.write(nulls);
+
+            long previous = 0L;
+            for (int r = 0; r < rows; r++) {
+                Object value = group[r][c];
+                if (value == null) {
+                    continue;
+                }
+                switch (type) {
+                    case INT64:
+                        long v = ((Number) value).longValue();
+                        writeVarint(out, zigzag(v - previous));
+                        previous = v;
+                        break;
+                    case FLOAT64:
+                        out.writeDouble(((Number) value).doubleValue());
+                        break;
+                    default:
+                        writeText(out, value.toString());
+                }
+            }
+        }
+
+        // Fills the dictionary; false once the column has too many distinct values to pay off
+        private boolean useDictionary(int c) {
+            dictionary.clear();
+            int limit = Math.min(MAX_DICTIONARY, rows / 2);
+            for (int r = 0; r < rows; r++) {
+                Object value = group[r][c];
+                if (value != null) {
+                    dictionary.putIfAbsent(value.toString(), dictionary.size());
+                    if (dictionary.size() > limit) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flushGroup();
+            out.writeInt(0);
+            out.close();
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Read a file back: header gets the column names, then every row in order
+    // (Long, Double, String or null). Returns the row count.
+    // ———————————————————————————————————————————————————————————————————————
+    public static long read(InputStream in, Consumer<String[]> header, Consumer<Object[]> sink) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a columnar export file");
+        }
+        String[] names = new String[data.readInt()];
+        for (int c = 0; c < names.length; c++) {
+            names[c] = data.readUTF();
+        }
+        header.accept(names);
+
+        long total = 0;
+        while (true) {
+            int rows;
+            try {
+                rows = data.readInt();
+            } catch (EOFException e) {
+                throw new IOException("Columnar file is truncated after " + total + " rows", e);
+            }
+            if (rows == 0) {
+                return total;
+            }
+            Object[][] group = new Object[rows][names.length];
+            for (int c = 0; c < names.length; c++) {
+                readColumn(data, group, c, rows);
+            }
+            for (Object[] row : group) {
+                sink.accept(row);
+            }
+            total += rows;
+        }
+    }
+
+    private static void readColumn(DataInputStream data, Object[][] group, int c, int rows) throws IOException {
+        byte type = data.readByte();
+        byte[] nulls = new byte[(rows + 7) / 8];
+        data.readFully(nulls);
+        String[] entries = null;
+        if (type == DICT) {
+            entries = new String[(int) readVarint(data)];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = readText(data);
+            }
+        }
+        long previous = 0L;
+        for (int r = 0; r < rows; r++) {
+            boolean isNull = (nulls[r >> 3] & (1 << (r & 7))) != 0;
+            if (isNull || type == NULL) {
+                group[r][c] = null;
+                continue;
+            }
+            switch (type) {
+                case INT64:
+                    previous += unzigzag(readVarint(data));
+                    group[r][c] = previous;
+                    break;
+                case FLOAT64:
+                    group[r][c] = data.readDouble();
+                    break;
+                case UTF8:
+                    group[r][c] = readText(data);
+                    break;
+                case DICT:
+                    group[r][c] = entries[(int) readVarint(data)];
+                    break;
+                default:
+                    throw new IOException("Unknown column type " + type);
+            }
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // LEB128 varints, zigzag for signed deltas, varint-length UTF-8
+    // ———————————————————————————————————————————————————————————————————————
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static void writeText(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readText(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarint(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,131 @@
+package com.AviatorScraper;
+
+import java.util.Random;
+
+/**
+ * Synthetic mix for judging the tone-signature gate: a round-end cue every
+ * {@code periodMillis} (a three-harmonic tone at 812.5 / 1625 / 2437.5 Hz, 600 ms long)
+ * with distractors loud enough to open the energy gate in the gaps between cues:
+ * notification tones (one pure sine at a random pitch), clicks (a few ms of broadband
+ * impulse) and music (a decaying three-note chord). Everything is rendered up front from a
+ * fixed seed, so every run scores the same audio. Cue start times are known exactly.
+ */
+public class DistractorAudioSource implements AudioSource {
+    static final double[] CUE_HARMONICS = {812.5, 1625.0, 2437.5};
+    private static final double[] CUE_WEIGHTS = {0.9, 0.4, 0.15};
+    private static final int CUE_MILLIS = 600;
+
+    private final byte[] samples;
+    private final double[] cueOnsets;
+    private final int notifications, clicks, musicPhrases;
+    private int position;
+
+    public DistractorAudioSource(double seconds, long periodMillis, boolean withDistractors, long seed) {
+        float rate = CAPTURE_FORMAT.getSampleRate();
+        double[] mix = new double[(int) (seconds * rate)];
+        Random random = new Random(seed);
+        int period = (int) (periodMillis * rate / 1000);
+
+        int cues = (mix.length + period - 1) / period;
+        cueOnsets = new double[cues];
+        int notificationCount = 0, clickCount = 0, musicCount = 0;
+        for (int c = 0; c < cues; c++) {
+            int start = c * period;
+            cueOnsets[c] = start / (double) rate;
+            renderTones(mix, start, (int) (CUE_MILLIS * rate / 1000), CUE_HARMONICS, CUE_WEIGHTS, 60, false);
+            if (!withDistractors) {
+                continue;
+            }
+            // Three distractors per gap, clear of the cue before and after
+            int gapStart = start + (int) (1.5 * rate);
+            int gapEnd = Math.min(mix.length, start + period - (int) (1.0 * rate));
+            for (int d = 0; d < 3 && gapEnd - gapStart > rate; d++) {
+                int at = gapStart + random.nextInt(gapEnd - gapStart - (int) rate);
+                switch (random.nextInt(3)) {
+                    case 0:
+                        double pitch = 500 + random.nextInt(2500);
+                        renderTones(mix, at, (int) ((150 + random.nextInt(250)) * rate / 1000),
+                                new double[]{pitch}, new double[]{1.0}, 50 + random.nextInt(40), false);
+                        notificationCount++;
+                        break;
+                    case 1:
+                        int clickLength = (int) ((2 + random.nextInt(6)) * rate / 1000);
+                        for (int i = at; i < Math.min(mix.length, at + clickLength); i++) {
+                            mix[i] += (random.nextBoolean() ? 1 : -1) * (70 + random.nextInt(50));
+                        }
+                        clickCount++;
+                        break;
+                    default:
+                        double root = 220 * Math.pow(2, random.nextInt(24) / 12.0);
+                        renderTones(mix, at, (int) ((800 + random.nextInt(1200)) * rate / 1000),
+                                new double[]{root, root * 1.26, root * 1.5}, new double[]{1.0, 0.8, 0.7},
+                                40 + random.nextInt(30), true);
+                        musicCount++;
+                }
+            }
+        }
+        notifications = notificationCount;
+        clicks = clickCount;
+        musicPhrases = musicCount;
+
+        samples = new byte[mix.length];
+        for (int i = 0; i < mix.length; i++) {
+            double s = mix[i] + random.nextInt(9) - 4; // low noise floor, under the attack threshold
+            samples[i] = (byte) Math.max(-128, Math.min(127, Math.round(s)));
+        }
+    }
+
+    // Adds a sum of sines, peak-normalized to amplitude; decaying gives a plucked envelope
+    private static void renderTones(double[] mix, int start, int length, double[] freqs, double[] weights,
+                                    int amplitude, boolean decaying) {
+        float rate = CAPTURE_FORMAT.getSampleRate();
+        double weightSum = 0;
+        for (double w : weights) {
+            weightSum += w;
+        }
+        for (int i = 0; i < length && start + i < mix.length; i++) {
+            double s = 0;
+            for (int k = 0; k < freqs.length; k++) {
+                s += weights[k] * Math.sin(2 * Math.PI * freqs[k] * i / rate);
+            }
+            double envelope = decaying ? Math.exp(-3.0 * i / length) : 1.0;
+            mix[start + i] += amplitude * envelope * s / weightSum;
+        }
+    }
+
+    /** Stream times, in seconds, at which a cue starts. */
+    public double[] cueOnsets() {
+        return cueOnsets.clone();
+    }
+
+    @Override
+    public void open() {
+        position = 0;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (position >= samples.length) {
+            return -1;
+        }
+        int n = Math.min(length, samples.length - position);
+        System.arraycopy(samples, position, buffer, offset, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public boolean isRealtime() {
+        return false;
+    }
+
+    @Override
+    public String describe() {
+        return String.format("%d cues with %d notification tones, %d clicks, %d music phrases (unthrottled)",
+                cueOnsets.length, notifications, clicks, musicPhrases);
+    }
+
+    @Override
+    public void close() {
+    }
+}
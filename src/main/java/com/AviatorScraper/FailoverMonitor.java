@@ -0,0 +1,83 @@
+package com.AviatorScraper;
+
+import java.util.Locale;
+
+/**
+ * Measures browser failovers: how long the scraper was without a working session, and how
+ * many rounds went unrecorded. Rounds lost is estimated from the gap between the last round
+ * before the failure and the first round after it, divided by the usual round interval.
+ */
+public class FailoverMonitor {
+    // Weight of the newest interval in the running average
+    private static final double INTERVAL_SMOOTHING = 0.1;
+
+    private long lastRoundAt;
+    private double meanIntervalMillis;
+
+    private long failoverStartedNanos;
+    private long roundBeforeFailoverAt;
+    private boolean awaitingFirstRound;
+    private boolean lastFailoverWarm;
+
+    private int failovers;
+    private int warmFailovers;
+    private long totalSwitchMillis;
+    private long maxSwitchMillis;
+    private long totalRoundsLost;
+
+    public synchronized void failoverStarted() {
+        failoverStartedNanos = System.nanoTime();
+        if (!awaitingFirstRound) {
+            roundBeforeFailoverAt = lastRoundAt;
+        }
+        awaitingFirstRound = true;
+    }
+
+    public synchronized long failoverCompleted(boolean warm) {
+        long switchMillis = (System.nanoTime() - failoverStartedNanos) / 1_000_000;
+        failovers++;
+        if (warm) {
+            warmFailovers++;
+        }
+        lastFailoverWarm = warm;
+        totalSwitchMillis += switchMillis;
+        maxSwitchMillis = Math.max(maxSwitchMillis, switchMillis);
+        System.out.println("Failover #" + failovers + " (" + (warm ? "warm standby" : "cold restart")
+                + "): new browser in control after " + switchMillis + " ms");
+        return switchMillis;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Called for every stored round; the first one after a failover closes the gap
+    // ———————————————————————————————————————————————————————————————————————
+    public synchronized void onRoundRecorded(long capturedAt) {
+        if (awaitingFirstRound) {
+            awaitingFirstRound = false;
+            if (roundBeforeFailoverAt > 0 && meanIntervalMillis > 0) {
+                long gap = capturedAt - roundBeforeFailoverAt;
+                long lost = Math.max(0, Math.round(gap / meanIntervalMillis) - 1);
+                totalRoundsLost += lost;
+                System.out.printf(Locale.ROOT,
+                        "Failover #%d (%s): first round %.1f s after the last one, ~%d round(s) lost%n",
+                        failovers, lastFailoverWarm ? "warm standby" : "cold restart", gap / 1000.0, lost);
+            } else {
+                System.out.println("Failover #" + failovers + ": first round recorded (no interval baseline yet)");
+            }
+        } else if (lastRoundAt > 0) {
+            long interval = capturedAt - lastRoundAt;
+            if (interval > 0) {
+                meanIntervalMillis = (meanIntervalMillis == 0)
+                        ? interval
+                        : meanIntervalMillis + INTERVAL_SMOOTHING * (interval - meanIntervalMillis);
+            }
+        }
+        lastRoundAt = capturedAt;
+    }
+
+    public synchronized String describe() {
+        return String.format(Locale.ROOT,
+                "failovers=%d (warm=%d) switchMeanMs=%.0f switchMaxMs=%d roundsLost=%d roundIntervalMs=%.0f",
+                failovers, warmFailovers, failovers == 0 ? 0.0 : (double) totalSwitchMillis / failovers,
+                maxSwitchMillis, totalRoundsLost, meanIntervalMillis);
+    }
+}
@@ -0,0 +1,61 @@
+package com.AviatorScraper;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+/**
+ * Navigation from the SportyBet lobby into the Aviator game iframe. Works on any driver,
+ * so the live session and the warm standby are parked in exactly the same place.
+ */
+public final class GamePage {
+    public static final String LOBBY_URL = "https://www.sportybet.com/gh/games";
+
+    private GamePage() {
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Load the Aviator game page and switch into the nested iframes
+    // ———————————————————————————————————————————————————————————————————————
+    public static void load(WebDriver driver, WebDriverWait wait, String gameTileId) {
+        // 1) Navigate to SportyBet’s games lobby
+        driver.get(LOBBY_URL);
+
+        // 2) Wait for the outer “games-lobby” iframe and switch into it
+        WebElement lobby = wait.until(
+                ExpectedConditions.presenceOfElementLocated(By.id("games-lobby"))
+        );
+        driver.switchTo().frame(lobby);
+
+        // 3) Click the game tile (Aviator is id="game_item19")
+        WebElement item = wait.until(
+                ExpectedConditions.elementToBeClickable(By.id(gameTileId))
+        );
+        item.click();
+
+        // 4) Switch into the inner “turbo-games-iframe”
+        WebElement turboFrame = wait.until(
+                ExpectedConditions.visibilityOfElementLocated(By.className("turbo-games-iframe"))
+        );
+        driver.switchTo().frame(turboFrame);
+
+        // 5) (Optional) Click the “auto” tab if your setup requires it
+        wait.until(ExpectedConditions.elementToBeClickable(
+                By.cssSelector("button.tab.ng-star-inserted")
+        )).click();
+    }
+
+    // Cheap liveness probe: the session answers and is still inside the game frame
+    public static boolean isParked(WebDriver driver) {
+        try {
+            Object found = ((JavascriptExecutor) driver).executeScript(
+                    "return !!document.querySelector('button.tab.ng-star-inserted');");
+            return Boolean.TRUE.equals(found);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
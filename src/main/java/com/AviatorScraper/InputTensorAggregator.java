@@ -0,0 +1,344 @@
+package com.AviatorScraper;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * InputTensorData aggregation (per Brad-window group: min/max/mean target multiplier, mode
+ * range and confidence), moved out of {@link AviatorScraperShare}. Its statements go
+ * through the store's {@link StatementCache}, and it runs on the database writer thread.
+ * Day to day the table is maintained by {@link LiveTensorAggregator}; this class does the
+ * full rebuild from Round.
+ *
+ * <p>A rebuild reads the labelled rounds of its date range in one scan and splits the
+ * multipliers by group into primitive arrays. It computes each group's row on the common
+ * fork-join pool, then writes every row in the caller's transaction. The old rebuild ran
+ * two queries per group. Rebuilding all of history holds every labelled multiplier in
+ * memory, 8 bytes each.
+ *
+ * <p>InputTensorData only ever holds today, because the live groups are reloaded from and
+ * upserted into it. A date range is rebuilt into InputTensorDataRange instead. It reads
+ * the live Round table and then every overlapping partition file, attached one at a time,
+ * so rounds already moved to partitions are included however many files there are.
+ *
+ * <pre>
+ *   InputTensorAggregator [--db=betdata.db] [--from=2026-01-01] [--to=2026-02-01] [--all]
+ * </pre>
+ * Without a range, today is rebuilt; {@code --to} is exclusive. Run it while the scraper is
+ * stopped. A running scraper keeps writing today's groups as new rounds are labelled.
+ */
+public class InputTensorAggregator {
+    static final String LIVE_TABLE = "InputTensorData";
+    static final String RANGE_TABLE = "InputTensorDataRange";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO %s (" +
+                    "  input_tensor_group, lowest_target_multiplier, highest_target_multiplier, " +
+                    "  mean_target_multiplier, mode_target_range_start, mode_target_range_end, " +
+                    "  mode_range_target_count, above_mode_range_target_count, below_mode_range_target_count, " +
+                    "  group_count, target_confidence" +
+                    ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SCAN_SQL =
+            "SELECT InputTensor, TargetMultiplier " +
+                    "FROM %s " +
+                    "WHERE CapturedAt >= ? AND CapturedAt < ? " +
+                    "  AND InputTensor IS NOT NULL " +
+                    "  AND TargetMultiplier IS NOT NULL";
+
+    private static final int PROGRESS_ROWS = 1_000_000;
+    // A fork-join leaf handles at least this many multipliers, or a single group
+    private static final int SPLIT_VALUES = 50_000;
+
+    private final StatementCache statements;
+    private final int tensorLength;
+    private final String[] groups; // every label of the configured window length, by code
+
+    public InputTensorAggregator(StatementCache statements, int tensorLength) {
+        this.statements = statements;
+        this.tensorLength = tensorLength;
+        this.groups = BradHistory.labels(tensorLength);
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Drop and recreate InputTensorData, then aggregate all 2^length groups
+    // over today's rounds
+    // ———————————————————————————————————————————————————————————————————————
+    public void buildFull() throws SQLException {
+        LocalDate today = LocalDate.now();
+        Scan scan = new Scan(today, today.plusDays(1));
+        scan.read("Round");
+        write(scan, LIVE_TABLE);
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Drop and recreate InputTensorDataRange from the rounds captured in
+    // [from, to), local days; a null bound is open (both null: all history).
+    // Reads main.Round, then each overlapping partition attached in turn, so
+    // any number of partitions fits. ATTACH cannot run in a transaction: call
+    // it in autocommit mode; the rows are written in a transaction of its own.
+    // ———————————————————————————————————————————————————————————————————————
+    public void rebuildRange(LocalDate from, LocalDate to, String databasePath) throws SQLException {
+        Connection conn = statements.getConnection();
+        Scan scan = new Scan(from, to);
+        scan.read("main.Round");
+        List<File> partitions = PartitionManager.partitionsOverlapping(databasePath,
+                (from != null) ? from : LocalDate.MIN, (to != null) ? to : LocalDate.MAX);
+        try (Statement stmt = conn.createStatement()) {
+            for (File partition : partitions) {
+                stmt.execute("ATTACH DATABASE '" + partition.getPath().replace("'", "''") + "' AS part");
+                try {
+                    scan.read("part.Round");
+                } finally {
+                    stmt.execute("DETACH DATABASE part");
+                }
+            }
+        }
+        System.out.println(partitions.size() + " partition(s) read.");
+
+        conn.setAutoCommit(false);
+        try {
+            write(scan, RANGE_TABLE);
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Labelled multipliers of [from, to), split by group as they are read
+    // from one or more Round tables
+    // ———————————————————————————————————————————————————————————————————————
+    private final class Scan {
+        final LocalDate from, to;
+        final long fromMillis, toMillis;
+        final double[][] values = new double[groups.length][];
+        final int[] counts = new int[groups.length];
+        final long t0 = System.nanoTime();
+        long rows, skipped;
+
+        Scan(LocalDate from, LocalDate to) {
+            ZoneId zone = ZoneId.systemDefault();
+            this.from = from;
+            this.to = to;
+            this.fromMillis = (from != null) ? from.atStartOfDay(zone).toInstant().toEpochMilli() : Long.MIN_VALUE;
+            this.toMillis = (to != null) ? to.atStartOfDay(zone).toInstant().toEpochMilli() : Long.MAX_VALUE;
+        }
+
+        void read(String source) throws SQLException {
+            PreparedStatement scan = statements.get(String.format(SCAN_SQL, source));
+            scan.setLong(1, fromMillis);
+            scan.setLong(2, toMillis);
+            try (ResultSet rs = scan.executeQuery()) {
+                while (rs.next()) {
+                    int code = BradHistory.code(rs.getString(1), tensorLength);
+                    if (code < 0) {
+                        skipped++; // captured under another window length
+                        continue;
+                    }
+                    double[] group = values[code];
+                    if (group == null) {
+                        group = values[code] = new double[256];
+                    } else if (counts[code] == group.length) {
+                        group = values[code] = Arrays.copyOf(group, group.length * 2);
+                    }
+                    group[counts[code]++] = rs.getDouble(2);
+                    if (++rows % PROGRESS_ROWS == 0) {
+                        System.out.printf("InputTensorData rebuild: %,d rounds read (%.0f/s)...%n",
+                                rows, rows / ((System.nanoTime() - t0) / 1e9));
+                    }
+                }
+            }
+        }
+    }
+
+    // Compute every group of the scan in parallel and write the rows; the caller commits them
+    private void write(Scan scan, String table) throws SQLException {
+        long t1 = System.nanoTime();
+        recreateTable(table);
+
+        // 1) One row per group, in parallel
+        double[][] results = new double[groups.length][];
+        ForkJoinPool.commonPool().invoke(new GroupStatsTask(scan.values, scan.counts, results, 0, groups.length));
+        long t2 = System.nanoTime();
+
+        // 2) Write every row
+        int written = 0;
+        PreparedStatement insert = statements.get(String.format(INSERT_SQL, table));
+        for (int code = 0; code < groups.length; code++) {
+            double[] row = results[code];
+            if (row == null) {
+                continue;
+            }
+            insert.setString(1, groups[code]);
+            insert.setDouble(2, row[0]);
+            insert.setDouble(3, row[1]);
+            insert.setDouble(4, row[2]);
+            insert.setDouble(5, row[3]);
+            insert.setDouble(6, row[4]);
+            insert.setInt(7, (int) row[5]);
+            insert.setInt(8, (int) row[6]);
+            insert.setInt(9, (int) row[7]);
+            insert.setInt(10, (int) row[8]);
+            insert.setDouble(11, row[9]);
+            insert.addBatch();
+            written++;
+        }
+        insert.executeBatch();
+        long t3 = System.nanoTime();
+
+        System.out.printf("Rebuilt %s for %s..%s: %,d rounds in %d group(s)%s; "
+                        + "scan %.1f ms, statistics %.1f ms (parallelism %d), write %.1f ms.%n",
+                table, (scan.from != null) ? scan.from : "start", (scan.to != null) ? scan.to : "now",
+                scan.rows, written,
+                (scan.skipped > 0) ? " (" + scan.skipped + " of another window length skipped)" : "",
+                (t1 - scan.t0) / 1e6, (t2 - t1) / 1e6, ForkJoinPool.commonPool().getParallelism(), (t3 - t2) / 1e6);
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Computes rows for group codes [lo, hi), splitting while the range holds
+    // more than SPLIT_VALUES multipliers. Row layout: lowest, highest, mean,
+    // modeStart, modeEnd, modeCount, above, below, count, confidence.
+    // ———————————————————————————————————————————————————————————————————————
+    private static final class GroupStatsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[][] values;
+        private final int[] counts;
+        private final double[][] results;
+        private final int lo, hi;
+
+        GroupStatsTask(double[][] values, int[] counts, double[][] results, int lo, int hi) {
+            this.values = values;
+            this.counts = counts;
+            this.results = results;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            long total = 0;
+            for (int code = lo; code < hi; code++) {
+                total += counts[code];
+            }
+            if (hi - lo > 1 && total > SPLIT_VALUES) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new GroupStatsTask(values, counts, results, lo, mid),
+                        new GroupStatsTask(values, counts, results, mid, hi));
+                return;
+            }
+            MultiplierStats stats = new MultiplierStats(); // one per leaf; it is not thread-safe
+            double[] mode = new double[6];
+            for (int code = lo; code < hi; code++) {
+                int n = counts[code];
+                if (n == 0) {
+                    continue;
+                }
+                double[] group = values[code];
+                double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, sum = 0;
+                for (int i = 0; i < n; i++) {
+                    double v = group[i];
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                    sum += v;
+                }
+                stats.modeStats(group, n, mode);
+                results[code] = new double[]{min, max, sum / n, mode[0], mode[1], mode[2], mode[3], mode[4], n, mode[5]};
+            }
+        }
+    }
+
+    private void recreateTable(String table) throws SQLException {
+        try (Statement stmt = statements.getConnection().createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS " + table);
+            String createSQL = "CREATE TABLE IF NOT EXISTS " + table + " (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "input_tensor_group TEXT UNIQUE, " +
+                    "lowest_target_multiplier REAL, " +
+                    "highest_target_multiplier REAL, " +
+                    "mean_target_multiplier REAL, " +
+                    "mode_target_range_start REAL, " +
+                    "mode_target_range_end REAL, " +
+                    "mode_range_target_count INTEGER, " +
+                    "above_mode_range_target_count INTEGER, " +
+                    "below_mode_range_target_count INTEGER, " +
+                    "group_count INTEGER, " +
+                    "target_confidence REAL, " +
+                    "TerminationTimestamp TEXT" +
+                    ")";
+            stmt.execute(createSQL);
+            System.out.println(table + " table created (full build).");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        StartupOptions options = StartupOptions.parse(args);
+        String db = options.get("db", "betdata.db");
+        String fromText = options.get("from", "");
+        String toText = options.get("to", "");
+        LocalDate from, to;
+        if (Boolean.parseBoolean(options.get("all", "false"))) {
+            from = null;
+            to = null;
+        } else if (fromText.isEmpty() && toText.isEmpty()) {
+            from = LocalDate.now();
+            to = from.plusDays(1);
+        } else {
+            from = fromText.isEmpty() ? null : LocalDate.parse(fromText);
+            to = toText.isEmpty() ? null : LocalDate.parse(toText);
+        }
+
+        if (from != null && from.equals(LocalDate.now()) && to != null && to.equals(from.plusDays(1))) {
+            rebuildToday(db);
+        } else {
+            rebuildRange(db, from, to);
+        }
+    }
+
+    // Today goes through the store, so InputTensorData matches what the live groups load
+    private static void rebuildToday(String db) {
+        BetDataStore store;
+        try {
+            store = new BetDataStore("jdbc:sqlite:" + db, false);
+        } catch (SQLException e) {
+            System.err.println("Cannot open " + db + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        try {
+            store.rebuildInputTensorData();
+        } finally {
+            store.close();
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // A range gets its own connection: ATTACH cannot run inside the store
+    // writer's transaction, and the rows go to InputTensorDataRange
+    // ———————————————————————————————————————————————————————————————————————
+    private static void rebuildRange(String db, LocalDate from, LocalDate to) throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + db);
+             StatementCache statements = new StatementCache(conn)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA busy_timeout=5000");
+            }
+            SchemaMigrator.migrate(conn, db);
+            new InputTensorAggregator(statements, BradHistory.configuredLength()).rebuildRange(from, to, db);
+        }
+    }
+}
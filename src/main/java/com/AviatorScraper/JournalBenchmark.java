@@ -0,0 +1,92 @@
+package com.AviatorScraper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append throughput and per-append latency of the {@link RoundJournal} on a throwaway file,
+ * followed by a full read-back that checks every record against the round that was written.
+ * Add {@code -Djournal.forceEvery=N} to include a force to disk every N appends.
+ *
+ * <pre>
+ *   JournalBenchmark [rounds=20000] [betsPerRound=150]
+ * </pre>
+ */
+public class JournalBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 20_000;
+        int betsPerRound = (args.length > 1) ? Integer.parseInt(args[1]) : 150;
+
+        Random random = new Random(7);
+        List<Round> samples = new ArrayList<>();
+        for (int r = 0; r < 64; r++) {
+            samples.add(PersistenceBenchmark.syntheticRound(random, betsPerRound, r));
+        }
+
+        Path file = Files.createTempFile("journal-bench-", ".journal");
+        Files.delete(file);
+        try {
+            long[] latencies = new long[rounds];
+            long elapsed;
+            try (RoundJournal journal = RoundJournal.open(file, 0L, Long.MAX_VALUE)) {
+                // Warm-up on the same file; the timed pass appends after it
+                for (int i = 0; i < Math.min(rounds, 2000); i++) {
+                    journal.append("warmup", samples.get(i % samples.size()), 0, null, "");
+                }
+                long t0 = System.nanoTime();
+                for (int i = 0; i < rounds; i++) {
+                    long a = System.nanoTime();
+                    journal.append("bench", samples.get(i % samples.size()), i & 1, "[0,1,0,1]", "");
+                    latencies[i] = System.nanoTime() - a;
+                }
+                elapsed = System.nanoTime() - t0;
+                System.out.println("Journal: " + journal.describeCounters());
+            }
+            double seconds = elapsed / 1e9;
+            long bytes = Files.size(file);
+
+            Arrays.sort(latencies);
+            System.out.printf("Appended %d rounds x %d bets in %.3f s: %.0f rounds/s, %.0f bets/s%n",
+                    rounds, betsPerRound, seconds, rounds / seconds, (double) rounds * betsPerRound / seconds);
+            System.out.printf("Append latency: p50=%.1f us p99=%.1f us p99.9=%.1f us max=%.1f us (file %.1f MB incl. mapped slack)%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                    latencies[rounds - 1] / 1_000.0, bytes / 1048576.0);
+
+            // Read back the timed pass and check each round survived intact
+            AtomicInteger read = new AtomicInteger();
+            AtomicInteger mismatched = new AtomicInteger();
+            long r0 = System.nanoTime();
+            RoundJournal.Scan scan = RoundJournal.read(file, 0L, entry -> {
+                if (!"bench".equals(entry.getSessionId())) {
+                    return;
+                }
+                Round expected = samples.get(read.getAndIncrement() % samples.size());
+                if (entry.getRound().getFingerprint() != expected.getFingerprint()
+                        || entry.getRound().getBets().size() != expected.getBets().size()) {
+                    mismatched.incrementAndGet();
+                }
+            });
+            double readSeconds = (System.nanoTime() - r0) / 1e9;
+            System.out.printf("Read back %s in %.3f s (%.0f rounds/s), %d bench round(s), %d mismatched%n",
+                    scan, readSeconds, scan.getRecords() / readSeconds, read.get(), mismatched.get());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // Still mapped on some platforms until the buffer is collected
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))] / 1_000.0;
+    }
+}
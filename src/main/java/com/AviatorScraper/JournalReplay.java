@@ -0,0 +1,67 @@
+package com.AviatorScraper;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rebuilds the Round and Bet tables (and with them the BetData / SummaryData views) of a
+ * database from one or more round journals, oldest first. Rounds the database already held
+ * when the replay started are skipped ({@link BetDataStore#isProjected}), so a replay can be
+ * re-run or resumed, and holes left by rolled-back writes are filled. Sequences older than
+ * the oldest one still in Round count as held: those rounds were moved to partitions.
+ * Replaying into a new file gives a fresh copy of everything that was captured. Status changes made
+ * after capture ({@code STOPPED}) are not journaled.
+ *
+ * <pre>
+ *   JournalReplay &lt;database&gt; &lt;journal&gt; [journal...]
+ *   e.g. JournalReplay rebuilt.db betdata.db.journal.48210 betdata.db.journal
+ * </pre>
+ */
+public class JournalReplay {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: JournalReplay <database> <journal> [journal...]");
+            System.exit(2);
+        }
+        BetDataStore store;
+        try {
+            // The target must not journal what it is replaying
+            store = new BetDataStore("jdbc:sqlite:" + args[0], false);
+        } catch (SQLException e) {
+            System.err.println("Cannot open " + args[0] + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        long after = 0L; // last sequence of the journals already read
+        AtomicInteger projected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        long t0 = System.nanoTime();
+        try {
+            for (int i = 1; i < args.length; i++) {
+                Path journal = Paths.get(args[i]);
+                int before = projected.get();
+                RoundJournal.Scan scan = RoundJournal.read(journal, after, entry -> {
+                    if (store.isProjected(entry.getSequence())) {
+                        return;
+                    }
+                    projected.incrementAndGet();
+                    store.project(entry).thenAccept(id -> {
+                        if (id == null) {
+                            failed.incrementAndGet();
+                        }
+                    });
+                });
+                System.out.println(journal + ": " + scan + ", " + (projected.get() - before) + " round(s) projected.");
+                after = Math.max(after, scan.getLastSequence());
+            }
+        } finally {
+            store.close();
+        }
+        System.out.printf("Replayed %d round(s) into %s in %.1f s (%d failed).%n",
+                projected.get(), args[0], (System.nanoTime() - t0) / 1e9, failed.get());
+    }
+}
@@ -0,0 +1,133 @@
+package com.AviatorScraper;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * {@link RoundFrameDecoder} for JSON frames, optionally socket.io-framed ({@code 42[...]}).
+ * Where each field lives is configured with dotted paths (numeric segments index arrays), so
+ * a protocol change means editing a properties file, not code. The defaults match the
+ * recorded frames in {@code fixtures/ws-frames.txt}:
+ * <pre>
+ *   frame.event.path=0
+ *   frame.event.value=roundResult
+ *   round.multiplier.path=1.multiplier
+ *   round.bank.path=1.balance
+ *   round.bets.path=1.bets
+ *   bet.amount.path=amount
+ *   bet.cashOut.path=win
+ *   bet.multiplier.path=cashOut
+ *   bet.freeBet.path=free
+ * </pre>
+ */
+public class JsonRoundFrameDecoder implements RoundFrameDecoder {
+    private final Json json = new Json();
+    private final Properties config = new Properties();
+
+    public JsonRoundFrameDecoder() {
+        config.setProperty("frame.event.path", "0");
+        config.setProperty("frame.event.value", "roundResult");
+        config.setProperty("round.multiplier.path", "1.multiplier");
+        config.setProperty("round.bank.path", "1.balance");
+        config.setProperty("round.bets.path", "1.bets");
+        config.setProperty("bet.amount.path", "amount");
+        config.setProperty("bet.cashOut.path", "win");
+        config.setProperty("bet.multiplier.path", "cashOut");
+        config.setProperty("bet.freeBet.path", "free");
+    }
+
+    public static JsonRoundFrameDecoder fromFile(File file) throws IOException {
+        JsonRoundFrameDecoder decoder = new JsonRoundFrameDecoder();
+        try (InputStream in = new FileInputStream(file)) {
+            decoder.config.load(in);
+        }
+        return decoder;
+    }
+
+    @Override
+    public Round decode(String payload, long receivedAt) {
+        String body = stripSocketIoPrefix(payload);
+        if (body.isEmpty() || (body.charAt(0) != '{' && body.charAt(0) != '[')) {
+            return null;
+        }
+        // Cheap filter before parsing: the event name has to appear in the frame
+        String event = config.getProperty("frame.event.value");
+        if (event != null && !event.isEmpty() && !body.contains(event)) {
+            return null;
+        }
+
+        Object root = json.toType(body, Object.class);
+        if (event != null && !event.isEmpty()
+                && !event.equals(String.valueOf(lookup(root, config.getProperty("frame.event.path"))))) {
+            return null;
+        }
+
+        Object multiplier = lookup(root, config.getProperty("round.multiplier.path"));
+        Object bets = lookup(root, config.getProperty("round.bets.path"));
+        if (multiplier == null || !(bets instanceof List)) {
+            return null;
+        }
+
+        List<Object> rows = new ArrayList<>();
+        for (Object bet : (List<?>) bets) {
+            rows.add(asText(lookup(bet, config.getProperty("bet.amount.path")), "0"));
+            rows.add(asText(lookup(bet, config.getProperty("bet.cashOut.path")), "0"));
+            rows.add(asText(lookup(bet, config.getProperty("bet.multiplier.path")), ""));
+            Object free = lookup(bet, config.getProperty("bet.freeBet.path"));
+            rows.add(free == null ? Boolean.FALSE : free);
+        }
+        Object bank = lookup(root, config.getProperty("round.bank.path"));
+        return RoundParser.parse(asText(multiplier, ""), bank == null ? null : asText(bank, ""), rows, receivedAt);
+    }
+
+    // socket.io packets look like 42["event",{...}]; drop the numeric packet type
+    private static String stripSocketIoPrefix(String payload) {
+        int i = 0;
+        while (i < payload.length() && Character.isDigit(payload.charAt(i))) {
+            i++;
+        }
+        return payload.substring(i).trim();
+    }
+
+    private static Object lookup(Object node, String path) {
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        Object current = node;
+        for (String part : path.split("\\.")) {
+            if (current instanceof Map) {
+                current = ((Map<?, ?>) current).get(part);
+            } else if (current instanceof List && part.chars().allMatch(Character::isDigit)) {
+                List<?> list = (List<?>) current;
+                int index = Integer.parseInt(part);
+                current = (index < list.size()) ? list.get(index) : null;
+            } else {
+                return null;
+            }
+            if (current == null) {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    // Numbers are rendered the way the page shows them ("2.30"), so stored text matches DOM captures
+    private static String asText(Object value, String fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        if (value instanceof Number) {
+            return String.format(Locale.ROOT, "%.2f", ((Number) value).doubleValue());
+        }
+        return value.toString();
+    }
+}
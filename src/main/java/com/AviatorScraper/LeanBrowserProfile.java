@@ -0,0 +1,132 @@
+package com.AviatorScraper;
+
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Launch profile for running many sessions per host (-Dbrowser.lean=true). Chrome runs
+ * headless, and images, fonts, video and analytics are blocked with CDP
+ * {@code Network.setBlockedURLs}. CSS animations and transitions are switched off in every
+ * document. The scraper only reads DOM text, so none of this changes what gets captured.
+ *
+ * <p>Audio-triggered sessions need Chrome to play the round-end cue into the VAC line, so
+ * for them the profile stays headful and leaves audio files alone. Blocking is sent through
+ * ChromeDriver's own CDP connection, so it survives capture engines attaching and detaching
+ * their DevTools sessions. Site isolation is disabled so the cross-origin game iframe loads
+ * through the same page session and is covered by the block list.
+ *
+ * <pre>
+ *   -Dbrowser.lean=true              enable
+ *   -Dbrowser.lean.headless=false    keep a visible window even without audio
+ *   -Dbrowser.lean.block=*foo*,*bar* extra URL patterns to block
+ * </pre>
+ */
+public class LeanBrowserProfile {
+    static final List<String> IMAGE_PATTERNS = List.of(
+            "*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.avif", "*.ico", "*.svg");
+    static final List<String> FONT_PATTERNS = List.of(
+            "*.woff", "*.woff2", "*.ttf", "*.otf", "*.eot");
+    static final List<String> VIDEO_PATTERNS = List.of(
+            "*.mp4", "*.webm", "*.m3u8");
+    static final List<String> AUDIO_PATTERNS = List.of(
+            "*.mp3", "*.ogg", "*.wav", "*.m4a", "*.aac");
+    static final List<String> ANALYTICS_PATTERNS = List.of(
+            "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*",
+            "*connect.facebook.net*", "*hotjar.com*", "*clarity.ms*", "*mc.yandex.ru*",
+            "*sentry.io*", "*newrelic.com*", "*nr-data.net*", "*onesignal.com*");
+
+    // Injected into every new document: no CSS animation or transition work at all
+    static final String DISABLE_ANIMATIONS_SCRIPT = """
+            (function () {
+              var css = '*,*::before,*::after{animation:none!important;transition:none!important;' +
+                        'scroll-behavior:auto!important;caret-color:transparent!important}';
+              function inject() {
+                var style = document.createElement('style');
+                style.setAttribute('data-lean', '1');
+                style.textContent = css;
+                (document.head || document.documentElement).appendChild(style);
+              }
+              if (document.documentElement) { inject(); }
+              else { document.addEventListener('DOMContentLoaded', inject, { once: true }); }
+            })();""";
+
+    private final boolean headless;
+    private final List<String> blockedUrls;
+
+    public LeanBrowserProfile(boolean keepAudio) {
+        this.headless = !keepAudio && Boolean.parseBoolean(System.getProperty("browser.lean.headless", "true"));
+
+        List<String> urls = new ArrayList<>();
+        urls.addAll(IMAGE_PATTERNS);
+        urls.addAll(FONT_PATTERNS);
+        urls.addAll(VIDEO_PATTERNS);
+        if (!keepAudio) {
+            urls.addAll(AUDIO_PATTERNS);
+        }
+        urls.addAll(ANALYTICS_PATTERNS);
+        String extra = System.getProperty("browser.lean.block");
+        if (extra != null && !extra.isBlank()) {
+            Arrays.stream(extra.split(",")).map(String::trim).filter(p -> !p.isEmpty()).forEach(urls::add);
+        }
+        this.blockedUrls = List.copyOf(urls);
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("browser.lean");
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public List<String> getBlockedUrls() {
+        return blockedUrls;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Command-line side: headless, no image decoding, fewer background services
+    // ———————————————————————————————————————————————————————————————————————
+    public void addLaunchArguments(ChromeOptions options) {
+        if (headless) {
+            options.addArguments("--headless=new", "--window-size=1280,900", "--disable-gpu");
+        }
+        options.addArguments(
+                "--blink-settings=imagesEnabled=false",
+                "--disable-extensions",
+                "--disable-background-networking",
+                "--disable-component-update",
+                "--disable-default-apps",
+                "--disable-sync",
+                "--no-first-run",
+                "--metrics-recording-only");
+        // Also the only --disable-features switch, which Chrome does not merge across repeats
+        PushRoundCapture.addLaunchArguments(options);
+        options.setExperimentalOption("prefs", Map.of(
+                "profile.managed_default_content_settings.images", 2,
+                "profile.default_content_setting_values.notifications", 2));
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // CDP side, once per launched driver: block URLs, kill animations, prefer
+    // reduced motion
+    // ———————————————————————————————————————————————————————————————————————
+    public void apply(ChromeDriver driver) {
+        try {
+            driver.executeCdpCommand("Network.enable", Map.of());
+            driver.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", blockedUrls));
+            driver.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                    Map.of("source", DISABLE_ANIMATIONS_SCRIPT));
+            driver.executeCdpCommand("Emulation.setEmulatedMedia", Map.of("features",
+                    List.of(Map.of("name", "prefers-reduced-motion", "value", "reduce"))));
+            System.out.println("Lean browser profile applied (" + (headless ? "headless" : "headful")
+                    + ", " + blockedUrls.size() + " blocked URL patterns).");
+        } catch (Exception e) {
+            System.out.println("Error applying lean browser profile: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.AviatorScraper;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * InputTensorData kept in memory. Per tensor group it holds today's running count, min,
+ * max and sum, plus a count per distinct TargetMultiplier. Groups live in an array
+ * indexed by their {@link BradHistory} code, so a window of any configured length needs
+ * no string keys; the label is only built when a row is written. The codes of changed
+ * groups are kept in a list, so checking for and writing changes costs the number of
+ * changed groups, not 2^length. A newly labelled round costs one map update instead of
+ * the two queries and the full fetch of the old per-group update. Multipliers have two
+ * decimals, so the number of distinct values stays small however long the day runs.
+ *
+ * <p>Groups that changed are written back with one upsert each by {@link #flush()}, which
+ * {@link BetDataStore} runs in its own transaction after a group commit; they count as
+ * written once {@link #flushCommitted()} confirms that transaction. The mode range and
+ * confidence are computed at flush time, from the value counts, with the same binning as
+ * {@link MultiplierStats}, so the rows match a full rebuild. Only the mean may differ in
+ * its last digit: the live sum is accumulated in the order rounds arrive, while a rebuild
+ * sums the group's values in the order it reads them from the index. State is loaded from
+ * the database once, on open.
+ *
+ * <p>Not thread-safe: only the database writer thread uses it.
+ */
+public class LiveTensorAggregator {
+    private static final String LOAD_SQL =
+            "SELECT InputTensor, TargetMultiplier FROM Round " +
+                    "WHERE CapturedAt >= ? AND CapturedAt < ? " +
+                    "  AND InputTensor IS NOT NULL AND TargetMultiplier IS NOT NULL";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO InputTensorData (" +
+                    "  input_tensor_group, lowest_target_multiplier, highest_target_multiplier, " +
+                    "  mean_target_multiplier, mode_target_range_start, mode_target_range_end, " +
+                    "  mode_range_target_count, above_mode_range_target_count, below_mode_range_target_count, " +
+                    "  group_count, target_confidence" +
+                    ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (input_tensor_group) DO UPDATE SET " +
+                    "  lowest_target_multiplier = excluded.lowest_target_multiplier, " +
+                    "  highest_target_multiplier = excluded.highest_target_multiplier, " +
+                    "  mean_target_multiplier = excluded.mean_target_multiplier, " +
+                    "  mode_target_range_start = excluded.mode_target_range_start, " +
+                    "  mode_target_range_end = excluded.mode_target_range_end, " +
+                    "  mode_range_target_count = excluded.mode_range_target_count, " +
+                    "  above_mode_range_target_count = excluded.above_mode_range_target_count, " +
+                    "  below_mode_range_target_count = excluded.below_mode_range_target_count, " +
+                    "  group_count = excluded.group_count, " +
+                    "  target_confidence = excluded.target_confidence";
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Running state of one tensor group for the current day
+    // ———————————————————————————————————————————————————————————————————————
+    static final class GroupState {
+        int count;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum;
+        final TreeMap<Double, int[]> values = new TreeMap<>();
+        boolean dirty;
+
+        void add(double value) {
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            values.computeIfAbsent(value, v -> new int[1])[0]++;
+        }
+
+        // n-th smallest value (0-based), walking the distinct values
+        double valueAt(int index) {
+            int seen = 0;
+            for (Map.Entry<Double, int[]> e : values.entrySet()) {
+                seen += e.getValue()[0];
+                if (index < seen) {
+                    return e.getKey();
+                }
+            }
+            throw new IllegalStateException("index " + index + " of " + count);
+        }
+
+        // {modeStart, modeEnd, modeCount, aboveCount, belowCount, confidence}
+        double[] modeStats() {
+            if (count == 0) {
+                return new double[]{1.0, 1.0, 0, 0, 0, 0};
+            }
+            double q1 = valueAt((int) Math.floor(0.25 * (count - 1)));
+            double q3 = valueAt((int) Math.floor(0.75 * (count - 1)));
+            double iqr = q3 - q1;
+            double binWidth = (iqr > 0) ? (2.0 * iqr / Math.pow(count, 1.0 / 3.0)) : 0.1;
+            if (binWidth <= 0) {
+                binWidth = 0.1;
+            }
+
+            // Values ascend, so bins are visited in order; ties keep the lowest bin
+            double modeStart = 0, modeEnd = 0;
+            int modeCount = 0;
+            double bin = Double.NaN;
+            int binCount = 0;
+            for (Map.Entry<Double, int[]> e : values.entrySet()) {
+                double binStart = Math.floor(e.getKey() / binWidth) * binWidth;
+                if (binStart != bin) {
+                    bin = binStart;
+                    binCount = 0;
+                }
+                binCount += e.getValue()[0];
+                if (binCount > modeCount) {
+                    modeCount = binCount;
+                    modeStart = binStart;
+                    modeEnd = binStart + binWidth;
+                }
+            }
+            modeStart = Math.max(modeStart, 1.0);
+            modeEnd = Math.max(modeEnd, modeStart + binWidth);
+
+            int below = 0;
+            for (Map.Entry<Double, int[]> e : values.headMap(modeStart, false).entrySet()) {
+                below += e.getValue()[0];
+            }
+            int above = 0;
+            for (Map.Entry<Double, int[]> e : values.tailMap(modeEnd, false).entrySet()) {
+                above += e.getValue()[0];
+            }
+            return new double[]{modeStart, modeEnd, modeCount, above, below, modeCount + above - below};
+        }
+    }
+
+    private final StatementCache statements;
+    private final int tensorLength;
+    private final GroupState[] groups; // by group code; null until the group is seen today
+    private final List<GroupState> unconfirmed = new ArrayList<>(); // upserted, not yet committed
+    private final int[] dirtyCodes; // codes of the groups changed since their last flush
+    private int dirtyCount;
+    private LocalDate day = LocalDate.now();
+    private long dayStart;
+    private long dayEnd;
+
+    // Counters
+    private long added;
+    private long flushes;
+    private long upserts;
+
+    public LiveTensorAggregator(StatementCache statements, int tensorLength) {
+        this.statements = statements;
+        this.tensorLength = tensorLength;
+        this.groups = new GroupState[1 << tensorLength];
+        this.dirtyCodes = new int[groups.length];
+        setDay(LocalDate.now());
+    }
+
+    private void setDay(LocalDate newDay) {
+        day = newDay;
+        unconfirmed.clear();
+        dirtyCount = 0;
+        ZoneId zone = ZoneId.systemDefault();
+        dayStart = newDay.atStartOfDay(zone).toInstant().toEpochMilli();
+        dayEnd = newDay.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        Arrays.fill(groups, null);
+    }
+
+    private void markDirty(int code, GroupState state) {
+        if (!state.dirty) {
+            state.dirty = true;
+            dirtyCodes[dirtyCount++] = code;
+        }
+    }
+
+    private GroupState groupState(int code) {
+        GroupState state = groups[code];
+        if (state == null) {
+            state = groups[code] = new GroupState();
+        }
+        return state;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Load today's labelled rounds; the only scan of Round this class makes.
+    // Groups changed since their last flush stay marked for the next one.
+    // ———————————————————————————————————————————————————————————————————————
+    public void rebuild() throws SQLException {
+        long t0 = System.nanoTime();
+        int[] wasDirty = Arrays.copyOf(dirtyCodes, dirtyCount);
+        setDay(LocalDate.now());
+        PreparedStatement ps = statements.get(LOAD_SQL);
+        ps.setLong(1, dayStart);
+        ps.setLong(2, dayEnd);
+        int rows = 0;
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                int code = BradHistory.code(rs.getString(1), tensorLength);
+                if (code >= 0) { // rounds captured under another window length are left out
+                    groupState(code).add(rs.getDouble(2));
+                    rows++;
+                }
+            }
+        }
+        for (int code : wasDirty) {
+            if (groups[code] != null) {
+                markDirty(code, groups[code]);
+            }
+        }
+        System.out.printf("InputTensorData: %d labelled round(s) in %d group(s) loaded in %.1f ms.%n",
+                rows, groupCount(), (System.nanoTime() - t0) / 1_000_000.0);
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // A round captured at capturedAt in group tensorCode (-1: none) was just
+    // labelled with the multiplier that followed it
+    // ———————————————————————————————————————————————————————————————————————
+    public void add(int tensorCode, long capturedAt, double targetMultiplier) {
+        if (tensorCode < 0 || tensorCode >= groups.length) {
+            return;
+        }
+        if (capturedAt >= dayEnd) {
+            setDay(LocalDate.ofInstant(Instant.ofEpochMilli(capturedAt), ZoneId.systemDefault()));
+        }
+        if (capturedAt < dayStart) {
+            return; // yesterday's round; its day is closed
+        }
+        GroupState state = groupState(tensorCode);
+        state.add(targetMultiplier);
+        markDirty(tensorCode, state);
+        added++;
+    }
+
+    public boolean isDirty() {
+        return dirtyCount > 0;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Upsert every group that changed since the last committed flush
+    // ———————————————————————————————————————————————————————————————————————
+    public void flush() throws SQLException {
+        if (LocalDate.now().isAfter(day)) {
+            setDay(LocalDate.now());
+        }
+        PreparedStatement ps = null;
+        unconfirmed.clear();
+        Arrays.sort(dirtyCodes, 0, dirtyCount); // rows in group order, as a rebuild writes them
+        for (int i = 0; i < dirtyCount; i++) {
+            int code = dirtyCodes[i];
+            GroupState state = groups[code];
+            if (ps == null) {
+                ps = statements.get(UPSERT_SQL);
+            }
+            double[] mode = state.modeStats();
+            ps.setString(1, BradHistory.label(code, tensorLength));
+            ps.setDouble(2, state.min);
+            ps.setDouble(3, state.max);
+            ps.setDouble(4, state.sum / state.count);
+            ps.setDouble(5, mode[0]);
+            ps.setDouble(6, mode[1]);
+            ps.setInt(7, (int) mode[2]);
+            ps.setInt(8, (int) mode[3]);
+            ps.setInt(9, (int) mode[4]);
+            ps.setInt(10, state.count);
+            ps.setDouble(11, mode[5]);
+            ps.executeUpdate();
+            unconfirmed.add(state);
+        }
+    }
+
+    // The transaction holding the last flush committed; a rolled-back flush is retried whole
+    public void flushCommitted() {
+        for (GroupState state : unconfirmed) {
+            state.dirty = false;
+        }
+        int kept = 0;
+        for (int i = 0; i < dirtyCount; i++) {
+            if (groups[dirtyCodes[i]].dirty) {
+                dirtyCodes[kept++] = dirtyCodes[i];
+            }
+        }
+        dirtyCount = kept;
+        upserts += unconfirmed.size();
+        unconfirmed.clear();
+        flushes++;
+    }
+
+    GroupState group(int tensorCode) {
+        return groups[tensorCode];
+    }
+
+    private int groupCount() {
+        int count = 0;
+        for (GroupState state : groups) {
+            if (state != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public String describeCounters() {
+        return "rounds=" + added + " flushes=" + flushes + " upserts=" + upserts + " groups=" + groupCount();
+    }
+}
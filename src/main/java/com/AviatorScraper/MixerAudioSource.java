@@ -0,0 +1,78 @@
+package com.AviatorScraper;
+
+import javax.sound.sampled.*;
+import java.io.IOException;
+
+/**
+ * Live capture from the first input mixer whose name contains the given fragment
+ * ("Line 1" for Virtual Audio Cable).
+ */
+public class MixerAudioSource implements AudioSource {
+    private final String mixerNameFragment;
+    private final int bufferBytes;
+    private TargetDataLine line;
+
+    public MixerAudioSource(String mixerNameFragment, int bufferBytes) {
+        this.mixerNameFragment = mixerNameFragment;
+        this.bufferBytes = bufferBytes;
+    }
+
+    @Override
+    public void open() throws LineUnavailableException {
+        DataLine.Info info = new DataLine.Info(TargetDataLine.class, CAPTURE_FORMAT);
+        Mixer selectedMixer = null;
+
+        // Loop through available mixers and select the one matching our fragment
+        for (Mixer.Info mixerInfo : AudioSystem.getMixerInfo()) {
+            if (mixerInfo.getName().contains(mixerNameFragment)) {
+                Mixer mixer = AudioSystem.getMixer(mixerInfo);
+                if (mixer.isLineSupported(info)) {
+                    selectedMixer = mixer;
+                    System.out.println("Monitoring input device: " + mixerInfo.getName());
+                    break;
+                }
+            }
+        }
+
+        if (selectedMixer == null) {
+            throw new LineUnavailableException("No suitable input device found matching \"" + mixerNameFragment + "\"");
+        }
+
+        line = (TargetDataLine) selectedMixer.getLine(info);
+        // Keep the driver buffer at a few frames so reads return as soon as a frame is ready
+        line.open(CAPTURE_FORMAT, bufferBytes);
+        line.start();
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int n = line.read(buffer, offset + total, length - total);
+            if (n <= 0) {
+                break;
+            }
+            total += n;
+        }
+        return (total == 0) ? -1 : total;
+    }
+
+    @Override
+    public boolean isRealtime() {
+        return true;
+    }
+
+    @Override
+    public String describe() {
+        return "mixer \"" + mixerNameFragment + "\"";
+    }
+
+    @Override
+    public void close() {
+        if (line != null) {
+            line.stop();
+            line.close();
+            line = null;
+        }
+    }
+}
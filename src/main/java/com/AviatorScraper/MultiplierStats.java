@@ -0,0 +1,185 @@
+package com.AviatorScraper;
+
+import java.util.Arrays;
+
+/**
+ * Mode range statistics of a group's target multipliers, on a primitive {@code double[]}.
+ * This replaces the list-based {@code calculateMode}, which boxed every value, sorted the
+ * whole list to read two quartiles, and counted bins in a {@code HashMap<Double, Integer>}.
+ *
+ * <ul>
+ *   <li>Q1 and Q3 are found by selection (expected O(n), no full sort). The quartiles
+ *       are exact order statistics, so the result is identical to the sorted version.</li>
+ *   <li>Freedman–Diaconis bins are counted in an {@code int[]} indexed by
+ *       {@code floor(v / binWidth)} relative to the lowest value. A bin's start is the
+ *       same {@code floor(v / binWidth) * binWidth} as before. The lowest bin wins ties,
+ *       as it did when the sorted values were binned in order.</li>
+ *   <li>Below and above counts take one more pass over the values.</li>
+ * </ul>
+ *
+ * An instance keeps its scratch arrays between calls. Once they have grown to the largest
+ * group, a call allocates nothing. Not thread-safe; use one instance per thread.
+ */
+public final class MultiplierStats {
+    // Bins beyond this (a few huge outliers over a tiny bin width) are counted by sorting instead
+    private static final int MAX_BINS = 1 << 22;
+    private static final int INSERTION_SORT_THRESHOLD = 24;
+
+    private double[] scratch = new double[0];
+    private int[] bins = new int[0];
+
+    // ———————————————————————————————————————————————————————————————————————
+    // {modeStart, modeEnd, modeCount, aboveCount, belowCount, confidence} of
+    // values[0..n); values is left untouched
+    // ———————————————————————————————————————————————————————————————————————
+    public double[] modeStats(double[] values, int n) {
+        double[] out = new double[6];
+        modeStats(values, n, out);
+        return out;
+    }
+
+    public void modeStats(double[] values, int n, double[] out) {
+        if (n == 0) {
+            out[0] = 1.0;
+            out[1] = 1.0;
+            out[2] = out[3] = out[4] = out[5] = 0;
+            return;
+        }
+        if (scratch.length < n) {
+            scratch = new double[Math.max(n, scratch.length * 2)];
+        }
+        System.arraycopy(values, 0, scratch, 0, n);
+        int q1Index = (int) Math.floor(0.25 * (n - 1));
+        int q3Index = (int) Math.floor(0.75 * (n - 1));
+        select(scratch, 0, n - 1, q3Index);
+        double q3 = scratch[q3Index];
+        select(scratch, 0, q3Index, q1Index); // everything left of Q3 is <= Q3
+        double q1 = scratch[q1Index];
+        double iqr = q3 - q1;
+
+        double binWidth = (iqr > 0) ? (2.0 * iqr / Math.pow(n, 1.0 / 3.0)) : 0.1;
+        if (binWidth <= 0) {
+            binWidth = 0.1;
+        }
+
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double v = values[i];
+            if (v < min) {
+                min = v;
+            }
+            if (v > max) {
+                max = v;
+            }
+        }
+        double firstBin = Math.floor(min / binWidth);
+        double binSpan = Math.floor(max / binWidth) - firstBin + 1;
+
+        double modeBin;
+        int modeCount;
+        if (binSpan <= MAX_BINS) {
+            int span = (int) binSpan;
+            if (bins.length < span) {
+                bins = new int[Math.max(span, bins.length * 2)];
+            }
+            Arrays.fill(bins, 0, span, 0);
+            for (int i = 0; i < n; i++) {
+                bins[(int) (Math.floor(values[i] / binWidth) - firstBin)]++;
+            }
+            int best = 0;
+            for (int b = 1; b < span; b++) {
+                if (bins[b] > bins[best]) {
+                    best = b;
+                }
+            }
+            modeBin = firstBin + best;
+            modeCount = bins[best];
+        } else {
+            // Sparse range: sort the copy and count runs of equal bins, lowest first
+            Arrays.sort(scratch, 0, n);
+            modeBin = Math.floor(scratch[0] / binWidth);
+            modeCount = 0;
+            double bin = Double.NaN;
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                double b = Math.floor(scratch[i] / binWidth);
+                count = (b == bin) ? count + 1 : 1;
+                bin = b;
+                if (count > modeCount) {
+                    modeCount = count;
+                    modeBin = b;
+                }
+            }
+        }
+
+        double modeStart = Math.max(modeBin * binWidth, 1.0);
+        double modeEnd = Math.max(modeBin * binWidth + binWidth, modeStart + binWidth);
+
+        int below = 0, above = 0;
+        for (int i = 0; i < n; i++) {
+            double v = values[i];
+            if (v < modeStart) {
+                below++;
+            } else if (v > modeEnd) {
+                above++;
+            }
+        }
+
+        out[0] = modeStart;
+        out[1] = modeEnd;
+        out[2] = modeCount;
+        out[3] = above;
+        out[4] = below;
+        out[5] = modeCount + above - below;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Quickselect with a three-way partition (multipliers repeat a lot) and
+    // median-of-three pivots; falls back to sorting the range if it degrades
+    // ———————————————————————————————————————————————————————————————————————
+    static void select(double[] a, int lo, int hi, int k) {
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(hi - lo + 1));
+        while (hi - lo > INSERTION_SORT_THRESHOLD) {
+            if (budget-- == 0) {
+                Arrays.sort(a, lo, hi + 1);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            double pivot = medianOf3(a[lo], a[mid], a[hi]);
+            // a[lo..lt) < pivot, a[lt..i) == pivot, a(gt..hi] > pivot
+            int lt = lo, i = lo, gt = hi;
+            while (i <= gt) {
+                double v = a[i];
+                if (v < pivot) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (v > pivot) {
+                    a[i] = a[gt];
+                    a[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+            if (k < lt) {
+                hi = lt - 1;
+            } else if (k > gt) {
+                lo = gt + 1;
+            } else {
+                return;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            double v = a[i];
+            int j = i - 1;
+            while (j >= lo && a[j] > v) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = v;
+        }
+    }
+
+    private static double medianOf3(double a, double b, double c) {
+        return (a < b) ? ((b < c) ? b : Math.max(a, c)) : ((a < c) ? a : Math.max(b, c));
+    }
+}
@@ -0,0 +1,470 @@
+package com.AviatorScraper;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Time partitions and retention for {@code betdata.db}. The live file keeps only the last
+ * {@code -Dpartition.keepDays} days (default 14), so live writes and today's aggregations
+ * always work on a small file. Older rounds and their bets are moved into one SQLite file
+ * per period under {@code partitions/} next to the database:
+ * {@code betdata-<first day>_<day after>.db}. {@code -Dpartition.period} is {@code day},
+ * {@code week} (the default, Monday to Monday) or {@code month}. Each partition is a
+ * complete database at the current schema version, with the same ids, views and indexes.
+ *
+ * <p>Rounds are moved in chunks of {@code -Dpartition.chunkRounds} (default 500). Each
+ * chunk is copied into the partition and committed, then deleted from the live file in a
+ * second short transaction. That keeps the live file's write lock free for the store's
+ * writer between chunks, and copies are {@code INSERT OR IGNORE}, so a crash between the
+ * two steps is repaired by the next run. A partition whose period is fully moved is
+ * compacted with {@code VACUUM}. Partitions untouched for {@code -Dpartition.archiveAfterDays}
+ * (0, the default, keeps them as they are) are gzipped into {@code partitions/archive/}.
+ *
+ * <p>{@link #attachHistory} attaches the partitions overlapping a date range and puts
+ * {@code RoundHistory} / {@code BetHistory} TEMP views over them and the live tables.
+ *
+ * <pre>
+ *   PartitionManager [database=betdata.db]                         run maintenance once, list partitions
+ *   PartitionManager betdata.db query 2025-05-01 2025-07-01 "SELECT COUNT(*) FROM RoundHistory"
+ * </pre>
+ */
+public class PartitionManager implements AutoCloseable {
+
+    public enum Period {
+        DAY, WEEK, MONTH;
+
+        LocalDate start(LocalDate day) {
+            switch (this) {
+                case DAY:
+                    return day;
+                case WEEK:
+                    return day.with(DayOfWeek.MONDAY);
+                default:
+                    return day.withDayOfMonth(1);
+            }
+        }
+
+        LocalDate next(LocalDate start) {
+            switch (this) {
+                case DAY:
+                    return start.plusDays(1);
+                case WEEK:
+                    return start.plusWeeks(1);
+                default:
+                    return start.plusMonths(1);
+            }
+        }
+    }
+
+    private static final int MAX_ATTACHED = 10; // SQLITE_MAX_ATTACHED in the bundled driver
+
+    private static final String CHUNK_END_SQL =
+            "SELECT MAX(id) FROM (SELECT id FROM Round WHERE CapturedAt >= ? AND CapturedAt < ? ORDER BY id LIMIT ?)";
+    private static final String RANGE = "id <= ? AND CapturedAt >= ? AND CapturedAt < ?";
+    private static final String COPY_ROUNDS_SQL =
+            "INSERT OR IGNORE INTO part.Round SELECT * FROM main.Round WHERE " + RANGE;
+    private static final String COPY_BETS_SQL =
+            "INSERT OR IGNORE INTO part.Bet SELECT * FROM main.Bet WHERE RoundId IN " +
+                    "(SELECT id FROM main.Round WHERE " + RANGE + ")";
+    private static final String DELETE_ROUNDS_SQL = "DELETE FROM Round WHERE " + RANGE; // bets follow by cascade
+
+    private final File database;
+    private final File directory;
+    private final String prefix;
+    private final Period period;
+    private final int keepDays;
+    private final int chunkRounds;
+    private final int archiveAfterDays;
+    private ScheduledExecutorService scheduler;
+    private Connection connection;
+    private volatile boolean closing;
+
+    // Counters
+    private volatile long runs;
+    private volatile long movedRounds;
+    private volatile long compacted;
+    private volatile long archived;
+
+    public PartitionManager(String databasePath, Period period, int keepDays, int chunkRounds, int archiveAfterDays) {
+        this.database = new File(databasePath).getAbsoluteFile();
+        this.directory = new File(database.getParentFile(), "partitions");
+        String name = database.getName();
+        this.prefix = name.contains(".") ? name.substring(0, name.lastIndexOf('.')) : name;
+        this.period = period;
+        this.keepDays = keepDays;
+        this.chunkRounds = chunkRounds;
+        this.archiveAfterDays = archiveAfterDays;
+    }
+
+    // -Dpartition.* settings; null when -Dpartition.keepDays=0 turns partitioning off
+    public static PartitionManager fromSystemProperties(String databasePath) {
+        int keepDays = Integer.getInteger("partition.keepDays", 14);
+        if (keepDays <= 0 || databasePath == null) {
+            return null;
+        }
+        Period period = Period.valueOf(System.getProperty("partition.period", "week").toUpperCase(Locale.ROOT));
+        return new PartitionManager(databasePath, period, keepDays,
+                Integer.getInteger("partition.chunkRounds", 500),
+                Integer.getInteger("partition.archiveAfterDays", 0));
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Run maintenance a minute after start, then every
+    // -Dpartition.intervalMinutes (default 60)
+    // ———————————————————————————————————————————————————————————————————————
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "betdata-partitions");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        long interval = Integer.getInteger("partition.intervalMinutes", 60);
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runOnce();
+            } catch (Exception e) {
+                System.err.println("Partition maintenance failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }, 1, interval, TimeUnit.MINUTES);
+        System.out.println("Partitions: keeping " + keepDays + " day(s) in " + database.getName()
+                + ", older rounds go to " + directory + " by " + period.name().toLowerCase(Locale.ROOT) + ".");
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Move every round older than the retention window into its partition,
+    // compact the partitions that are now complete, archive stale ones
+    // ———————————————————————————————————————————————————————————————————————
+    public synchronized void runOnce() throws SQLException, IOException {
+        long t0 = System.nanoTime();
+        LocalDate cutoffDay = LocalDate.now().minusDays(keepDays);
+        long cutoff = epochMillis(cutoffDay);
+        int moved = 0;
+        List<String> touched = new ArrayList<>();
+
+        Connection conn = connection();
+        while (!closing) {
+            long oldest;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT MIN(CapturedAt) FROM Round")) {
+                oldest = rs.next() ? rs.getLong(1) : 0L;
+                if (rs.wasNull() || oldest >= cutoff) {
+                    break;
+                }
+            }
+            LocalDate start = period.start(LocalDate.ofInstant(Instant.ofEpochMilli(oldest), ZoneId.systemDefault()));
+            LocalDate end = period.next(start);
+            File file = partitionFile(start, end);
+            int periodMoved = movePeriod(conn, file, epochMillis(start), Math.min(epochMillis(end), cutoff));
+            if (periodMoved == 0) {
+                if (closing) {
+                    break;
+                }
+                throw new SQLException("No rounds moved from " + database.getName() + " into " + file.getName());
+            }
+            moved += periodMoved;
+            touched.add(file.getName());
+            if (!end.isAfter(cutoffDay) && !closing) {
+                compact(file);
+            }
+        }
+        if (archiveAfterDays > 0) {
+            archiveStale();
+        }
+        runs++;
+        movedRounds += moved;
+        if (moved > 0) {
+            System.out.printf("Partitions: moved %d round(s) older than %s into %s in %.1f s.%n",
+                    moved, cutoffDay, touched, (System.nanoTime() - t0) / 1e9);
+        }
+    }
+
+    private int movePeriod(Connection conn, File file, long from, long to) throws SQLException {
+        prepare(file);
+        int moved = 0;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ATTACH DATABASE '" + file.getPath().replace("'", "''") + "' AS part");
+            try (PreparedStatement chunkEnd = conn.prepareStatement(CHUNK_END_SQL);
+                 PreparedStatement copyRounds = conn.prepareStatement(COPY_ROUNDS_SQL);
+                 PreparedStatement copyBets = conn.prepareStatement(COPY_BETS_SQL);
+                 PreparedStatement delete = conn.prepareStatement(DELETE_ROUNDS_SQL)) {
+                while (!closing) {
+                    chunkEnd.setLong(1, from);
+                    chunkEnd.setLong(2, to);
+                    chunkEnd.setInt(3, chunkRounds);
+                    long lastId;
+                    try (ResultSet rs = chunkEnd.executeQuery()) {
+                        lastId = rs.next() ? rs.getLong(1) : 0L;
+                        if (rs.wasNull()) {
+                            break;
+                        }
+                    }
+
+                    // 1) Copy into the partition; the live file is only read
+                    conn.setAutoCommit(false);
+                    try {
+                        bindRange(copyRounds, lastId, from, to);
+                        copyRounds.executeUpdate();
+                        bindRange(copyBets, lastId, from, to);
+                        copyBets.executeUpdate();
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
+
+                    // 2) Only then drop them from the live file
+                    bindRange(delete, lastId, from, to);
+                    moved += delete.executeUpdate();
+                }
+            } finally {
+                stmt.execute("DETACH DATABASE part");
+            }
+        }
+        return moved;
+    }
+
+    private static void bindRange(PreparedStatement ps, long lastId, long from, long to) throws SQLException {
+        ps.setLong(1, lastId);
+        ps.setLong(2, from);
+        ps.setLong(3, to);
+    }
+
+    // A new partition gets the full schema, so it can be opened like betdata.db itself
+    private void prepare(File file) throws SQLException {
+        if (file.exists()) {
+            return;
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new SQLException("Cannot create partition directory " + directory);
+        }
+        try (Connection part = DriverManager.getConnection("jdbc:sqlite:" + file.getPath())) {
+            SchemaMigrator.migrate(part, null);
+        }
+    }
+
+    private void compact(File file) throws SQLException {
+        long before = file.length();
+        try (Connection part = DriverManager.getConnection("jdbc:sqlite:" + file.getPath());
+             Statement stmt = part.createStatement()) {
+            stmt.execute("VACUUM");
+        }
+        compacted++;
+        System.out.printf("Partitions: compacted %s (%.1f MB -> %.1f MB).%n",
+                file.getName(), before / 1048576.0, file.length() / 1048576.0);
+    }
+
+    private void archiveStale() throws IOException {
+        File archive = new File(directory, "archive");
+        long limit = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(archiveAfterDays);
+        for (File file : listPartitions()) {
+            if (file.lastModified() >= limit) {
+                continue;
+            }
+            if (!archive.isDirectory() && !archive.mkdirs()) {
+                throw new IOException("Cannot create archive directory " + archive);
+            }
+            File target = new File(archive, file.getName() + ".gz");
+            File partial = new File(archive, file.getName() + ".gz.part");
+            try (InputStream in = new FileInputStream(file);
+                 OutputStream out = new GZIPOutputStream(new FileOutputStream(partial), 1 << 16)) {
+                in.transferTo(out);
+            }
+            if (!partial.renameTo(target) || !file.delete()) {
+                throw new IOException("Cannot archive " + file + " to " + target);
+            }
+            archived++;
+            System.out.println("Partitions: archived " + file.getName() + " to " + target);
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Attach the partitions overlapping [from, to) and create TEMP views
+    // RoundHistory / BetHistory over them plus the live tables. Returns the
+    // number attached. SQLite attaches at most 10 databases per connection.
+    // ———————————————————————————————————————————————————————————————————————
+    public static int attachHistory(Connection conn, String databasePath, LocalDate from, LocalDate to)
+            throws SQLException {
+        List<File> overlapping = partitionsOverlapping(databasePath, from, to);
+        if (overlapping.size() > MAX_ATTACHED) {
+            throw new SQLException(from + ".." + to + " spans " + overlapping.size() + " partitions, but SQLite attaches at most "
+                    + MAX_ATTACHED + "; narrow the range or use a longer -Dpartition.period");
+        }
+        StringBuilder rounds = new StringBuilder("SELECT * FROM main.Round");
+        StringBuilder bets = new StringBuilder("SELECT * FROM main.Bet");
+        try (Statement stmt = conn.createStatement()) {
+            for (int i = 0; i < overlapping.size(); i++) {
+                String alias = "p" + i;
+                stmt.execute("ATTACH DATABASE '" + overlapping.get(i).getPath().replace("'", "''") + "' AS " + alias);
+                rounds.append(" UNION ALL SELECT * FROM ").append(alias).append(".Round");
+                bets.append(" UNION ALL SELECT * FROM ").append(alias).append(".Bet");
+            }
+            stmt.execute("DROP VIEW IF EXISTS temp.RoundHistory");
+            stmt.execute("DROP VIEW IF EXISTS temp.BetHistory");
+            stmt.execute("CREATE TEMP VIEW RoundHistory AS " + rounds);
+            stmt.execute("CREATE TEMP VIEW BetHistory AS " + bets);
+        }
+        return overlapping.size();
+    }
+
+    // Partition files of databasePath with rounds in [from, to), oldest first
+    public static List<File> partitionsOverlapping(String databasePath, LocalDate from, LocalDate to) {
+        PartitionManager layout = new PartitionManager(databasePath, Period.WEEK, 0, 0, 0);
+        List<File> overlapping = new ArrayList<>();
+        for (File file : layout.listPartitions()) {
+            LocalDate[] range = layout.rangeOf(file);
+            if (range != null && range[0].isBefore(to) && range[1].isAfter(from)) {
+                overlapping.add(file);
+            }
+        }
+        return overlapping;
+    }
+
+    private File partitionFile(LocalDate start, LocalDate end) {
+        return new File(directory, prefix + "-" + start + "_" + end + ".db");
+    }
+
+    // [first day, day after] from a partition file name, or null if it is not one
+    private LocalDate[] rangeOf(File file) {
+        String name = file.getName();
+        if (!name.startsWith(prefix + "-") || !name.endsWith(".db")) {
+            return null;
+        }
+        String[] days = name.substring(prefix.length() + 1, name.length() - 3).split("_");
+        try {
+            return (days.length == 2) ? new LocalDate[]{LocalDate.parse(days[0]), LocalDate.parse(days[1])} : null;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private List<File> listPartitions() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(prefix + "-") && name.endsWith(".db"));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        Arrays.sort(files);
+        List<File> partitions = new ArrayList<>();
+        for (File file : files) {
+            if (rangeOf(file) != null) {
+                partitions.add(file);
+            }
+        }
+        return partitions;
+    }
+
+    private Connection connection() throws SQLException {
+        if (connection == null) {
+            connection = DriverManager.getConnection("jdbc:sqlite:" + database.getPath());
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA busy_timeout=5000");
+                stmt.execute("PRAGMA foreign_keys=ON");
+            }
+        }
+        return connection;
+    }
+
+    private static long epochMillis(LocalDate day) {
+        return day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public String describeCounters() {
+        return "runs=" + runs + " moved=" + movedRounds + " compacted=" + compacted + " archived=" + archived;
+    }
+
+    // Stops after the chunk in progress; a run cut short continues next start
+    @Override
+    public void close() {
+        closing = true;
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            closeConnection();
+        }
+    }
+
+    private void closeConnection() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+            }
+            connection = null;
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Manual run, or a query over the history of a date range
+    // ———————————————————————————————————————————————————————————————————————
+    public static void main(String[] args) throws Exception {
+        String databasePath = (args.length > 0) ? args[0] : "betdata.db";
+        if (args.length >= 5 && args[1].equals("query")) {
+            try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + databasePath)) {
+                int attached = attachHistory(conn, databasePath, LocalDate.parse(args[2]), LocalDate.parse(args[3]));
+                System.err.println(attached + " partition(s) attached.");
+                try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(args[4])) {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    while (rs.next()) {
+                        StringBuilder row = new StringBuilder();
+                        for (int i = 1; i <= meta.getColumnCount(); i++) {
+                            row.append(i > 1 ? "\t" : "").append(rs.getString(i));
+                        }
+                        System.out.println(row);
+                    }
+                }
+            }
+            return;
+        }
+
+        PartitionManager manager = fromSystemProperties(databasePath);
+        if (manager == null) {
+            System.out.println("Partitioning is off (-Dpartition.keepDays=0).");
+            return;
+        }
+        try {
+            manager.runOnce();
+            for (File file : manager.listPartitions()) {
+                System.out.printf("%-40s %8.1f MB%n", file.getName(), file.length() / 1048576.0);
+            }
+            System.out.println("Partitions: " + manager.describeCounters());
+        } finally {
+            manager.close();
+        }
+    }
+}
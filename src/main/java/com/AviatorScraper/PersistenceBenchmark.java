@@ -0,0 +1,151 @@
+package com.AviatorScraper;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Rows written per second, before and after the persistence rework, on throwaway database
+ * files. "before" replays the old per-round path: autocommit, statements prepared again
+ * for every round, bets and summary committed separately. "after" feeds the same rounds
+ * through {@link BetDataStore#recordRound} into the current schema (round journal, cached
+ * statements, one SAVEPOINT per round, group commit) and includes the final drain in the
+ * timing. Run with {@code -Djournal.enabled=false} to leave the journal out.
+ *
+ * <pre>
+ *   PersistenceBenchmark [rounds=2000] [betsPerRound=150]
+ * </pre>
+ */
+public class PersistenceBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+        int betsPerRound = (args.length > 1) ? Integer.parseInt(args[1]) : 150;
+
+        Random random = new Random(7);
+        List<Round> samples = new ArrayList<>();
+        for (int r = 0; r < 64; r++) {
+            samples.add(syntheticRound(random, betsPerRound, r));
+        }
+        long rows = 0;
+        for (int i = 0; i < rounds; i++) {
+            rows += samples.get(i % samples.size()).getPaidBetCount() + 1;
+        }
+
+        double before = timeLegacy(samples, rounds);
+        double after = timeStore(samples, rounds);
+
+        System.out.printf("%-8s %10s %14s%n", "path", "seconds", "rows/s");
+        System.out.printf("%-8s %10.3f %14.0f%n", "before", before, rows / before);
+        System.out.printf("%-8s %10.3f %14.0f%n", "after", after, rows / after);
+        System.out.printf("%d rounds x %d bets (%d rows), speed-up %.1fx%n", rounds, betsPerRound, rows, before / after);
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Old path: two autocommitted writes per round, each preparing its statement
+    // ———————————————————————————————————————————————————————————————————————
+    private static double timeLegacy(List<Round> samples, int rounds) throws Exception {
+        File db = legacyDatabase();
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + db)) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                Round round = samples.get(i % samples.size());
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "INSERT INTO BetData (BetAmount, Multiplier, CashOut, RoundMultiplier, SessionId) VALUES (?, ?, ?, ?, ?)")) {
+                    for (Bet bet : round.getBets()) {
+                        if (bet.isFreeBet()) {
+                            continue;
+                        }
+                        ps.setDouble(1, bet.getAmount());
+                        ps.setString(2, bet.getMultiplier());
+                        ps.setDouble(3, bet.getCashOut());
+                        ps.setString(4, round.getRoundMultiplier());
+                        ps.setString(5, "bench");
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "INSERT INTO SummaryData (RoundMultiplier, TotalBetAmount, TotalCashOut, ProfitLoss, Brad, Bank, SessionId) " +
+                                "VALUES (?, ?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+                    ps.setString(1, round.getRoundMultiplier());
+                    ps.setDouble(2, round.getTotalBetAmount());
+                    ps.setDouble(3, round.getTotalCashOut());
+                    ps.setDouble(4, round.getProfitLoss());
+                    ps.setInt(5, 0);
+                    ps.setDouble(6, round.getBank());
+                    ps.setString(7, "bench");
+                    ps.executeUpdate();
+                }
+            }
+            return (System.nanoTime() - t0) / 1e9;
+        } finally {
+            deleteDatabase(db);
+        }
+    }
+
+    // New path: queue every round, then drain
+    private static double timeStore(List<Round> samples, int rounds) throws Exception {
+        File db = freshDatabase();
+        try {
+            BetDataStore store = new BetDataStore("jdbc:sqlite:" + db);
+            long t0 = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                store.recordRound("bench", samples.get(i % samples.size()), 0, null, "");
+            }
+            store.close();
+            return (System.nanoTime() - t0) / 1e9;
+        } finally {
+            deleteDatabase(db);
+        }
+    }
+
+    // Current schema, created by BetDataStore itself
+    private static File freshDatabase() throws Exception {
+        File db = Files.createTempFile("persistence-bench-", ".db").toFile();
+        new BetDataStore("jdbc:sqlite:" + db).close();
+        return db;
+    }
+
+    // The version-0 tables the old path wrote to
+    private static File legacyDatabase() throws Exception {
+        File db = Files.createTempFile("persistence-bench-", ".db").toFile();
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + db);
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA journal_mode=WAL");
+            stmt.execute("CREATE TABLE BetData (id INTEGER PRIMARY KEY AUTOINCREMENT, BetAmount REAL, " +
+                    "Multiplier TEXT, CashOut REAL, RoundMultiplier TEXT, SessionId TEXT)");
+            stmt.execute("CREATE TABLE SummaryData (id INTEGER PRIMARY KEY AUTOINCREMENT, RoundMultiplier TEXT, " +
+                    "TotalBetAmount REAL, TotalCashOut REAL, ProfitLoss REAL, Brad INTEGER, Bank REAL, " +
+                    "SummaryDate TEXT, SummaryTime TEXT, Status TEXT, SessionId TEXT)");
+        }
+        return db;
+    }
+
+    private static void deleteDatabase(File db) {
+        for (String suffix : new String[]{"", "-wal", "-shm", ".journal"}) {
+            new File(db.getPath() + suffix).delete();
+        }
+    }
+
+    static Round syntheticRound(Random random, int bets, int index) {
+        List<Bet> list = new ArrayList<>(bets);
+        for (int i = 0; i < bets; i++) {
+            if (random.nextInt(40) == 0) {
+                list.add(Bet.freeBet("N/A"));
+                continue;
+            }
+            double amount = 10 + random.nextInt(200_000) / 100.0;
+            double multiplier = 1 + random.nextInt(500) / 100.0;
+            boolean won = random.nextBoolean();
+            list.add(new Bet(amount, won ? amount * multiplier : 0.0, "N/A", false));
+        }
+        return new Round(String.valueOf(1 + index / 100.0), random.nextInt(1_000_000) / 100.0, index, list);
+    }
+}
@@ -0,0 +1,181 @@
+package com.AviatorScraper;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Push-based round capture. A MutationObserver injected into the game iframe serializes each
+ * finished round and calls a Chrome DevTools Protocol runtime binding, so round data reaches
+ * Java within milliseconds of the DOM update with no audio cue and no tab clicking.
+ *
+ * <p>The binding is only visible in frames that share the page's renderer process. Launch
+ * Chrome with {@link #addLaunchArguments} so the game iframe is not split out by site
+ * isolation. If the binding is still missing, the observer queues rounds in the page and
+ * this class drains that queue on a short timer instead.
+ */
+public class PushRoundCapture {
+    public static final String BINDING_NAME = "__aviPushRound";
+
+    private final WebDriver driver;
+    private final Consumer<Round> sink;
+    private final Json json = new Json();
+    private final int debounceMillis = Integer.getInteger("capture.push.debounceMillis", 100);
+
+    private DevTools devTools;
+    private ScheduledExecutorService drainer;
+    private volatile long pushedCount;
+
+    public PushRoundCapture(WebDriver driver, Consumer<Round> sink) {
+        this.driver = driver;
+        this.sink = sink;
+    }
+
+    // Keep cross-site iframes in the page's process so the runtime binding reaches them
+    public static void addLaunchArguments(ChromeOptions options) {
+        options.addArguments("--disable-site-isolation-trials",
+                "--disable-features=IsolateOrigins,site-per-process");
+    }
+
+    public long getPushedCount() {
+        return pushedCount;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Register the binding, then inject the observer into the current frame
+    // (the caller must already have switched into the game iframe)
+    // ———————————————————————————————————————————————————————————————————————
+    public void install() {
+        if (devTools == null && driver instanceof HasDevTools) {
+            devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<Void>("Runtime.addBinding", Map.of("name", BINDING_NAME)));
+            devTools.addListener(
+                    new Event<Map<String, Object>>("Runtime.bindingCalled", input -> input.read(Json.MAP_TYPE)),
+                    this::onBindingCalled);
+        }
+
+        Object bindingVisible = ((JavascriptExecutor) driver).executeScript(
+                RoundCaptureScripts.OBSERVER_SCRIPT, BINDING_NAME, debounceMillis);
+
+        if (Boolean.TRUE.equals(bindingVisible)) {
+            System.out.println("Push capture installed (CDP binding " + BINDING_NAME + ").");
+            stopDrainer();
+        } else {
+            System.out.println("CDP binding not visible in game frame; draining the in-page round queue instead.");
+            startDrainer();
+        }
+    }
+
+    public void close() {
+        stopDrainer();
+        if (devTools != null) {
+            try {
+                devTools.clearListeners();
+                devTools.disconnectSession();
+            } catch (Exception e) {
+                System.out.println("Error closing DevTools session: " + e.getMessage());
+            }
+            devTools = null;
+        }
+    }
+
+    private void onBindingCalled(Map<String, Object> event) {
+        if (!BINDING_NAME.equals(event.get("name"))) {
+            return;
+        }
+        deliver(String.valueOf(event.get("payload")));
+    }
+
+    private void deliver(String payload) {
+        try {
+            Object parsed = json.toType(payload, Object.class);
+            Round round = RoundParser.fromScriptResult(parsed, System.currentTimeMillis());
+            pushedCount++;
+            sink.accept(round);
+        } catch (Exception e) {
+            System.out.println("Error handling pushed round: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Fallback when the binding cannot reach the frame
+    // ———————————————————————————————————————————————————————————————————————
+    private void startDrainer() {
+        if (drainer != null) {
+            return;
+        }
+        drainer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "push-capture-drain");
+            t.setDaemon(true);
+            return t;
+        });
+        drainer.scheduleWithFixedDelay(() -> {
+            try {
+                Object queued = ((JavascriptExecutor) driver).executeScript(RoundCaptureScripts.DRAIN_QUEUE_SCRIPT);
+                if (queued instanceof List) {
+                    for (Object payload : (List<?>) queued) {
+                        deliver(String.valueOf(payload));
+                    }
+                }
+            } catch (Exception e) {
+                System.out.println("Error draining pushed rounds: " + e.getMessage());
+            }
+        }, debounceMillis, debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopDrainer() {
+        if (drainer != null) {
+            drainer.shutdownNow();
+            drainer = null;
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Fixture check: java ... PushRoundCapture fixtures/push-capture.html [seconds]
+    // Loads the local fixture page and prints every round the observer pushes.
+    // ———————————————————————————————————————————————————————————————————————
+    public static void main(String[] args) throws InterruptedException {
+        String fixture = (args.length > 0) ? args[0] : "fixtures/push-capture.html";
+        long seconds = (args.length > 1) ? Long.parseLong(args[1]) : 15;
+
+        ChromeOptions options = new ChromeOptions();
+        String chromeBinary = System.getProperty("chrome.binary");
+        if (chromeBinary != null) {
+            options.setBinary(chromeBinary);
+        }
+        options.addArguments("--headless=new", "--allow-file-access-from-files");
+        addLaunchArguments(options);
+
+        ChromeDriver driver = new ChromeDriver(options);
+        try {
+            driver.get(new File(fixture).toURI().toString());
+            long start = System.nanoTime();
+            PushRoundCapture capture = new PushRoundCapture(driver, round -> System.out.printf(
+                    "+%.0f ms  round %sx  bets=%d  staked=%.2f  cashOut=%.2f  bank=%.2f%n",
+                    (System.nanoTime() - start) / 1e6, round.getRoundMultiplier(), round.getBets().size(),
+                    round.getTotalBetAmount(), round.getTotalCashOut(), round.getBank()));
+            capture.install();
+            Thread.sleep(seconds * 1000);
+            System.out.println("Rounds pushed: " + capture.getPushedCount());
+            capture.close();
+        } finally {
+            driver.quit();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.AviatorScraper;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Graded recovery for a browser task. When the task throws, the cheapest fix is tried first
+ * and the task is re-run after each one: re-resolve the elements (plain retry), re-enter the
+ * iframe chain, reload the game page, and only then restart the browser. Each level has its
+ * own attempt budget and exponential backoff, configurable per level:
+ * <pre>
+ *   -Drecovery.RE_RESOLVE.attempts=3        -Drecovery.RE_RESOLVE.backoffMillis=50
+ *   -Drecovery.REENTER_IFRAMES.attempts=2   -Drecovery.REENTER_IFRAMES.backoffMillis=200
+ *   -Drecovery.RELOAD_PAGE.attempts=1       -Drecovery.RELOAD_PAGE.backoffMillis=1000
+ *   -Drecovery.RESTART_BROWSER.attempts=1   -Drecovery.RESTART_BROWSER.backoffMillis=0
+ * </pre>
+ * A dead session (no ChromeDriver on the other end) goes straight to the restart level, and
+ * so does an incident that has spent {@code -Drecovery.maxMillis} (default 8000) in the
+ * in-session levels without recovering.
+ */
+public class RecoveryLadder {
+
+    public enum Level {
+        RE_RESOLVE(3, 50),
+        REENTER_IFRAMES(2, 200),
+        RELOAD_PAGE(1, 1000),
+        RESTART_BROWSER(1, 0);
+
+        final int defaultAttempts;
+        final long defaultBackoffMillis;
+
+        Level(int defaultAttempts, long defaultBackoffMillis) {
+            this.defaultAttempts = defaultAttempts;
+            this.defaultBackoffMillis = defaultBackoffMillis;
+        }
+    }
+
+    // What to do at a level before the task is retried
+    public interface RecoveryAction {
+        void recover(Exception cause) throws Exception;
+    }
+
+    private final Map<Level, RecoveryAction> actions = new EnumMap<>(Level.class);
+    private final int[] budgets = new int[Level.values().length];
+    private final long[] backoffs = new long[Level.values().length];
+    private final long maxInSessionNanos = Long.getLong("recovery.maxMillis", 8000) * 1_000_000L;
+
+    // Per-level metrics, indexed by ordinal
+    private final long[] attempts = new long[Level.values().length];
+    private final long[] successes = new long[Level.values().length];
+    private final long[] recoveryNanos = new long[Level.values().length];
+    private long incidents;
+    private long unrecovered;
+
+    public RecoveryLadder() {
+        for (Level level : Level.values()) {
+            budgets[level.ordinal()] = Integer.getInteger("recovery." + level + ".attempts", level.defaultAttempts);
+            backoffs[level.ordinal()] = Long.getLong("recovery." + level + ".backoffMillis", level.defaultBackoffMillis);
+        }
+    }
+
+    public RecoveryLadder on(Level level, RecoveryAction action) {
+        actions.put(level, action);
+        return this;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Run the task; on failure climb the ladder until a retry succeeds or every
+    // level's budget is spent, in which case the last failure is rethrown
+    // ———————————————————————————————————————————————————————————————————————
+    public <T> T run(String what, Callable<T> task) throws Exception {
+        try {
+            return task.call();
+        } catch (Exception first) {
+            synchronized (this) {
+                incidents++;
+            }
+            long t0 = System.nanoTime();
+            Exception last = first;
+            Level start = isSessionDead(first) ? Level.RESTART_BROWSER : Level.RE_RESOLVE;
+
+            for (Level level : Level.values()) {
+                if (level.ordinal() < start.ordinal()) {
+                    continue;
+                }
+                int i = level.ordinal();
+                for (int attempt = 0; attempt < budgets[i]; attempt++) {
+                    if (level != Level.RESTART_BROWSER && System.nanoTime() - t0 > maxInSessionNanos) {
+                        System.out.printf(Locale.ROOT, "Recovery of %s over %d ms, restarting the browser.%n",
+                                what, maxInSessionNanos / 1_000_000);
+                        start = Level.RESTART_BROWSER;
+                        break;
+                    }
+                    synchronized (this) {
+                        attempts[i]++;
+                    }
+                    long backoff = backoffs[i] << attempt;
+                    if (backoff > 0) {
+                        Thread.sleep(backoff);
+                    }
+                    try {
+                        RecoveryAction action = actions.get(level);
+                        if (action != null) {
+                            action.recover(last);
+                        }
+                        T result = task.call();
+                        long elapsed = System.nanoTime() - t0;
+                        synchronized (this) {
+                            successes[i]++;
+                            recoveryNanos[i] += elapsed;
+                        }
+                        System.out.printf(Locale.ROOT, "Recovered %s at %s (attempt %d) in %.0f ms after: %s%n",
+                                what, level, attempt + 1, elapsed / 1e6, first.getMessage());
+                        System.out.println("Recovery: " + describeCounters());
+                        return result;
+                    } catch (InterruptedException ie) {
+                        throw ie;
+                    } catch (Exception e) {
+                        last = e;
+                        if (isSessionDead(e) && level.ordinal() < Level.RESTART_BROWSER.ordinal()) {
+                            start = Level.RESTART_BROWSER; // skip the in-session levels still left
+                            break;
+                        }
+                    }
+                }
+            }
+            synchronized (this) {
+                unrecovered++;
+            }
+            System.out.println("Recovery exhausted for " + what + ": " + last.getMessage());
+            throw last;
+        }
+    }
+
+    // The browser or ChromeDriver is gone; retrying inside this session is pointless
+    public static boolean isSessionDead(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof NoSuchSessionException || t instanceof SessionNotCreatedException) {
+                return true;
+            }
+            String message = t.getMessage();
+            if (message != null && (message.contains("chrome not reachable")
+                    || message.contains("target window already closed")
+                    || message.contains("disconnected: not connected to DevTools"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized String describeCounters() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("incidents=").append(incidents).append(" unrecovered=").append(unrecovered);
+        for (Level level : Level.values()) {
+            int i = level.ordinal();
+            sb.append(' ').append(level).append('=').append(successes[i]).append('/').append(attempts[i]);
+            if (successes[i] > 0) {
+                sb.append(String.format(Locale.ROOT, "(%.0fms)", recoveryNanos[i] / 1e6 / successes[i]));
+            }
+        }
+        return sb.toString();
+    }
+}
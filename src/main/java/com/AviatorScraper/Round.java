@@ -0,0 +1,135 @@
+package com.AviatorScraper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything captured for one finished round: the round multiplier (the numeric text shown
+ * without the trailing "x"), the bank balance at capture time and every bet row. Totals are
+ * computed once here, so dedupe, the Round and Bet rows all read the same numbers.
+ *
+ * <p>Where the source knows how many rows the list holds (the virtual-scroll harvest reads
+ * it from the scroll spacer), {@link #getExpectedRowCount()} carries it, so coverage can be
+ * recorded per round. It is -1 when unknown.
+ */
+public final class Round {
+    private final String roundMultiplier;
+    private final double bank;
+    private final long capturedAt; // epoch millis
+    private final List<Bet> bets;
+    private final int expectedRowCount;
+
+    // Over paid bets only; FREE BET rows carry no stake
+    private final double totalBetAmount;
+    private final double totalCashOut;
+    private final int paidBetCount;
+    private final long fingerprint;
+
+    public Round(String roundMultiplier, double bank, long capturedAt, List<Bet> bets) {
+        this(roundMultiplier, bank, capturedAt, bets, -1);
+    }
+
+    public Round(String roundMultiplier, double bank, long capturedAt, List<Bet> bets, int expectedRowCount) {
+        this.roundMultiplier = roundMultiplier;
+        this.bank = bank;
+        this.capturedAt = capturedAt;
+        this.bets = Collections.unmodifiableList(new ArrayList<>(bets));
+        this.expectedRowCount = expectedRowCount;
+
+        double stake = 0.0, cashOut = 0.0;
+        int paid = 0;
+        long betHashSum = 0L;
+        for (Bet bet : bets) {
+            if (bet.isFreeBet()) {
+                continue;
+            }
+            stake += bet.getAmount();
+            cashOut += bet.getCashOut();
+            paid++;
+            betHashSum += betHash(bet.getAmount(), bet.getCashOut());
+        }
+        this.totalBetAmount = stake;
+        this.totalCashOut = cashOut;
+        this.paidBetCount = paid;
+        this.fingerprint = mix64(betHashSum
+                + mix64(roundMultiplier == null ? 0L : roundMultiplier.hashCode())
+                + paid * 0x9E3779B97F4A7C15L);
+    }
+
+    public String getRoundMultiplier() {
+        return roundMultiplier;
+    }
+
+    public double getBank() {
+        return bank;
+    }
+
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    public List<Bet> getBets() {
+        return bets;
+    }
+
+    public int getExpectedRowCount() {
+        return expectedRowCount;
+    }
+
+    // Rows captured over rows the list holds; 1.0 when the expected count is unknown
+    public double getCoverage() {
+        if (expectedRowCount <= 0) {
+            return 1.0;
+        }
+        return Math.min(1.0, bets.size() / (double) expectedRowCount);
+    }
+
+    public boolean isComplete() {
+        return expectedRowCount < 0 || bets.size() >= expectedRowCount;
+    }
+
+    public double getTotalBetAmount() {
+        return totalBetAmount;
+    }
+
+    public double getTotalCashOut() {
+        return totalCashOut;
+    }
+
+    public double getProfitLoss() {
+        return totalBetAmount - totalCashOut;
+    }
+
+    public int getPaidBetCount() {
+        return paidBetCount;
+    }
+
+    public int getFreeBetCount() {
+        return bets.size() - paidBetCount;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // 64-bit content hash of the round: round multiplier plus the multiset of
+    // (amount, cashOut) over paid bets. Per-bet hashes are summed, so row order
+    // does not matter but two identical bets count twice. Compared against
+    // recent rounds to skip replays (see RoundFingerprintWindow).
+    // ———————————————————————————————————————————————————————————————————————
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    // + 0.0 folds -0.0 into 0.0 so both hash alike
+    private static long betHash(double amount, double cashOut) {
+        long a = Double.doubleToLongBits(amount + 0.0);
+        long c = Double.doubleToLongBits(cashOut + 0.0);
+        return mix64(a ^ Long.rotateLeft(mix64(c), 29));
+    }
+
+    // SplitMix64 finalizer
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,187 @@
+package com.AviatorScraper;
+
+/**
+ * JavaScript run inside the turbo-games iframe. {@link #COLLECT_ROUND_FUNCTION} reads the
+ * finished round into the compact array {@link RoundParser#fromScriptResult} expects:
+ * {@code [roundMultiplierText, bankText, [amount, cashOut, multiplier, freeBet, ...]]}.
+ * The one-shot extraction and the push observer both use it, and {@link #HARVEST_ROUND_SCRIPT}
+ * reads rows with the same {@link #READ_ROW_FUNCTION}, so they always agree on what a round
+ * looks like.
+ */
+public final class RoundCaptureScripts {
+
+    private RoundCaptureScripts() {
+    }
+
+    // Slots of the array the scripts return; the harvest script fills the last three too
+    public static final int RESULT_ROUND_MULTIPLIER = 0;
+    public static final int RESULT_BANK = 1;
+    public static final int RESULT_ROWS = 2;
+    public static final int RESULT_EXPECTED_ROWS = 3;
+    public static final int RESULT_ELAPSED_MILLIS = 4;
+    public static final int RESULT_SCROLL_STEPS = 5;
+
+    // One <app-bets-list-item> as [amount, cashOut, multiplier, freeBet]
+    public static final String READ_ROW_FUNCTION = """
+            function (row) {
+              var a = row.querySelector('app-bet-amount > div');
+              var w = row.querySelector('.bet-list-item-column.win');
+              var m = row.querySelector('.bet-list-item-column.multiplier, app-bubble-multiplier');
+              var amount = a ? a.innerText.trim() : '';
+              return [amount, w ? w.innerText.trim() : '0', m ? m.innerText.trim() : '',
+                      /^free\\s*bet$/i.test(amount) ? 1 : 0];
+            }""";
+
+    public static final String COLLECT_ROUND_FUNCTION = """
+            function () {
+              var readRow = %s;
+              var rm = document.querySelector('app-previous-round-result .result-multiplier');
+              var wrapper = document.querySelector('.cdk-virtual-scroll-content-wrapper');
+              var rows = wrapper ? wrapper.querySelectorAll('app-bets-list-item') : [];
+              var flat = [];
+              for (var i = 0; i < rows.length; i++) {
+                flat.push.apply(flat, readRow(rows[i]));
+              }
+              var bank = document.querySelector('span.balance-amount');
+              return [rm ? rm.innerText.trim() : null, bank ? bank.innerText.trim() : null, flat];
+            }""".formatted(READ_ROW_FUNCTION);
+
+    // One executeScript round trip for the whole bet list
+    public static final String BET_LIST_SCRIPT = "return (" + COLLECT_ROUND_FUNCTION + ")();";
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Scroll-and-harvest for executeAsyncScript. The bet list is a CDK virtual
+    // scroll, so only the rows near the viewport exist in the DOM at any time.
+    // This walks the viewport from the top a page at a time, keys every
+    // rendered row by its position in the full list (so recycled row elements
+    // are not counted twice) and stops once every row has been seen, the end
+    // of the list is reached, or the time budget runs out. The scroll
+    // position is restored afterwards.
+    //   arguments[0] = time budget in ms, arguments[1] = delay per step in ms
+    // Returns [rm, bank, flat, expectedRows, elapsedMs, steps]; expectedRows
+    // is -1 when the list is not virtualized.
+    // ———————————————————————————————————————————————————————————————————————
+    public static final String HARVEST_ROUND_SCRIPT = """
+            var budgetMs = arguments[0], stepDelayMs = arguments[1];
+            var done = arguments[arguments.length - 1];
+            var readRow = %s;
+            var started = Date.now();
+            var rm = document.querySelector('app-previous-round-result .result-multiplier');
+            var bank = document.querySelector('span.balance-amount');
+            var wrapper = document.querySelector('.cdk-virtual-scroll-content-wrapper');
+            var viewport = wrapper ? wrapper.closest('cdk-virtual-scroll-viewport') : null;
+            var byIndex = {}, captured = 0, steps = 0, rowHeight = 0, expected = -1;
+
+            function finish() {
+              var keys = Object.keys(byIndex).map(Number).sort(function (a, b) { return a - b; });
+              var flat = [];
+              for (var i = 0; i < keys.length; i++) { flat.push.apply(flat, byIndex[keys[i]]); }
+              done([rm ? rm.innerText.trim() : null, bank ? bank.innerText.trim() : null, flat,
+                    expected, Date.now() - started, steps]);
+            }
+
+            if (!viewport) {
+              var rows = wrapper ? wrapper.querySelectorAll('app-bets-list-item') : [];
+              for (var i = 0; i < rows.length; i++) { byIndex[i] = readRow(rows[i]); }
+              finish();
+              return;
+            }
+
+            function harvest() {
+              var contentTop = viewport.getBoundingClientRect().top - viewport.scrollTop;
+              var rows = wrapper.querySelectorAll('app-bets-list-item');
+              for (var i = 0; i < rows.length; i++) {
+                var rect = rows[i].getBoundingClientRect();
+                if (!rowHeight && rect.height > 0) { rowHeight = rect.height; }
+                if (!rowHeight) { continue; }
+                var index = Math.round((rect.top - contentTop) / rowHeight);
+                if (!(index in byIndex)) { byIndex[index] = readRow(rows[i]); captured++; }
+              }
+              if (expected < 0) {
+                var spacer = viewport.querySelector('.cdk-virtual-scroll-spacer');
+                var total = spacer ? spacer.getBoundingClientRect().height : viewport.scrollHeight;
+                if (rowHeight) { expected = Math.round(total / rowHeight); }
+                else if (spacer && total === 0) { expected = 0; } // empty list
+              }
+            }
+
+            var originalTop = viewport.scrollTop;
+            function step() {
+              harvest();
+              steps++;
+              var bottom = viewport.scrollTop + viewport.clientHeight;
+              var lastVisible = Math.min(expected - 1, Math.floor((bottom - 1) / (rowHeight || 1)));
+              var rendered = rowHeight > 0 && (lastVisible in byIndex);
+              var atEnd = rendered && bottom >= viewport.scrollHeight - 1;
+              if ((expected >= 0 && captured >= expected) || atEnd || Date.now() - started >= budgetMs) {
+                viewport.scrollTop = originalTop;
+                finish();
+                return;
+              }
+              // Wait for CDK to render this page; then advance with one row of overlap
+              if (rendered) {
+                viewport.scrollTop += Math.max(rowHeight, viewport.clientHeight - rowHeight);
+              }
+              setTimeout(step, stepDelayMs);
+            }
+            viewport.scrollTop = 0;
+            setTimeout(step, stepDelayMs);
+            """.formatted(READ_ROW_FUNCTION);
+
+    // ———————————————————————————————————————————————————————————————————————
+    // MutationObserver for push capture. arguments[0] = binding name,
+    // arguments[1] = debounce in ms. Once the previous-round result or the bet
+    // list has been quiet for the debounce, the round is serialized and pushed
+    // through the CDP binding, or queued in window.__aviRoundQueue if the
+    // binding is not visible in this frame. Returns true when the binding is
+    // available.
+    // ———————————————————————————————————————————————————————————————————————
+    public static final String OBSERVER_SCRIPT = """
+            var binding = arguments[0], debounceMs = arguments[1];
+            var collect = %s;
+            var watched = 'app-previous-round-result, .cdk-virtual-scroll-content-wrapper';
+            if (window.__aviObserver) { window.__aviObserver.disconnect(); }
+            window.__aviRoundQueue = window.__aviRoundQueue || [];
+            var timer = null, lastKey = null;
+
+            function publish() {
+              timer = null;
+              var round = collect();
+              if (!round[0] || round[2].length === 0) { return; }
+              var key = round[0] + '|' + round[2].join('|');
+              if (key === lastKey) { return; }
+              lastKey = key;
+              var json = JSON.stringify(round);
+              if (typeof window[binding] === 'function') { window[binding](json); }
+              else { window.__aviRoundQueue.push(json); }
+            }
+
+            function touches(node) {
+              if (node && node.nodeType !== 1) { node = node.parentElement; }
+              return !!node && (node.matches(watched) || !!node.closest(watched) || !!node.querySelector(watched));
+            }
+
+            var observer = new MutationObserver(function (mutations) {
+              for (var i = 0; i < mutations.length; i++) {
+                var m = mutations[i], hit = touches(m.target);
+                for (var j = 0; !hit && j < m.addedNodes.length; j++) { hit = touches(m.addedNodes[j]); }
+                if (hit) {
+                  if (timer) { clearTimeout(timer); }
+                  timer = setTimeout(publish, debounceMs);
+                  return;
+                }
+              }
+            });
+            observer.observe(document.body, { childList: true, subtree: true, characterData: true });
+            window.__aviObserver = observer;
+            publish();
+            return typeof window[binding] === 'function';
+            """.formatted(COLLECT_ROUND_FUNCTION);
+
+    // Hands back (and clears) rounds queued while no binding was reachable
+    public static final String DRAIN_QUEUE_SCRIPT = """
+            var q = window.__aviRoundQueue || [];
+            window.__aviRoundQueue = [];
+            return q;
+            """;
+}
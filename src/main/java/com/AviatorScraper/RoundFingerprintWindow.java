@@ -0,0 +1,62 @@
+package com.AviatorScraper;
+
+/**
+ * The last few round fingerprints seen by one session (see {@link Round#getFingerprint()}).
+ * A scrape whose fingerprint is already in the window is a replay, whether it repeats the
+ * previous round or one several rounds back, and is dropped before anything is written.
+ *
+ * <p>A fixed ring of {@code long}s: a lookup scans at most {@code capacity} slots and adds
+ * nothing to the heap. Not thread-safe; {@code recordRound} already serializes callers.
+ */
+public class RoundFingerprintWindow {
+    private final long[] ring;
+    private int size;
+    private int next;
+
+    private long accepted;
+    private long rejected;
+
+    public RoundFingerprintWindow(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Fingerprint window needs at least one slot: " + capacity);
+        }
+        this.ring = new long[capacity];
+    }
+
+    // Window size from -Ddedupe.window (default 16 rounds)
+    public static RoundFingerprintWindow fromSystemProperties() {
+        return new RoundFingerprintWindow(Integer.getInteger("dedupe.window", 16));
+    }
+
+    public boolean contains(long fingerprint) {
+        for (int i = 0; i < size; i++) {
+            if (ring[i] == fingerprint) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Records the fingerprint and returns true, or returns false if it is a replay
+    public boolean addIfAbsent(long fingerprint) {
+        if (contains(fingerprint)) {
+            rejected++;
+            return false;
+        }
+        ring[next] = fingerprint;
+        next = (next + 1) % ring.length;
+        if (size < ring.length) {
+            size++;
+        }
+        accepted++;
+        return true;
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    public String describeCounters() {
+        return "accepted=" + accepted + " replays=" + rejected + " window=" + ring.length;
+    }
+}
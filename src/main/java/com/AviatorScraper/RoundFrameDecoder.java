@@ -0,0 +1,9 @@
+package com.AviatorScraper;
+
+/**
+ * Turns one WebSocket frame from the game client into a {@link Round}, or returns null for
+ * frames that are not round results (heartbeats, bet updates, chat, ...).
+ */
+public interface RoundFrameDecoder {
+    Round decode(String payload, long receivedAt);
+}
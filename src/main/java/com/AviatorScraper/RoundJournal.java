@@ -0,0 +1,437 @@
+package com.AviatorScraper;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary log of every captured round, written through a memory-mapped file.
+ * {@link BetDataStore} appends each round here before it queues the SQLite write. That
+ * way a round is on disk (in the page cache, which survives a JVM crash) before SQLite
+ * has seen it, and the Round/Bet tables can always be rebuilt from the journal.
+ *
+ * <pre>
+ *   file   := header record*
+ *   header := magic "AVJ1" (int) | format version (int) | 8 reserved bytes
+ *   record := payload length (int) | CRC32C of payload (int) | payload
+ * </pre>
+ *
+ * The payload holds the journal sequence, capture time, session id, round fields, Brad,
+ * input tensor, status and every bet. Records are written payload first and length last,
+ * so a record is only readable once it is complete. Reading stops at the first zero
+ * length, a record that runs past the end of the file, or a checksum mismatch. On open,
+ * anything after the last valid record is zeroed and overwritten.
+ *
+ * <p>The file is mapped in chunks of {@code -Djournal.chunkMB} (default 16), so it is
+ * always up to one chunk longer than its records. Mapped writes survive a process crash
+ * but not a power cut. {@code -Djournal.forceEvery=N} forces the mapping to disk every N
+ * appends (0, the default, leaves that to the OS).
+ */
+public final class RoundJournal implements AutoCloseable {
+    static final int MAGIC = 0x41564A31; // "AVJ1"
+    static final int FORMAT_VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 << 20;
+
+    // ———————————————————————————————————————————————————————————————————————
+    // One decoded record: the arguments BetDataStore.recordRound was given
+    // ———————————————————————————————————————————————————————————————————————
+    public static final class Entry {
+        private final long sequence;
+        private final String sessionId;
+        private final Round round;
+        private final int brad;
+        private final String inputTensor;
+        private final String status;
+
+        Entry(long sequence, String sessionId, Round round, int brad, String inputTensor, String status) {
+            this.sequence = sequence;
+            this.sessionId = sessionId;
+            this.round = round;
+            this.brad = brad;
+            this.inputTensor = inputTensor;
+            this.status = status;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public Round getRound() {
+            return round;
+        }
+
+        public int getBrad() {
+            return brad;
+        }
+
+        public String getInputTensor() {
+            return inputTensor;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+    }
+
+    // Result of walking a journal file
+    public static final class Scan {
+        final long validBytes;   // offset just past the last valid record
+        final long fileBytes;
+        final long firstSequence;
+        final long lastSequence;
+        final int records;
+
+        Scan(long validBytes, long fileBytes, long firstSequence, long lastSequence, int records) {
+            this.validBytes = validBytes;
+            this.fileBytes = fileBytes;
+            this.firstSequence = firstSequence;
+            this.lastSequence = lastSequence;
+            this.records = records;
+        }
+
+        public long getLastSequence() {
+            return lastSequence;
+        }
+
+        public int getRecords() {
+            return records;
+        }
+
+        @Override
+        public String toString() {
+            return records + " record(s)"
+                    + (records > 0 ? ", sequences " + firstSequence + ".." + lastSequence : "")
+                    + ", " + validBytes + " valid byte(s)";
+        }
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int chunkBytes;
+    private final int forceEvery;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long lastSequence;
+    private ByteBuffer scratch = ByteBuffer.allocate(8192);
+    private final CRC32C crc = new CRC32C();
+    private int sinceForce;
+    private boolean closed;
+
+    // Counters
+    private long appends;
+    private long appendedBytes;
+    private long appendNanos;
+    private long maxAppendNanos;
+
+    private RoundJournal(Path path, FileChannel channel, long position, long lastSequence) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.chunkBytes = Integer.getInteger("journal.chunkMB", 16) << 20;
+        this.forceEvery = Integer.getInteger("journal.forceEvery", 0);
+        this.lastSequence = lastSequence;
+        this.regionStart = position;
+        this.region = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(chunkBytes, channel.size() - position));
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Open (or create) a journal for appending. Sequences continue after the
+    // larger of the journal's last record and projectedThrough (the last
+    // sequence already in the database). A journal whose records are all
+    // projected and which has grown past rollBytes is first renamed to
+    // <path>.<last sequence> and a fresh one started.
+    // ———————————————————————————————————————————————————————————————————————
+    public static RoundJournal open(Path path, long projectedThrough, long rollBytes) throws IOException {
+        Scan scan = null;
+        if (Files.exists(path) && Files.size(path) > 0) {
+            try (FileChannel reader = FileChannel.open(path, StandardOpenOption.READ)) {
+                scan = scan(reader, path, Long.MAX_VALUE, null);
+            }
+            if (scan.lastSequence <= projectedThrough && scan.validBytes > rollBytes) {
+                Path rolled = Paths.get(path + "." + scan.lastSequence);
+                Files.move(path, rolled, StandardCopyOption.ATOMIC_MOVE);
+                System.out.println("Round journal rolled to " + rolled + " (" + scan + ").");
+                scan = null;
+            }
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long position;
+            long last = projectedThrough;
+            if (scan == null) {
+                ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+                header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+                writeFully(channel, header, 0);
+                position = FILE_HEADER_BYTES;
+            } else {
+                position = scan.validBytes;
+                last = Math.max(last, scan.lastSequence);
+            }
+            RoundJournal journal = new RoundJournal(path, channel, position, last);
+            if (scan != null && scan.validBytes < scan.fileBytes) {
+                journal.zeroTail(scan.fileBytes - scan.validBytes);
+            }
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Stale bytes after the last valid record could otherwise be read as the tail of a new one
+    private void zeroTail(long bytes) {
+        int n = (int) Math.min(bytes, region.capacity());
+        for (int i = 0; i < n; i++) {
+            region.put(i, (byte) 0);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Append one round; returns its journal sequence
+    // ———————————————————————————————————————————————————————————————————————
+    public synchronized long append(String sessionId, Round round, int brad, String inputTensor, String status)
+            throws IOException {
+        if (closed) {
+            throw new IOException("Round journal is closed");
+        }
+        long t0 = System.nanoTime();
+        long sequence = lastSequence + 1;
+        ByteBuffer payload = encode(sequence, sessionId, round, brad, inputTensor, status);
+        int length = payload.remaining();
+        crc.reset();
+        crc.update(payload.duplicate());
+        int checksum = (int) crc.getValue();
+
+        if (region.remaining() < RECORD_HEADER_BYTES + length) {
+            remap(RECORD_HEADER_BYTES + length);
+        }
+        int start = region.position();
+        region.position(start + RECORD_HEADER_BYTES);
+        region.put(payload);
+        region.putInt(start + 4, checksum);
+        region.putInt(start, length); // last: the record becomes visible only once complete
+
+        if (forceEvery > 0 && ++sinceForce >= forceEvery) {
+            region.force();
+            sinceForce = 0;
+        }
+        lastSequence = sequence;
+
+        long took = System.nanoTime() - t0;
+        appends++;
+        appendedBytes += RECORD_HEADER_BYTES + length;
+        appendNanos += took;
+        if (took > maxAppendNanos) {
+            maxAppendNanos = took;
+        }
+        return sequence;
+    }
+
+    private void remap(int needed) throws IOException {
+        long at = regionStart + region.position();
+        if (forceEvery > 0) {
+            region.force();
+        }
+        region = channel.map(FileChannel.MapMode.READ_WRITE, at, Math.max(chunkBytes, needed));
+        regionStart = at;
+    }
+
+    private ByteBuffer encode(long sequence, String sessionId, Round round, int brad, String inputTensor,
+                              String status) {
+        while (true) {
+            scratch.clear();
+            try {
+                scratch.putLong(sequence);
+                scratch.putLong(round.getCapturedAt());
+                scratch.putInt(brad);
+                scratch.putInt(round.getExpectedRowCount());
+                scratch.putDouble(round.getBank());
+                putString(scratch, sessionId);
+                putString(scratch, round.getRoundMultiplier());
+                putString(scratch, inputTensor);
+                putString(scratch, status);
+                scratch.putInt(round.getBets().size());
+                for (Bet bet : round.getBets()) {
+                    scratch.putDouble(bet.getAmount());
+                    scratch.putDouble(bet.getCashOut());
+                    scratch.put((byte) (bet.isFreeBet() ? 1 : 0));
+                    putString(scratch, bet.getMultiplier());
+                }
+                return scratch.flip();
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    // Length-prefixed UTF-8; length -1 for null
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Entry decode(ByteBuffer payload) {
+        long sequence = payload.getLong();
+        long capturedAt = payload.getLong();
+        int brad = payload.getInt();
+        int expectedRows = payload.getInt();
+        double bank = payload.getDouble();
+        String sessionId = getString(payload);
+        String roundMultiplier = getString(payload);
+        String inputTensor = getString(payload);
+        String status = getString(payload);
+        int count = payload.getInt();
+        List<Bet> bets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double amount = payload.getDouble();
+            double cashOut = payload.getDouble();
+            boolean freeBet = payload.get() != 0;
+            bets.add(new Bet(amount, cashOut, getString(payload), freeBet));
+        }
+        return new Entry(sequence, sessionId, new Round(roundMultiplier, bank, capturedAt, bets, expectedRows),
+                brad, inputTensor, status);
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Read a journal file, handing every record after afterSequence to sink
+    // ———————————————————————————————————————————————————————————————————————
+    public static Scan read(Path path, long afterSequence, Consumer<Entry> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return scan(channel, path, afterSequence, sink);
+        }
+    }
+
+    private static Scan scan(FileChannel channel, Path path, long afterSequence, Consumer<Entry> sink)
+            throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        if (size < FILE_HEADER_BYTES || readFully(channel, header, 0) < FILE_HEADER_BYTES
+                || header.flip().getInt() != MAGIC) {
+            throw new IOException(path + " is not a round journal");
+        }
+        int version = header.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException(path + " has journal format " + version + ", expected " + FORMAT_VERSION);
+        }
+
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        ByteBuffer payload = ByteBuffer.allocate(8192);
+        CRC32C crc = new CRC32C();
+        long offset = FILE_HEADER_BYTES;
+        long first = 0, last = 0;
+        int records = 0;
+        while (offset + RECORD_HEADER_BYTES <= size) {
+            recordHeader.clear();
+            readFully(channel, recordHeader, offset);
+            int length = recordHeader.getInt(0);
+            int checksum = recordHeader.getInt(4);
+            if (length <= 0 || length > MAX_RECORD_BYTES || offset + RECORD_HEADER_BYTES + length > size) {
+                break;
+            }
+            if (payload.capacity() < length) {
+                payload = ByteBuffer.allocate(Math.max(length, payload.capacity() * 2));
+            }
+            payload.clear().limit(length);
+            readFully(channel, payload, offset + RECORD_HEADER_BYTES);
+            payload.flip();
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            long sequence = payload.getLong(0);
+            if (sink != null && sequence > afterSequence) {
+                sink.accept(decode(payload));
+            }
+            if (records == 0) {
+                first = sequence;
+            }
+            last = sequence;
+            records++;
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        return new Scan(offset, size, first, last, records);
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long at = position;
+        while (buffer.hasRemaining()) {
+            at += channel.write(buffer, at);
+        }
+    }
+
+    public synchronized String describeCounters() {
+        return String.format(Locale.ROOT, "appends=%d (%.1f KB), append avg=%.1f us max=%.1f us, last sequence=%d",
+                appends, appendedBytes / 1024.0, (appends > 0) ? appendNanos / 1_000.0 / appends : 0.0,
+                maxAppendNanos / 1_000.0, lastSequence);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            region.force();
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing round journal " + path + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.AviatorScraper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns the raw text pulled from the page into a {@link Round}. Both extraction paths (the
+ * single executeScript call and the per-element WebDriver walk) collect plain strings and
+ * hand them here, so parsing lives in one place and can be benchmarked without a browser.
+ *
+ * <p>Rows are a flat list of 4-tuples: amount text, cash-out text, multiplier text, free-bet
+ * flag (a Number or Boolean).
+ */
+public final class RoundParser {
+    public static final int FIELDS_PER_ROW = 4;
+
+    private RoundParser() {
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Compact array returned by the bet list script:
+    //   [ roundMultiplierText, bankText, [amount, cashOut, multiplier, freeBet, ...] ]
+    // The harvest script adds [..., expectedRows, elapsedMs, steps]
+    // ———————————————————————————————————————————————————————————————————————
+    public static Round fromScriptResult(Object result, long capturedAt) {
+        if (!(result instanceof List)) {
+            throw new IllegalArgumentException("Unexpected bet list script result: " + result);
+        }
+        List<?> parts = (List<?>) result;
+        Object roundText = parts.get(RoundCaptureScripts.RESULT_ROUND_MULTIPLIER);
+        if (roundText == null) {
+            throw new IllegalStateException("Round multiplier not present on page");
+        }
+        Object bankText = parts.get(RoundCaptureScripts.RESULT_BANK);
+        // The harvest script appends the row count of the whole virtual list
+        int expectedRows = (parts.size() > RoundCaptureScripts.RESULT_EXPECTED_ROWS
+                && parts.get(RoundCaptureScripts.RESULT_EXPECTED_ROWS) instanceof Number)
+                ? ((Number) parts.get(RoundCaptureScripts.RESULT_EXPECTED_ROWS)).intValue()
+                : -1;
+        return parse(roundText.toString(), bankText == null ? null : bankText.toString(),
+                (List<?>) parts.get(RoundCaptureScripts.RESULT_ROWS), capturedAt, expectedRows);
+    }
+
+    public static Round parse(String roundText, String bankText, List<?> flatRows, long capturedAt) {
+        return parse(roundText, bankText, flatRows, capturedAt, -1);
+    }
+
+    public static Round parse(String roundText, String bankText, List<?> flatRows, long capturedAt,
+                              int expectedRows) {
+        List<Bet> bets = new ArrayList<>(flatRows.size() / FIELDS_PER_ROW);
+        for (int i = 0; i + FIELDS_PER_ROW - 1 < flatRows.size(); i += FIELDS_PER_ROW) {
+            String multiplier = stripX(String.valueOf(flatRows.get(i + 2)));
+            if (multiplier.isEmpty() || multiplier.equals("null")) {
+                multiplier = "N/A";
+            }
+            if (isFlagSet(flatRows.get(i + 3))) {
+                bets.add(Bet.freeBet(multiplier));
+                continue;
+            }
+            double amount = parseAmount(String.valueOf(flatRows.get(i)));
+            double cashOut = parseAmount(String.valueOf(flatRows.get(i + 1)));
+            bets.add(new Bet(amount, cashOut, multiplier, false));
+        }
+        return new Round(stripX(roundText), parseBank(bankText), capturedAt, bets, expectedRows);
+    }
+
+    private static boolean isFlagSet(Object flag) {
+        if (flag instanceof Boolean) {
+            return (Boolean) flag;
+        }
+        if (flag instanceof Number) {
+            return ((Number) flag).intValue() != 0;
+        }
+        return flag != null && Boolean.parseBoolean(flag.toString());
+    }
+
+    // Missing or unreadable bank is stored as 0.0, as it always has been
+    private static double parseBank(String bankText) {
+        if (bankText == null || bankText.isBlank()) {
+            System.out.println("Failed to extract Bank value: not present on page");
+            return 0.0;
+        }
+        try {
+            return parseAmount(bankText);
+        } catch (NumberFormatException e) {
+            System.out.println("Failed to extract Bank value: " + e.getMessage());
+            return 0.0;
+        }
+    }
+
+    public static double parseAmount(String text) {
+        return Double.parseDouble(text.trim().replace(",", ""));
+    }
+
+    // Multiplier text ("1.10", "2,048.00x") as a number; null for "N/A", blank or unreadable
+    public static Double parseMultiplier(String text) {
+        if (text == null) {
+            return null;
+        }
+        String t = stripX(text).replace(",", "");
+        if (t.isEmpty() || t.equalsIgnoreCase("N/A")) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(t);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // "1.10x" -> "1.10"
+    public static String stripX(String text) {
+        String t = text.trim();
+        return t.endsWith("x") ? t.substring(0, t.length() - 1) : t;
+    }
+}
@@ -0,0 +1,67 @@
+package com.AviatorScraper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Times the parse stage on its own: synthetic bet lists shaped like the bet list script
+ * output go through {@link RoundParser#fromScriptResult} with no browser involved.
+ *
+ * <pre>
+ *   RoundParserBenchmark [betsPerRound=150] [rounds=20000]
+ * </pre>
+ */
+public class RoundParserBenchmark {
+
+    public static void main(String[] args) {
+        int betsPerRound = (args.length > 0) ? Integer.parseInt(args[0]) : 150;
+        int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 20_000;
+
+        // A fixed pool of distinct rounds so the JIT cannot fold the work away
+        Random random = new Random(7);
+        List<Object> samples = new ArrayList<>();
+        for (int r = 0; r < 64; r++) {
+            samples.add(syntheticScriptResult(random, betsPerRound));
+        }
+
+        // Warm-up, then the timed pass
+        double checksum = run(samples, rounds / 4);
+        long t0 = System.nanoTime();
+        checksum += run(samples, rounds);
+        double seconds = (System.nanoTime() - t0) / 1e9;
+
+        System.out.printf("Parsed %d rounds x %d bets in %.3f s: %.1f us/round, %.2f M bets/s (checksum %.0f)%n",
+                rounds, betsPerRound, seconds, seconds / rounds * 1e6,
+                (double) rounds * betsPerRound / seconds / 1e6, checksum);
+    }
+
+    private static double run(List<Object> samples, int rounds) {
+        double sum = 0;
+        for (int i = 0; i < rounds; i++) {
+            Round round = RoundParser.fromScriptResult(samples.get(i % samples.size()), i);
+            sum += round.getProfitLoss();
+        }
+        return sum;
+    }
+
+    private static Object syntheticScriptResult(Random random, int bets) {
+        List<Object> flat = new ArrayList<>(bets * RoundParser.FIELDS_PER_ROW);
+        for (int i = 0; i < bets; i++) {
+            boolean free = random.nextInt(40) == 0;
+            double amount = 10 + random.nextInt(200_000) / 100.0;
+            double multiplier = 1 + random.nextInt(500) / 100.0;
+            boolean won = random.nextBoolean();
+            flat.add(free ? "FREE BET" : String.format(Locale.ROOT, "%,.2f", amount));
+            flat.add(won ? String.format(Locale.ROOT, "%,.2f", amount * multiplier) : "0.00");
+            flat.add(won ? String.format(Locale.ROOT, "%.2fx", multiplier) : "");
+            flat.add(free ? 1L : 0L);
+        }
+        List<Object> result = new ArrayList<>();
+        result.add(String.format(Locale.ROOT, "%.2fx", 1 + random.nextInt(1000) / 100.0));
+        result.add(String.format(Locale.ROOT, "%,.2f", random.nextInt(1_000_000) / 100.0));
+        result.add(flat);
+        return result;
+    }
+}
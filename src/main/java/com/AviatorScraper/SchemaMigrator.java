@@ -0,0 +1,470 @@
+package com.AviatorScraper;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Versioned schema for {@code betdata.db}, tracked in {@code PRAGMA user_version}.
+ *
+ * <ul>
+ *   <li><b>0</b>: the original text-typed {@code BetData} / {@code SummaryData} tables.
+ *       Bets are not linked to their round, multipliers are TEXT, and date and time are
+ *       separate strings.</li>
+ *   <li><b>1</b>: {@code Round} (numeric multipliers, epoch-millis {@code CapturedAt},
+ *       {@code InputTensor} / {@code TargetMultiplier} for the tensor aggregation) and
+ *       {@code Bet} rows linked to it by foreign key. There are covering indexes for the
+ *       tensor-group and date queries. {@code BetData} and {@code SummaryData} remain as
+ *       read-only views with their old column names and formats.</li>
+ *   <li><b>2</b>: {@code Round.JournalSeq}, the {@link RoundJournal} sequence a round was
+ *       projected from (unique, NULL for rounds that never went through the journal).</li>
+ *   <li><b>3</b>: {@code JournalState}, one row holding the newest journal sequence ever
+ *       projected. Partitioning moves Round rows out of the file but never touches it.</li>
+ * </ul>
+ *
+ * <p>Each step runs in one {@code BEGIN IMMEDIATE} transaction together with its
+ * {@code user_version} bump, so a failed step leaves the file untouched. WAL readers keep
+ * reading while it runs. Before a version-0 file with data is upgraded, it is copied with
+ * {@code VACUUM INTO} to {@code <db>.v0.bak} (disable with {@code -Dschema.backup=false}).
+ */
+public final class SchemaMigrator {
+    public static final int CURRENT_VERSION = 3;
+
+    private SchemaMigrator() {
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Bring the database up to CURRENT_VERSION; returns the version found
+    // ———————————————————————————————————————————————————————————————————————
+    public static int migrate(Connection connection, String databasePath) throws SQLException {
+        int found = userVersion(connection);
+        if (found > CURRENT_VERSION) {
+            throw new SQLException("betdata.db schema version " + found + " is newer than this build ("
+                    + CURRENT_VERSION + ")");
+        }
+        if (found < 1) {
+            if (databasePath != null && tableExists(connection, "BetData")
+                    && Boolean.parseBoolean(System.getProperty("schema.backup", "true"))) {
+                backup(connection, databasePath + ".v0.bak");
+            }
+            runStep(connection, 1, SchemaMigrator::toVersion1);
+        }
+        if (found < 2) {
+            runStep(connection, 2, SchemaMigrator::toVersion2);
+        }
+        if (found < 3) {
+            runStep(connection, 3, SchemaMigrator::toVersion3);
+        }
+        return found;
+    }
+
+    private interface Step {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    private static void runStep(Connection connection, int version, Step step) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        long t0 = System.nanoTime();
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("BEGIN IMMEDIATE");
+            try {
+                // Another process may have upgraded the file while we waited for the lock
+                if (userVersion(connection) < version) {
+                    step.apply(connection);
+                    stmt.execute("PRAGMA user_version = " + version);
+                }
+                stmt.execute("COMMIT");
+            } catch (SQLException e) {
+                stmt.execute("ROLLBACK");
+                throw e;
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        System.out.println("Schema at version " + version + " (" + (System.nanoTime() - t0) / 1_000_000 + " ms).");
+    }
+
+    static int userVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static boolean tableExists(Connection connection, String name) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static Set<String> columns(Connection connection, String table) throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                names.add(rs.getString("name").toLowerCase());
+            }
+        }
+        return names;
+    }
+
+    private static void backup(Connection connection, String target) throws SQLException {
+        if (new File(target).exists()) {
+            System.out.println("Schema backup " + target + " already exists; not overwriting it.");
+            return;
+        }
+        try (PreparedStatement ps = connection.prepareStatement("VACUUM INTO ?")) {
+            ps.setString(1, target);
+            ps.execute();
+        }
+        System.out.println("Backed up version-0 database to " + target);
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Version 1: typed Round / Bet tables, indexes, legacy views
+    // ———————————————————————————————————————————————————————————————————————
+    private static void toVersion1(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(
+                    "CREATE TABLE IF NOT EXISTS Round (" +
+                            "  id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "  SessionId TEXT, " +
+                            "  CapturedAt INTEGER NOT NULL, " +
+                            "  RoundMultiplier REAL, " +
+                            "  TotalBetAmount REAL NOT NULL, " +
+                            "  TotalCashOut REAL NOT NULL, " +
+                            "  ProfitLoss REAL NOT NULL, " +
+                            "  Brad INTEGER NOT NULL, " +
+                            "  Bank REAL, " +
+                            "  Status TEXT NOT NULL DEFAULT '', " +
+                            "  RowsCaptured INTEGER, " +
+                            "  RowsExpected INTEGER, " +
+                            "  InputTensor TEXT, " +
+                            "  TargetMultiplier REAL" +
+                            ")"
+            );
+            stmt.execute(
+                    "CREATE TABLE IF NOT EXISTS Bet (" +
+                            "  id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "  RoundId INTEGER NOT NULL REFERENCES Round(id) ON DELETE CASCADE, " +
+                            "  Amount REAL NOT NULL, " +
+                            "  CashOut REAL NOT NULL, " +
+                            "  CashOutMultiplier REAL" +
+                            ")"
+            );
+            stmt.execute(
+                    "CREATE TABLE IF NOT EXISTS InputTensorData (" +
+                            "  id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "  input_tensor_group TEXT UNIQUE, " +
+                            "  lowest_target_multiplier REAL, " +
+                            "  highest_target_multiplier REAL, " +
+                            "  mean_target_multiplier REAL, " +
+                            "  mode_target_range_start REAL, " +
+                            "  mode_target_range_end REAL, " +
+                            "  mode_range_target_count INTEGER, " +
+                            "  above_mode_range_target_count INTEGER, " +
+                            "  below_mode_range_target_count INTEGER, " +
+                            "  group_count INTEGER, " +
+                            "  target_confidence REAL, " +
+                            "  TerminationTimestamp TEXT" +
+                            ")"
+            );
+
+            if (tableExists(connection, "SummaryData")) {
+                copyLegacyRows(connection);
+                stmt.execute("DROP TABLE IF EXISTS BetData");
+                stmt.execute("DROP TABLE SummaryData");
+            }
+
+            // Tensor aggregation: group + day range + value straight from the index
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_round_tensor ON Round (InputTensor, CapturedAt, TargetMultiplier)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_round_captured ON Round (CapturedAt)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_round_session ON Round (SessionId, CapturedAt)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_bet_round ON Bet (RoundId)");
+
+            // The old tables, as views, for anything still reading them
+            stmt.execute(
+                    "CREATE VIEW IF NOT EXISTS SummaryData AS SELECT " +
+                            "  id, " + formatted("RoundMultiplier", "NULL") + " AS RoundMultiplier, TotalBetAmount, TotalCashOut, " +
+                            "  ProfitLoss, Brad, Bank, " +
+                            "  strftime('%Y-%m-%d', CapturedAt / 1000, 'unixepoch', 'localtime') AS SummaryDate, " +
+                            "  strftime('%H:%M:%S', CapturedAt / 1000, 'unixepoch', 'localtime') AS SummaryTime, " +
+                            "  Status, SessionId, RowsCaptured, RowsExpected, " +
+                            "  InputTensor AS input_tensor, TargetMultiplier " +
+                            "FROM Round"
+            );
+            stmt.execute(
+                    "CREATE VIEW IF NOT EXISTS BetData AS SELECT " +
+                            "  b.id, b.Amount AS BetAmount, " +
+                            "  " + formatted("b.CashOutMultiplier", "'N/A'") + " AS Multiplier, " +
+                            "  b.CashOut, " + formatted("r.RoundMultiplier", "NULL") + " AS RoundMultiplier, r.SessionId " +
+                            "FROM Bet b JOIN Round r ON r.id = b.RoundId"
+            );
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Version 2: journal sequence per round, so replay can skip what is
+    // already projected
+    // ———————————————————————————————————————————————————————————————————————
+    private static void toVersion2(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            if (!columns(connection, "Round").contains("journalseq")) {
+                stmt.execute("ALTER TABLE Round ADD COLUMN JournalSeq INTEGER");
+            }
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_round_journal ON Round (JournalSeq)");
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Version 3: the journal high-water mark, kept apart from Round so it
+    // survives partitioning moving every round out of the live file
+    // ———————————————————————————————————————————————————————————————————————
+    private static void toVersion3(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(
+                    "CREATE TABLE IF NOT EXISTS JournalState (" +
+                            "  id INTEGER PRIMARY KEY CHECK (id = 1), " +
+                            "  ProjectedSeq INTEGER NOT NULL" +
+                            ")"
+            );
+            stmt.execute("INSERT OR IGNORE INTO JournalState (id, ProjectedSeq) " +
+                    "SELECT 1, COALESCE(MAX(JournalSeq), 0) FROM Round");
+        }
+    }
+
+    // Two-decimal text as the old TEXT columns held it (printf alone turns NULL into "0.00")
+    private static String formatted(String column, String whenNull) {
+        return "CASE WHEN " + column + " IS NULL THEN " + whenNull + " ELSE printf('%.2f', " + column + ") END";
+    }
+
+    private static final class LegacyBet {
+        long id;
+        double amount;
+        double cashOut;
+        String multiplier;
+        String roundMultiplier;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Version-0 BetData rows carry no round id. Bets were inserted just before
+    // their SummaryData row, so walking both tables in id order and taking
+    // bets with the summary's round multiplier until their amounts add up to
+    // its TotalBetAmount recovers the link. Runs that fit no summary are kept
+    // under an ORPHANED round rather than dropped.
+    // ———————————————————————————————————————————————————————————————————————
+    private static void copyLegacyRows(Connection connection) throws SQLException {
+        Set<String> summaryColumns = columns(connection, "SummaryData");
+        String optional =
+                (summaryColumns.contains("sessionid") ? "SessionId" : "NULL") + ", " +
+                (summaryColumns.contains("rowscaptured") ? "RowsCaptured" : "NULL") + ", " +
+                (summaryColumns.contains("rowsexpected") ? "RowsExpected" : "NULL") + ", " +
+                (summaryColumns.contains("input_tensor") ? "input_tensor" : "NULL") + ", " +
+                (summaryColumns.contains("targetmultiplier") ? "TargetMultiplier" : "NULL");
+
+        List<LegacyBet> bets = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(tableExists(connection, "BetData")
+                     ? "SELECT id, BetAmount, CashOut, Multiplier, RoundMultiplier FROM BetData ORDER BY id"
+                     : "SELECT 0, 0.0, 0.0, '', '' WHERE 0")) {
+            while (rs.next()) {
+                LegacyBet bet = new LegacyBet();
+                bet.id = rs.getLong(1);
+                bet.amount = rs.getDouble(2);
+                bet.cashOut = rs.getDouble(3);
+                bet.multiplier = rs.getString(4);
+                bet.roundMultiplier = rs.getString(5);
+                bets.add(bet);
+            }
+        }
+
+        int rounds = 0, linked = 0, orphaned = 0;
+        long lastCapturedAt = 0;
+        // [from, to, capturedAt] of unlinked bets; inserted after the summaries so their
+        // new round ids cannot collide with the ids being copied
+        List<long[]> orphanRanges = new ArrayList<>();
+        int next = 0;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT id, RoundMultiplier, TotalBetAmount, TotalCashOut, ProfitLoss, Brad, Bank, " +
+                             "SummaryDate, SummaryTime, Status, " + optional + " FROM SummaryData ORDER BY id");
+             PreparedStatement insertRound = connection.prepareStatement(
+                     "INSERT INTO Round (id, SessionId, CapturedAt, RoundMultiplier, TotalBetAmount, TotalCashOut, " +
+                             "ProfitLoss, Brad, Bank, Status, RowsCaptured, RowsExpected, InputTensor, TargetMultiplier) " +
+                             "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement insertBet = connection.prepareStatement(
+                     "INSERT INTO Bet (id, RoundId, Amount, CashOut, CashOutMultiplier) VALUES (?, ?, ?, ?, ?)")) {
+            while (rs.next()) {
+                long roundId = rs.getLong(1);
+                String roundMultiplier = rs.getString(2);
+                double totalBet = rs.getDouble(3);
+                long capturedAt = toEpochMillis(rs.getString(8), rs.getString(9), lastCapturedAt);
+                lastCapturedAt = capturedAt;
+
+                // Up to three unmatched runs in front of this summary become orphans
+                int[] match = null;
+                int start = next;
+                for (int skipped = 0; skipped <= 3 && start < bets.size() && match == null; skipped++) {
+                    match = matchRun(bets, start, roundMultiplier, totalBet);
+                    if (match == null) {
+                        start = endOfRun(bets, start);
+                    }
+                }
+                if (match != null) {
+                    if (match[0] > next) {
+                        orphanRanges.add(new long[]{next, match[0], capturedAt});
+                    }
+                    next = match[1];
+                }
+
+                insertRound.setLong(1, roundId);
+                insertRound.setString(2, rs.getString(11));
+                insertRound.setLong(3, capturedAt);
+                setMultiplier(insertRound, 4, roundMultiplier);
+                insertRound.setDouble(5, totalBet);
+                insertRound.setDouble(6, rs.getDouble(4));
+                insertRound.setDouble(7, rs.getDouble(5));
+                insertRound.setInt(8, rs.getInt(6));
+                insertRound.setDouble(9, rs.getDouble(7));
+                insertRound.setString(10, rs.getString(10) == null ? "" : rs.getString(10));
+                insertRound.setObject(11, rs.getObject(12));
+                insertRound.setObject(12, rs.getObject(13));
+                insertRound.setString(13, rs.getString(14));
+                setMultiplier(insertRound, 14, rs.getString(15));
+                insertRound.executeUpdate();
+                rounds++;
+
+                if (match != null) {
+                    for (int i = match[0]; i < match[1]; i++) {
+                        addBet(insertBet, bets.get(i), roundId);
+                        linked++;
+                    }
+                    insertBet.executeBatch();
+                }
+            }
+            if (next < bets.size()) {
+                orphanRanges.add(new long[]{next, bets.size(), lastCapturedAt});
+            }
+            for (long[] range : orphanRanges) {
+                orphaned += insertOrphans(connection, insertBet, bets, (int) range[0], (int) range[1], range[2]);
+            }
+        }
+        System.out.println("Migrated " + rounds + " rounds and " + linked + " bets"
+                + (orphaned > 0 ? "; " + orphaned + " bets matched no summary and were kept under ORPHANED rounds" : "")
+                + ".");
+    }
+
+    // [from, to) of bets for this summary starting at 'from', or null
+    private static int[] matchRun(List<LegacyBet> bets, int from, String roundMultiplier, double totalBet) {
+        if (Math.abs(totalBet) < 0.005) {
+            return new int[]{from, from}; // a round with no paid bets
+        }
+        double sum = 0.0;
+        int i = from;
+        while (i < bets.size() && sameText(bets.get(i).roundMultiplier, roundMultiplier)) {
+            sum += bets.get(i).amount;
+            i++;
+            if (Math.abs(sum - totalBet) < 0.005) {
+                return new int[]{from, i};
+            }
+            if (sum > totalBet + 0.005) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static int endOfRun(List<LegacyBet> bets, int from) {
+        int i = from + 1;
+        while (i < bets.size() && sameText(bets.get(i).roundMultiplier, bets.get(from).roundMultiplier)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean sameText(String a, String b) {
+        return (a == null) ? b == null : a.equals(b);
+    }
+
+    // One ORPHANED round per run of unlinked bets in [from, to)
+    private static int insertOrphans(Connection connection, PreparedStatement insertBet, List<LegacyBet> bets,
+                                     int from, int to, long capturedAt) throws SQLException {
+        int count = 0;
+        for (int start = from; start < to; ) {
+            int end = Math.min(endOfRun(bets, start), to);
+            double stake = 0.0, cashOut = 0.0;
+            for (int i = start; i < end; i++) {
+                stake += bets.get(i).amount;
+                cashOut += bets.get(i).cashOut;
+            }
+            long roundId;
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO Round (CapturedAt, RoundMultiplier, TotalBetAmount, TotalCashOut, ProfitLoss, Brad, Status) " +
+                            "VALUES (?, ?, ?, ?, ?, 0, 'ORPHANED')", Statement.RETURN_GENERATED_KEYS)) {
+                ps.setLong(1, capturedAt);
+                setMultiplier(ps, 2, bets.get(start).roundMultiplier);
+                ps.setDouble(3, stake);
+                ps.setDouble(4, cashOut);
+                ps.setDouble(5, stake - cashOut);
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                    roundId = keys.getLong(1);
+                }
+            }
+            for (int i = start; i < end; i++) {
+                addBet(insertBet, bets.get(i), roundId);
+                count++;
+            }
+            insertBet.executeBatch();
+            start = end;
+        }
+        return count;
+    }
+
+    private static void addBet(PreparedStatement insertBet, LegacyBet bet, long roundId) throws SQLException {
+        insertBet.setLong(1, bet.id);
+        insertBet.setLong(2, roundId);
+        insertBet.setDouble(3, bet.amount);
+        insertBet.setDouble(4, bet.cashOut);
+        setMultiplier(insertBet, 5, bet.multiplier);
+        insertBet.addBatch();
+    }
+
+    private static void setMultiplier(PreparedStatement ps, int index, String text) throws SQLException {
+        Double value = RoundParser.parseMultiplier(text);
+        if (value == null) {
+            ps.setNull(index, Types.REAL);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+
+    // SummaryDate + SummaryTime were written in local time
+    private static long toEpochMillis(String date, String time, long fallback) {
+        try {
+            LocalDateTime local = LocalDateTime.of(LocalDate.parse(date.trim()),
+                    (time == null || time.isBlank()) ? LocalTime.MIDNIGHT : LocalTime.parse(time.trim()));
+            return local.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (RuntimeException e) {
+            return fallback;
+        }
+    }
+}
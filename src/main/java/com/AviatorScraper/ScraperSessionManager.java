@@ -0,0 +1,101 @@
+package com.AviatorScraper;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs several independent scraper sessions in one JVM. Each session has its own Chrome
+ * profile, game tile and trigger source (see {@link SessionConfig}). All of them write
+ * through one shared {@link BetDataStore}, instead of one JVM per profile all locking
+ * {@code betdata.db}.
+ *
+ * <pre>
+ *   java ... com.AviatorScraper.ScraperSessionManager sessions.properties
+ * </pre>
+ */
+public class ScraperSessionManager {
+    private final List<SessionConfig> configs;
+    private final BetDataStore store;
+    private final List<AviatorScraperShare> sessions = new CopyOnWriteArrayList<>();
+
+    public ScraperSessionManager(List<SessionConfig> configs, BetDataStore store) {
+        this.configs = configs;
+        this.store = store;
+    }
+
+    public List<AviatorScraperShare> getSessions() {
+        return sessions;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Launch every session at once; Chrome start-up and lobby navigation
+    // dominate, so they run in parallel rather than one after another
+    // ———————————————————————————————————————————————————————————————————————
+    public void startAll() throws InterruptedException {
+        AviatorScraperShare.closeChromeIfRunning();
+
+        ExecutorService starter = Executors.newFixedThreadPool(configs.size(), r -> {
+            Thread t = new Thread(r, "session-start");
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<?>> launches = new ArrayList<>();
+        for (SessionConfig config : configs) {
+            launches.add(starter.submit(() -> {
+                long t0 = System.nanoTime();
+                AviatorScraperShare scraper = new AviatorScraperShare(config, store);
+                sessions.add(scraper);
+                scraper.start();
+                System.out.println("Session " + config + " running after "
+                        + (System.nanoTime() - t0) / 1_000_000 + " ms");
+            }));
+        }
+        for (int i = 0; i < launches.size(); i++) {
+            try {
+                launches.get(i).get();
+            } catch (Exception e) {
+                System.err.println("Session " + configs.get(i).getId() + " failed to start: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        starter.shutdown();
+        System.out.println(sessions.size() + " of " + configs.size() + " session(s) running.");
+    }
+
+    public void stopAll() {
+        for (AviatorScraperShare scraper : sessions) {
+            try {
+                scraper.stop();
+            } catch (Exception e) {
+                System.err.println("Error stopping session " + scraper.getSession().getId() + ": " + e.getMessage());
+            }
+        }
+        store.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        File file = new File((args.length > 0) ? args[0] : "sessions.properties");
+        List<SessionConfig> configs = SessionConfig.loadAll(file);
+
+        BetDataStore store;
+        try {
+            store = new BetDataStore("jdbc:sqlite:betdata.db");
+            store.startPartitionMaintenance();
+        } catch (SQLException e) {
+            System.err.println("Error initializing database: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+            return;
+        }
+
+        ScraperSessionManager manager = new ScraperSessionManager(configs, store);
+        Runtime.getRuntime().addShutdownHook(new Thread(manager::stopAll));
+        manager.startAll();
+    }
+}
@@ -0,0 +1,163 @@
+package com.AviatorScraper;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Everything one scraper session needs to run on its own: which Chrome profile, which game
+ * tile in the lobby, and where its rounds come from. Loaded from a sessions file for
+ * {@link ScraperSessionManager}:
+ * <pre>
+ *   sessions=main,second
+ *
+ *   session.main.profile=Default
+ *   session.main.game=game_item19
+ *   session.main.capture=audio
+ *   session.main.mixer=Line 1
+ *
+ *   session.second.userDataDir=C:/Scraper/Profiles/second
+ *   session.second.profile=Default
+ *   session.second.game=game_item19
+ *   session.second.capture=push
+ *   session.second.bradThreshold=2000
+ * </pre>
+ * Every Chrome process needs its own user-data-dir, so at most one session may use the
+ * default Chrome {@code User Data} folder.
+ */
+public class SessionConfig {
+    public static final String DEFAULT_GAME_TILE = "game_item19";
+
+    private final String id;
+    private final String userDataDir;
+    private final String standbyUserDataDir;
+    private final String profileDirectory;
+    private final String gameTileId;
+    private final String captureMode;
+    private final String mixerName;
+    private final int bradThreshold;
+
+    public SessionConfig(String id, String userDataDir, String standbyUserDataDir, String profileDirectory,
+                         String gameTileId, String captureMode, String mixerName, int bradThreshold) {
+        this.id = id;
+        this.userDataDir = userDataDir;
+        this.standbyUserDataDir = standbyUserDataDir;
+        this.profileDirectory = profileDirectory;
+        this.gameTileId = gameTileId;
+        this.captureMode = captureMode;
+        this.mixerName = mixerName;
+        this.bradThreshold = bradThreshold;
+    }
+
+    // Single-session defaults: the same -D properties the scraper has always read
+    public static SessionConfig fromSystemProperties(String userDataDir, String profileDirectory, int bradThreshold) {
+        return new SessionConfig(
+                System.getProperty("session.id", profileDirectory),
+                userDataDir,
+                System.getProperty("standby.userDataDir", userDataDir + " Standby"),
+                profileDirectory,
+                System.getProperty("game.tile", DEFAULT_GAME_TILE),
+                System.getProperty("capture.mode", "audio"),
+                System.getProperty("sound.mixer", "Line 1"),
+                bradThreshold);
+    }
+
+    public static String defaultUserDataDir() {
+        return System.getenv("LOCALAPPDATA")
+                + File.separator + "Google"
+                + File.separator + "Chrome"
+                + File.separator + "User Data";
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Load every session listed under "sessions=" in a properties file
+    // ———————————————————————————————————————————————————————————————————————
+    public static List<SessionConfig> loadAll(File file) throws IOException {
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            props.load(in);
+        }
+        String list = props.getProperty("sessions");
+        if (list == null || list.isBlank()) {
+            throw new IOException("No sessions= entry in " + file);
+        }
+
+        List<SessionConfig> sessions = new ArrayList<>();
+        Set<String> userDataDirs = new HashSet<>();
+        for (String raw : list.split(",")) {
+            String id = raw.trim();
+            if (id.isEmpty()) {
+                continue;
+            }
+            String prefix = "session." + id + ".";
+            String userDataDir = props.getProperty(prefix + "userDataDir", defaultUserDataDir()).trim();
+            SessionConfig config = new SessionConfig(
+                    id,
+                    userDataDir,
+                    props.getProperty(prefix + "standbyUserDataDir", userDataDir + " Standby").trim(),
+                    props.getProperty(prefix + "profile", "Default").trim(),
+                    props.getProperty(prefix + "game", DEFAULT_GAME_TILE).trim(),
+                    props.getProperty(prefix + "capture", "audio").trim(),
+                    props.getProperty(prefix + "mixer", "Line 1").trim(),
+                    Integer.parseInt(props.getProperty(prefix + "bradThreshold", "4000").trim()));
+            if (!userDataDirs.add(new File(config.userDataDir).getAbsolutePath().toLowerCase())) {
+                throw new IOException("Session " + id + " reuses user-data-dir " + config.userDataDir
+                        + "; Chrome allows only one process per user-data-dir");
+            }
+            sessions.add(config);
+        }
+        return sessions;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUserDataDir() {
+        return userDataDir;
+    }
+
+    // Separate directory for this session's warm standby (-Dstandby.enabled=true)
+    public String getStandbyUserDataDir() {
+        return standbyUserDataDir;
+    }
+
+    public String getProfileDirectory() {
+        return profileDirectory;
+    }
+
+    public String getGameTileId() {
+        return gameTileId;
+    }
+
+    public String getCaptureMode() {
+        return captureMode;
+    }
+
+    public String getMixerName() {
+        return mixerName;
+    }
+
+    public int getBradThreshold() {
+        return bradThreshold;
+    }
+
+    public boolean isPushCapture() {
+        return "push".equalsIgnoreCase(captureMode);
+    }
+
+    public boolean isWebSocketCapture() {
+        return "websocket".equalsIgnoreCase(captureMode);
+    }
+
+    @Override
+    public String toString() {
+        return id + " (" + profileDirectory + ", " + gameTileId + ", " + captureMode + ")";
+    }
+}
@@ -2,4 +2,10 @@ package com.AviatorScraper;
 
 public interface SoundDetectionListener {
     void onSoundDetected();
+
+    // Called by SoundDetector with the estimated onset time (System.nanoTime) and the
+    // tone-signature confidence (1.0 when no signature is loaded)
+    default void onSoundDetected(long onsetNanos, double confidence) {
+        onSoundDetected();
+    }
 }
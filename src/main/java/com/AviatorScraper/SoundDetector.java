@@ -1,74 +1,231 @@
 package com.AviatorScraper;
 
-import javax.sound.sampled.*;
+import java.io.File;
+import java.io.IOException;
 
 public class SoundDetector {
     private SoundDetectionListener listener;
+    private final AudioSource source;
+
+    private static final float SAMPLE_RATE = AudioSource.CAPTURE_FORMAT.getSampleRate();
+
+    // Which per-frame energy figure drives the attack/release gate
+    public enum GateMetric { PEAK, RMS }
+
+    // Frame size in samples (160 = 20 ms); read back-to-back, never slept on
+    private int frameSamples = Integer.getInteger("sound.frameSamples", 160);
+
+    // Hysteresis: the gate opens after attackFrames consecutive frames at or above
+    // attackThreshold and closes after releaseFrames consecutive frames below releaseThreshold
+    private GateMetric gateMetric = GateMetric.valueOf(System.getProperty("sound.gateMetric", "PEAK"));
+    private int attackThreshold = Integer.getInteger("sound.attackThreshold", 10);
+    private int releaseThreshold = Integer.getInteger("sound.releaseThreshold", 6);
+    private int attackFrames = Integer.getInteger("sound.attackFrames", 1);
+    private int releaseFrames = Integer.getInteger("sound.releaseFrames", 5);
+
+    // Optional frequency-domain matcher; when set, only frames that look like the
+    // round-end cue can open the gate
+    private ToneSignatureMatcher matcher;
+
+    private volatile boolean running;
+
+    // Log every trigger even when replaying faster than real time
+    private boolean verbose = true;
+
+    // Last measurements, readable from other threads for logging
+    private volatile int lastPeak;
+    private volatile double lastRms;
+    private volatile double lastConfidence;
+    private volatile double lastOnsetLatencyMillis;
+    private volatile double lastOnsetStreamSeconds;
+    private volatile long samplesConsumed;
 
     public SoundDetector(SoundDetectionListener listener) {
+        // Default: live capture from VAC "Line 1", with a driver buffer of a few frames
+        this(listener, new MixerAudioSource(System.getProperty("sound.mixer", "Line 1"),
+                Integer.getInteger("sound.frameSamples", 160) * 4));
+    }
+
+    public SoundDetector(SoundDetectionListener listener, AudioSource source) {
         this.listener = listener;
+        this.source = source;
+
+        String signature = System.getProperty("sound.signature");
+        if (signature != null) {
+            try {
+                matcher = ToneSignatureMatcher.load(new File(signature));
+                System.out.println("Loaded round-end tone signature from " + signature);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Could not load tone signature " + signature + ", using energy gate only: " + e.getMessage());
+            }
+        }
     }
 
-    public void detectSound() {
-        AudioFormat format = new AudioFormat(8000, 8, 1, true, true);
-        DataLine.Info info = new DataLine.Info(TargetDataLine.class, format);
+    public void setMatcher(ToneSignatureMatcher matcher) {
+        this.matcher = matcher;
+    }
 
+    public void setFrameSamples(int frameSamples) {
+        this.frameSamples = frameSamples;
+    }
+
+    public void setGateMetric(GateMetric gateMetric) {
+        this.gateMetric = gateMetric;
+    }
+
+    public void setHysteresis(int attackThreshold, int releaseThreshold, int attackFrames, int releaseFrames) {
+        if (releaseThreshold > attackThreshold) {
+            throw new IllegalArgumentException("releaseThreshold must not exceed attackThreshold");
+        }
+        this.attackThreshold = attackThreshold;
+        this.releaseThreshold = releaseThreshold;
+        this.attackFrames = Math.max(1, attackFrames);
+        this.releaseFrames = Math.max(1, releaseFrames);
+    }
+
+    public int getLastPeak() {
+        return lastPeak;
+    }
+
+    public double getLastRms() {
+        return lastRms;
+    }
+
+    public double getLastConfidence() {
+        return lastConfidence;
+    }
+
+    public double getLastOnsetLatencyMillis() {
+        return lastOnsetLatencyMillis;
+    }
+
+    // Position of the last onset within the audio stream, independent of replay speed
+    public double getLastOnsetStreamSeconds() {
+        return lastOnsetStreamSeconds;
+    }
+
+    public long getSamplesConsumed() {
+        return samplesConsumed;
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    public void detectSound() {
         try {
-            Mixer selectedMixer = null;
-
-            // Loop through available mixers and select "Line 1" (Virtual Audio Cable)
-            for (Mixer.Info mixerInfo : AudioSystem.getMixerInfo()) {
-                if (mixerInfo.getName().contains("Line 1")) { // Match "Line 1" explicitly
-                    Mixer mixer = AudioSystem.getMixer(mixerInfo);
-                    if (mixer.isLineSupported(info)) {
-                        selectedMixer = mixer;
-                        System.out.println("Monitoring input device: " + mixerInfo.getName());
-                        break;
-                    }
-                }
-            }
+            source.open();
+            System.out.println("Listening for sound on " + source.describe() + " (" + frameSamples
+                    + "-sample frames, " + gateMetric + " gate " + attackThreshold + "/" + releaseThreshold + ")...");
+            runCaptureLoop();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            source.close();
+        }
+    }
 
-            if (selectedMixer == null) {
-                System.err.println("No suitable input device found.");
-                return;
+    // ———————————————————————————————————————————————————————————————————————
+    // Continuous capture: blocking reads of one frame at a time, no sleeping,
+    // no allocation per frame
+    // ———————————————————————————————————————————————————————————————————————
+    private void runCaptureLoop() throws IOException {
+        final byte[] frame = new byte[frameSamples];
+        final double nanosPerSample = 1_000_000_000.0 / SAMPLE_RATE;
+
+        boolean gateOpen = false;
+        int aboveCount = 0;
+        int belowCount = 0;
+        long onsetNanos = 0L;
+        long onsetSample = 0L;
+        long position = 0L;
+        samplesConsumed = 0L;
+
+        running = true;
+        while (running) {
+            int bytesRead = source.read(frame, 0, frame.length);
+            if (bytesRead <= 0) {
+                break;
             }
+            long frameEndNanos = System.nanoTime();
+            long frameStart = position;
+            position += bytesRead;
+            samplesConsumed = position;
 
-            TargetDataLine line = (TargetDataLine) selectedMixer.getLine(info);
-            line.open(format);
-            line.start();
-            System.out.println("Listening for sound...");
+            // 1) Peak and RMS over the frame, plus the first sample over the attack level
+            int peak = 0;
+            long sumSquares = 0;
+            int firstLoud = -1;
+            for (int i = 0; i < bytesRead; i++) {
+                int s = frame[i];
+                int a = s < 0 ? -s : s;
+                if (a > peak) {
+                    peak = a;
+                }
+                if (firstLoud < 0 && a >= attackThreshold) {
+                    firstLoud = i;
+                }
+                sumSquares += s * s;
+            }
+            double rms = Math.sqrt((double) sumSquares / bytesRead);
+            lastPeak = peak;
+            lastRms = rms;
 
-            byte[] buffer = new byte[1024];
-            int threshold = 10;  // Adjust this threshold as needed
-            boolean soundCurrentlyDetected = false;
+            double level = (gateMetric == GateMetric.PEAK) ? peak : rms;
 
-            while (true) {
-                int bytesRead = line.read(buffer, 0, buffer.length);
-                boolean soundDetected = false;
+            // 2) Spectral match on the same frame, so it adds no latency on top of the gate
+            double confidence = 1.0;
+            if (matcher != null) {
+                confidence = matcher.push(frame, bytesRead);
+            }
 
-                // Check if any audio sample in the buffer exceeds the threshold
-                for (int i = 0; i < bytesRead; i++) {
-                    if (Math.abs(buffer[i]) > threshold) {
-                        soundDetected = true;
-                        break;
+            // 3) Attack/release hysteresis
+            if (!gateOpen) {
+                if (level >= attackThreshold && (matcher == null || confidence >= matcher.getMinConfidence())) {
+                    if (aboveCount == 0) {
+                        // Estimate when the onset sample actually arrived at the line
+                        int onsetIndex = (firstLoud >= 0) ? firstLoud : 0;
+                        onsetNanos = frameEndNanos - (long) ((bytesRead - onsetIndex) * nanosPerSample);
+                        onsetSample = frameStart + onsetIndex;
                     }
+                    if (++aboveCount >= attackFrames) {
+                        gateOpen = true;
+                        belowCount = 0;
+                        fireOnset(onsetNanos, onsetSample, peak, rms, confidence);
+                    }
+                } else {
+                    aboveCount = 0;
                 }
-
-                // Trigger sound detection event if sound is detected
-                if (soundDetected && !soundCurrentlyDetected) {
-                    System.out.println("Sound detected!");
-                    soundCurrentlyDetected = true;
-                    if (listener != null) {
-                        listener.onSoundDetected();
+            } else {
+                if (level < releaseThreshold) {
+                    if (++belowCount >= releaseFrames) {
+                        gateOpen = false;
+                        aboveCount = 0;
                     }
-                } else if (!soundDetected && soundCurrentlyDetected) {
-                    soundCurrentlyDetected = false;
+                } else {
+                    belowCount = 0;
                 }
-
-                Thread.sleep(100);  // Check sound every 100 ms
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+        }
+    }
+
+    private void fireOnset(long onsetNanos, long onsetSample, int peak, double rms, double confidence) {
+        lastOnsetStreamSeconds = onsetSample / SAMPLE_RATE;
+        lastConfidence = confidence;
+        if (source.isRealtime()) {
+            lastOnsetLatencyMillis = (System.nanoTime() - onsetNanos) / 1_000_000.0;
+            System.out.printf("Sound detected! peak=%d rms=%.1f confidence=%.2f onset-to-callback=%.1f ms%n",
+                    peak, rms, confidence, lastOnsetLatencyMillis);
+        } else if (verbose) {
+            System.out.printf("Sound detected at %.3f s (peak=%d rms=%.1f confidence=%.2f)%n",
+                    lastOnsetStreamSeconds, peak, rms, confidence);
+        }
+        if (listener != null) {
+            listener.onSoundDetected(onsetNanos, confidence);
         }
     }
 }
@@ -0,0 +1,159 @@
+package com.AviatorScraper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pushes recorded or synthetic audio through {@link SoundDetector} as fast as possible and
+ * reports throughput plus hit / miss / false-trigger counts. Runs anywhere Java does; no
+ * VAC cable or sound card needed.
+ *
+ * <pre>
+ *   SoundDetectorBenchmark recording.wav [onsets.txt] [toleranceMs]
+ *   SoundDetectorBenchmark --tone [seconds]
+ *   SoundDetectorBenchmark --distractors [seconds]
+ * </pre>
+ *
+ * {@code onsets.txt} lists the true cue times in seconds, one per line ({@code #} starts a comment).
+ * {@code --distractors} scores a {@link DistractorAudioSource} mix (default 300 s) twice: with the
+ * energy gate alone, and with a signature learned from a clean cue.
+ */
+public class SoundDetectorBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: SoundDetectorBenchmark <file.wav|file.pcm> [onsets.txt] [toleranceMs]");
+            System.err.println("       SoundDetectorBenchmark --tone [seconds]");
+            System.err.println("       SoundDetectorBenchmark --distractors [seconds]");
+            System.exit(2);
+        }
+        if (args[0].equals("--distractors")) {
+            compareSignatureGate((args.length > 1) ? Double.parseDouble(args[1]) : 300);
+            return;
+        }
+
+        AudioSource source;
+        double[] expected = null;
+        double toleranceSeconds = 0.25;
+
+        if (args[0].equals("--tone")) {
+            double seconds = (args.length > 1) ? Double.parseDouble(args[1]) : 3600;
+            // 1 s bursts every 10 s over low-level noise that stays under the attack threshold
+            ToneAudioSource tone = new ToneAudioSource(1000, 60, 4, 10_000, 1_000, seconds, false);
+            source = tone;
+            expected = tone.burstOnsets(seconds);
+        } else {
+            source = new FileAudioSource(new File(args[0]), false);
+            if (args.length > 1) {
+                expected = readOnsets(new File(args[1]));
+            }
+            if (args.length > 2) {
+                toleranceSeconds = Double.parseDouble(args[2]) / 1000.0;
+            }
+        }
+
+        run(source, expected, toleranceSeconds, false, null);
+    }
+
+    // Runs the detector over the whole source and prints throughput and, with expected onsets, the score
+    private static void run(AudioSource source, double[] expected, double toleranceSeconds,
+                            boolean replaceMatcher, ToneSignatureMatcher matcher) {
+        List<Double> triggers = new ArrayList<>();
+        SoundDetector[] holder = new SoundDetector[1];
+        SoundDetector detector = new SoundDetector(
+                () -> triggers.add(holder[0].getLastOnsetStreamSeconds()), source);
+        holder[0] = detector;
+        detector.setVerbose(false);
+        if (replaceMatcher) {
+            detector.setMatcher(matcher);
+        }
+
+        long t0 = System.nanoTime();
+        detector.detectSound();
+        double wallSeconds = (System.nanoTime() - t0) / 1e9;
+
+        double audioSeconds = detector.getSamplesConsumed() / AudioSource.CAPTURE_FORMAT.getSampleRate();
+        System.out.println("Source:          " + source.describe());
+        System.out.printf("Audio processed: %.1f s in %.3f s wall (%.0fx real time, %.1f Msamples/s)%n",
+                audioSeconds, wallSeconds, audioSeconds / wallSeconds,
+                detector.getSamplesConsumed() / wallSeconds / 1e6);
+        System.out.println("Triggers:        " + triggers.size());
+
+        if (expected != null) {
+            score(expected, triggers, toleranceSeconds, audioSeconds);
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Same distractor mix, energy gate alone vs. gate plus learned signature
+    // ———————————————————————————————————————————————————————————————————————
+    private static void compareSignatureGate(double seconds) throws IOException {
+        DistractorAudioSource mix = new DistractorAudioSource(seconds, 10_000, true, 42);
+        ToneSignatureMatcher signature;
+        try {
+            signature = ToneSignatureMatcher.learn(new DistractorAudioSource(1.0, 10_000, false, 7), 4, 160, 10, 0.75);
+        } catch (Exception e) {
+            throw new IOException("Could not learn the cue signature", e);
+        }
+
+        System.out.println("== Energy gate only ==");
+        run(mix, mix.cueOnsets(), 0.25, true, null);
+        System.out.println();
+        System.out.println("== Energy gate + tone signature ==");
+        run(mix, mix.cueOnsets(), 0.25, true, signature);
+    }
+
+    // Greedy matching: each trigger claims the nearest unclaimed expected onset within tolerance
+    private static void score(double[] expected, List<Double> triggers, double tolerance, double audioSeconds) {
+        boolean[] claimed = new boolean[expected.length];
+        int hits = 0;
+        int falseTriggers = 0;
+        double latencySum = 0;
+
+        for (double t : triggers) {
+            int best = -1;
+            double bestDelta = Double.MAX_VALUE;
+            int from = Arrays.binarySearch(expected, t - tolerance);
+            if (from < 0) {
+                from = -from - 1;
+            }
+            for (int i = from; i < expected.length && expected[i] <= t + tolerance; i++) {
+                double delta = Math.abs(t - expected[i]);
+                if (!claimed[i] && delta < bestDelta) {
+                    best = i;
+                    bestDelta = delta;
+                }
+            }
+            if (best >= 0) {
+                claimed[best] = true;
+                hits++;
+                latencySum += t - expected[best];
+            } else {
+                falseTriggers++;
+            }
+        }
+
+        int misses = expected.length - hits;
+        System.out.println("Expected cues:   " + expected.length);
+        System.out.println("Hits:            " + hits);
+        System.out.println("Misses:          " + misses);
+        System.out.printf("False triggers:  %d (%.2f per hour of audio)%n",
+                falseTriggers, falseTriggers / (audioSeconds / 3600.0));
+        if (hits > 0) {
+            System.out.printf("Mean onset offset: %.1f ms%n", latencySum / hits * 1000);
+        }
+    }
+
+    private static double[] readOnsets(File file) throws IOException {
+        return Files.readAllLines(file.toPath()).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .mapToDouble(Double::parseDouble)
+                .sorted()
+                .toArray();
+    }
+}
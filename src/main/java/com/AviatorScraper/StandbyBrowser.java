@@ -0,0 +1,191 @@
+package com.AviatorScraper;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A second Chrome session, launched ahead of time and parked inside the game iframe, that the
+ * scraper can switch to the moment the live session dies. Taking it over costs a reference
+ * swap instead of a ChromeDriver cold start plus lobby navigation; a replacement is then
+ * built in the background.
+ *
+ * <p>Chrome will not open one user-data-dir from two processes, so the standby runs from its
+ * own directory. {@link #seedProfile} copies the live profile (cookies included) into it
+ * once, before the live browser is started.
+ */
+public class StandbyBrowser {
+    // Caches that make a profile copy slow and are rebuilt by Chrome anyway
+    private static final Set<String> SKIPPED_DIRS = Set.of("Cache", "Code Cache", "GPUCache",
+            "CacheStorage", "ScriptCache", "GrShaderCache", "ShaderCache", "Crashpad");
+
+    private final ChromeLauncher launcher;
+    private final String gameTileId;
+    private final AtomicReference<WebDriver> ready = new AtomicReference<>();
+    private final ScheduledExecutorService worker;
+
+    private final int loadTimeoutSeconds = Integer.getInteger("standby.loadTimeoutSeconds", 60);
+    private final int retrySeconds = Integer.getInteger("standby.retrySeconds", 30);
+    private final int checkSeconds = Integer.getInteger("standby.checkSeconds", 60);
+
+    private volatile boolean building;
+    private volatile boolean closed;
+    private volatile long lastBuildMillis;
+
+    public StandbyBrowser(ChromeLauncher launcher, String gameTileId) {
+        this.launcher = launcher;
+        this.gameTileId = gameTileId;
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "standby-browser");
+            t.setDaemon(true);
+            return t;
+        });
+        // A parked session can be logged out or crash on its own; replace it before it is needed
+        worker.scheduleWithFixedDelay(this::checkHealth, checkSeconds, checkSeconds, TimeUnit.SECONDS);
+    }
+
+    public boolean isReady() {
+        return ready.get() != null;
+    }
+
+    public long getLastBuildMillis() {
+        return lastBuildMillis;
+    }
+
+    // Build a standby in the background unless one is ready or already being built
+    public void prepareAsync() {
+        if (!closed) {
+            worker.execute(this::build);
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Hand the parked session to the caller; null if none is ready and healthy
+    // ———————————————————————————————————————————————————————————————————————
+    public WebDriver takeover() {
+        WebDriver standby = ready.getAndSet(null);
+        if (standby != null && !GamePage.isParked(standby)) {
+            System.out.println("Standby browser was not parked in the game iframe; discarding it.");
+            quitQuietly(standby);
+            standby = null;
+        }
+        return standby;
+    }
+
+    public void close() {
+        closed = true;
+        worker.shutdownNow();
+        quitQuietly(ready.getAndSet(null));
+    }
+
+    private void build() {
+        if (closed || building || ready.get() != null) {
+            return;
+        }
+        building = true;
+        long t0 = System.nanoTime();
+        WebDriver standby = null;
+        try {
+            standby = launcher.launch();
+            GamePage.load(standby, new WebDriverWait(standby, Duration.ofSeconds(loadTimeoutSeconds)), gameTileId);
+            if (closed) {
+                quitQuietly(standby);
+                return;
+            }
+            ready.set(standby);
+            lastBuildMillis = (System.nanoTime() - t0) / 1_000_000;
+            System.out.println("Standby browser parked in game iframe after " + lastBuildMillis + " ms ("
+                    + launcher.getUserDataDir() + ").");
+        } catch (Exception e) {
+            System.out.println("Error preparing standby browser, retrying in " + retrySeconds + " s: " + e.getMessage());
+            quitQuietly(standby);
+            if (!closed) {
+                worker.schedule(this::build, retrySeconds, TimeUnit.SECONDS);
+            }
+        } finally {
+            building = false;
+        }
+    }
+
+    private void checkHealth() {
+        WebDriver standby = ready.get();
+        if (standby != null && !GamePage.isParked(standby) && ready.compareAndSet(standby, null)) {
+            System.out.println("Standby browser went stale; rebuilding it.");
+            quitQuietly(standby);
+            build();
+        }
+    }
+
+    static void quitQuietly(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.out.println("Error closing browser: " + e.getMessage());
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // One-time copy of "Local State" + the chosen profile into the standby
+    // user-data-dir. Run it while no Chrome is open so the cookie DB is not locked.
+    // ———————————————————————————————————————————————————————————————————————
+    public static void seedProfile(String userDataDir, String profileDirectory, String standbyDir) {
+        Path source = new File(userDataDir).toPath();
+        Path target = new File(standbyDir).toPath();
+        if (Files.isDirectory(target.resolve(profileDirectory))) {
+            return;
+        }
+        try {
+            Files.createDirectories(target);
+            Path localState = source.resolve("Local State");
+            if (Files.exists(localState)) {
+                Files.copy(localState, target.resolve("Local State"), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Path profile = source.resolve(profileDirectory);
+            Path profileTarget = target.resolve(profileDirectory);
+            Files.walkFileTree(profile, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    if (SKIPPED_DIRS.contains(dir.getFileName().toString())) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    Files.createDirectories(profileTarget.resolve(profile.relativize(dir).toString()));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.copy(file, profileTarget.resolve(profile.relativize(file).toString()),
+                            StandardCopyOption.REPLACE_EXISTING);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    System.out.println("Skipping unreadable profile file " + file + ": " + exc.getMessage());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            System.out.println("Seeded standby profile " + target.resolve(profileDirectory));
+        } catch (IOException e) {
+            System.out.println("Error seeding standby profile: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
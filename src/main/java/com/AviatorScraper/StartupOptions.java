@@ -0,0 +1,94 @@
+package com.AviatorScraper;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Settings for the unattended start: no Swing dialogs, everything from command-line flags
+ * and/or a properties file. Flags win over the file.
+ * <pre>
+ *   java ... AviatorScraperShare --config=scraper.properties
+ *   java ... AviatorScraperShare --profile="Profile 2" --bradThreshold=2000 --capture=push
+ * </pre>
+ * Keys (as {@code --key=value} or {@code key=value} in the file): {@code bradThreshold},
+ * {@code profile}, {@code userDataDir}, {@code chromeBinary}, {@code game}, {@code capture},
+ * {@code mixer}, {@code sessionId}, {@code db}, {@code killChrome}.
+ */
+public class StartupOptions {
+    private final Properties values = new Properties();
+
+    public static StartupOptions parse(String[] args) throws IOException {
+        StartupOptions options = new StartupOptions();
+        Properties cli = new Properties();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            String key = (eq > 0) ? arg.substring(2, eq) : arg.substring(2);
+            String value = (eq > 0) ? arg.substring(eq + 1) : "true";
+            cli.setProperty(key, stripQuotes(value.trim()));
+        }
+
+        String config = cli.getProperty("config");
+        if (config != null) {
+            try (InputStream in = new FileInputStream(config)) {
+                options.values.load(in);
+            }
+        }
+        options.values.putAll(cli);
+        return options;
+    }
+
+    private static String stripQuotes(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    public String get(String key, String defaultValue) {
+        return values.getProperty(key, defaultValue).trim();
+    }
+
+    public int getBradThreshold() {
+        return Integer.parseInt(get("bradThreshold", "4000"));
+    }
+
+    public String getUserDataDir() {
+        return get("userDataDir", SessionConfig.defaultUserDataDir());
+    }
+
+    // Null means "first Default / Profile N folder found"
+    public String getProfile() {
+        String profile = values.getProperty("profile");
+        return (profile == null || profile.isBlank()) ? null : profile.trim();
+    }
+
+    public String getChromeBinary() {
+        return values.getProperty("chromeBinary", System.getProperty("chrome.binary"));
+    }
+
+    public String getJdbcUrl() {
+        return "jdbc:sqlite:" + get("db", "betdata.db");
+    }
+
+    public boolean isKillChrome() {
+        return Boolean.parseBoolean(get("killChrome", "true"));
+    }
+
+    public SessionConfig toSessionConfig(String profileDirectory) {
+        String userDataDir = getUserDataDir();
+        return new SessionConfig(
+                get("sessionId", profileDirectory),
+                userDataDir,
+                get("standbyUserDataDir", userDataDir + " Standby"),
+                profileDirectory,
+                get("game", System.getProperty("game.tile", SessionConfig.DEFAULT_GAME_TILE)),
+                get("capture", System.getProperty("capture.mode", "audio")),
+                get("mixer", System.getProperty("sound.mixer", "Line 1")),
+                getBradThreshold());
+    }
+}
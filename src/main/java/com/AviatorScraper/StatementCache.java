@@ -0,0 +1,64 @@
+package com.AviatorScraper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Prepared statements kept for the lifetime of one connection, keyed by their SQL. Each
+ * statement is compiled the first time it is asked for and reused afterwards, so a round
+ * costs binds and steps only. Statements are prepared on first use, so a connection only
+ * compiles the ones it runs; tools that open a store use a handful of them.
+ *
+ * <p>Not thread-safe: only the database writer thread uses it.
+ */
+public class StatementCache implements AutoCloseable {
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    public StatementCache(Connection connection) {
+        this.connection = connection;
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public PreparedStatement get(String sql) throws SQLException {
+        PreparedStatement ps = statements.get(sql);
+        if (ps == null) {
+            ps = connection.prepareStatement(sql);
+            statements.put(sql, ps);
+        }
+        return ps;
+    }
+
+    // For INSERTs whose generated id the caller needs
+    public PreparedStatement getReturningKeys(String sql) throws SQLException {
+        String key = "keys:" + sql;
+        PreparedStatement ps = statements.get(key);
+        if (ps == null) {
+            ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            statements.put(key, ps);
+        }
+        return ps;
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    @Override
+    public void close() {
+        for (PreparedStatement ps : statements.values()) {
+            try {
+                ps.close();
+            } catch (SQLException ignored) {
+            }
+        }
+        statements.clear();
+    }
+}
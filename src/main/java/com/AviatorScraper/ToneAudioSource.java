@@ -0,0 +1,101 @@
+package com.AviatorScraper;
+
+import java.util.Random;
+
+/**
+ * Synthetic signal: a sine burst of {@code burstMillis} every {@code periodMillis} over a
+ * background of uniform noise. Burst start times are known exactly, so the benchmark can
+ * score hits, misses and false triggers without a hand-labelled recording.
+ */
+public class ToneAudioSource implements AudioSource {
+    private final double frequencyHz;
+    private final int amplitude;
+    private final int noiseAmplitude;
+    private final long periodSamples;
+    private final long burstSamples;
+    private final long totalSamples;
+    private final boolean throttled;
+
+    private final Random random = new Random(42);
+    private long position;
+    private long startNanos;
+
+    public ToneAudioSource(double frequencyHz, int amplitude, int noiseAmplitude,
+                           long periodMillis, long burstMillis, double durationSeconds, boolean throttled) {
+        float rate = CAPTURE_FORMAT.getSampleRate();
+        this.frequencyHz = frequencyHz;
+        this.amplitude = Math.min(127, amplitude);
+        this.noiseAmplitude = noiseAmplitude;
+        this.periodSamples = Math.max(1, (long) (periodMillis * rate / 1000));
+        this.burstSamples = (long) (burstMillis * rate / 1000);
+        this.totalSamples = (durationSeconds > 0) ? (long) (durationSeconds * rate) : Long.MAX_VALUE;
+        this.throttled = throttled;
+    }
+
+    @Override
+    public void open() {
+        position = 0;
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (position >= totalSamples) {
+            return -1;
+        }
+        int n = (int) Math.min(length, totalSamples - position);
+        double step = 2 * Math.PI * frequencyHz / CAPTURE_FORMAT.getSampleRate();
+        for (int i = 0; i < n; i++) {
+            long p = position + i;
+            double s = 0;
+            if (p % periodSamples < burstSamples) {
+                s = amplitude * Math.sin(step * p);
+            }
+            if (noiseAmplitude > 0) {
+                s += random.nextInt(2 * noiseAmplitude + 1) - noiseAmplitude;
+            }
+            buffer[offset + i] = (byte) Math.max(-128, Math.min(127, Math.round(s)));
+        }
+        position += n;
+
+        if (throttled) {
+            long dueNanos = startNanos + (long) (position * 1_000_000_000.0 / CAPTURE_FORMAT.getSampleRate());
+            long waitNanos = dueNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                try {
+                    Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        return n;
+    }
+
+    /** Stream times, in seconds, at which a burst starts within the first {@code seconds}. */
+    public double[] burstOnsets(double seconds) {
+        float rate = CAPTURE_FORMAT.getSampleRate();
+        long limit = Math.min(totalSamples, (long) (seconds * rate));
+        int count = (int) ((limit + periodSamples - 1) / periodSamples);
+        double[] onsets = new double[count];
+        for (int i = 0; i < count; i++) {
+            onsets[i] = i * periodSamples / (double) rate;
+        }
+        return onsets;
+    }
+
+    @Override
+    public boolean isRealtime() {
+        return throttled;
+    }
+
+    @Override
+    public String describe() {
+        return String.format("tone %.0f Hz, amp %d, noise %d%s", frequencyHz, amplitude, noiseAmplitude,
+                throttled ? " (real-time)" : " (unthrottled)");
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,287 @@
+package com.AviatorScraper;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Goertzel filter bank that scores how closely the most recent audio window matches a
+ * learned spectral signature (the round-end cue). The window and all band state are
+ * preallocated, so {@link #push} does no allocation on the capture path.
+ *
+ * <p>Confidence is the cosine similarity between the band magnitudes and the signature,
+ * scaled down when less of the window's energy falls inside the bands than it did in the
+ * training clip. Clicks, music and notifications have the wrong band shape or spread their
+ * energy elsewhere, so they score low even when they are loud.
+ *
+ * <p>Signature files are plain properties:
+ * <pre>
+ *   frequencies=812.5,1625.0,2437.5
+ *   weights=0.91,0.38,0.12
+ *   window=160
+ *   inBandRatio=0.82
+ *   minConfidence=0.75
+ * </pre>
+ */
+public class ToneSignatureMatcher {
+    private static final float SAMPLE_RATE = AudioSource.CAPTURE_FORMAT.getSampleRate();
+
+    private final double[] frequencies;
+    private final double[] weights;      // unit-length signature vector
+    private final double[] coefficients; // 2*cos(omega) per band
+    private final double[] magnitudes;   // scratch, one per band
+    private final double inBandRatio;
+    private final double minConfidence;
+
+    // Sliding window of the latest samples, oldest at windowPos
+    private final int[] window;
+    private int windowPos;
+    private int windowFill;
+
+    public ToneSignatureMatcher(double[] frequencies, double[] weights, int windowSamples,
+                                double inBandRatio, double minConfidence) {
+        if (frequencies.length == 0 || frequencies.length != weights.length) {
+            throw new IllegalArgumentException("Signature needs the same non-zero number of frequencies and weights");
+        }
+        this.frequencies = frequencies.clone();
+        this.weights = normalize(weights.clone());
+        this.coefficients = new double[frequencies.length];
+        for (int k = 0; k < frequencies.length; k++) {
+            coefficients[k] = 2.0 * Math.cos(2.0 * Math.PI * frequencies[k] / SAMPLE_RATE);
+        }
+        this.magnitudes = new double[frequencies.length];
+        this.inBandRatio = inBandRatio;
+        this.minConfidence = minConfidence;
+        this.window = new int[windowSamples];
+    }
+
+    public double getMinConfidence() {
+        return minConfidence;
+    }
+
+    public void reset() {
+        windowPos = 0;
+        windowFill = 0;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Append a frame to the window and score the window against the signature
+    // ———————————————————————————————————————————————————————————————————————
+    public double push(byte[] frame, int length) {
+        for (int i = 0; i < length; i++) {
+            window[windowPos] = frame[i];
+            windowPos = (windowPos + 1) % window.length;
+        }
+        windowFill = Math.min(window.length, windowFill + length);
+        return score();
+    }
+
+    private double score() {
+        if (windowFill < window.length) {
+            return 0.0;
+        }
+        int n = window.length;
+        double bandEnergy = 0.0;
+        double totalEnergy = 0.0;
+        double dot = 0.0;
+        double norm = 0.0;
+
+        for (int k = 0; k < coefficients.length; k++) {
+            double coeff = coefficients[k];
+            double s1 = 0.0, s2 = 0.0;
+            int idx = windowPos; // oldest sample first
+            for (int i = 0; i < n; i++) {
+                double s0 = window[idx] + coeff * s1 - s2;
+                s2 = s1;
+                s1 = s0;
+                if (++idx == n) {
+                    idx = 0;
+                }
+            }
+            double power = s1 * s1 + s2 * s2 - coeff * s1 * s2;
+            if (power < 0) {
+                power = 0;
+            }
+            // A sine of amplitude A at the band centre gives power (A*n/2)^2 and energy A^2*n/2
+            bandEnergy += 2.0 * power / n;
+            double magnitude = Math.sqrt(power);
+            magnitudes[k] = magnitude;
+            dot += magnitude * weights[k];
+            norm += power;
+        }
+        for (int v : window) {
+            totalEnergy += (double) v * v;
+        }
+        if (norm == 0.0 || totalEnergy == 0.0) {
+            return 0.0;
+        }
+
+        double cosine = dot / Math.sqrt(norm);
+        double ratio = bandEnergy / totalEnergy;
+        double purity = (inBandRatio > 0) ? Math.min(1.0, ratio / inBandRatio) : 1.0;
+        return Math.max(0.0, cosine) * purity;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Signature file I/O
+    // ———————————————————————————————————————————————————————————————————————
+    public static ToneSignatureMatcher load(File file) throws IOException {
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            props.load(in);
+        }
+        double[] freqs = parseList(props.getProperty("frequencies"));
+        double[] weights = parseList(props.getProperty("weights"));
+        int windowSamples = Integer.parseInt(props.getProperty("window", "160").trim());
+        double ratio = Double.parseDouble(props.getProperty("inBandRatio", "0").trim());
+        double minConfidence = Double.parseDouble(props.getProperty("minConfidence", "0.75").trim());
+        return new ToneSignatureMatcher(freqs, weights, windowSamples, ratio, minConfidence);
+    }
+
+    public void save(File file) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("frequencies", joinList(frequencies));
+        props.setProperty("weights", joinList(weights));
+        props.setProperty("window", String.valueOf(window.length));
+        props.setProperty("inBandRatio", String.format(Locale.ROOT, "%.4f", inBandRatio));
+        props.setProperty("minConfidence", String.format(Locale.ROOT, "%.2f", minConfidence));
+        try (OutputStream out = new FileOutputStream(file)) {
+            props.store(out, "Round-end tone signature");
+        }
+    }
+
+    private static double[] parseList(String value) throws IOException {
+        if (value == null || value.isBlank()) {
+            throw new IOException("Signature file is missing frequencies/weights");
+        }
+        return Arrays.stream(value.split(",")).map(String::trim).mapToDouble(Double::parseDouble).toArray();
+    }
+
+    private static String joinList(double[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (double v : values) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(String.format(Locale.ROOT, "%.4f", v));
+        }
+        return sb.toString();
+    }
+
+    private static double[] normalize(double[] v) {
+        double norm = 0.0;
+        for (double x : v) {
+            norm += x * x;
+        }
+        norm = Math.sqrt(norm);
+        if (norm > 0) {
+            for (int i = 0; i < v.length; i++) {
+                v[i] /= norm;
+            }
+        }
+        return v;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Learning: scan a clip of the round-end cue with a dense Goertzel bank, keep
+    // the strongest spectral peaks as the signature
+    // ———————————————————————————————————————————————————————————————————————
+    public static ToneSignatureMatcher learn(AudioSource clip, int bands, int windowSamples,
+                                             int energyGate, double minConfidence) throws Exception {
+        double step = SAMPLE_RATE / windowSamples;
+        int candidates = (int) ((SAMPLE_RATE / 2 - step) / step);
+        double[] candidateFreqs = new double[candidates];
+        for (int c = 0; c < candidates; c++) {
+            candidateFreqs[c] = step * (c + 1);
+        }
+
+        // One matcher over every bin; only its magnitudes are used here
+        double[] flat = new double[candidates];
+        Arrays.fill(flat, 1.0);
+        ToneSignatureMatcher scanner = new ToneSignatureMatcher(candidateFreqs, flat, windowSamples, 0, 0);
+
+        double[] sum = new double[candidates];       // summed magnitude per bin
+        double[] energySum = new double[candidates]; // summed in-bin energy per bin
+        double totalSum = 0.0;                       // summed window energy
+        int windows = 0;
+        byte[] frame = new byte[windowSamples];
+        clip.open();
+        try {
+            int n;
+            while ((n = clip.read(frame, 0, frame.length)) > 0) {
+                scanner.push(frame, n);
+                int peak = 0;
+                for (int i = 0; i < n; i++) {
+                    peak = Math.max(peak, Math.abs(frame[i]));
+                }
+                if (peak < energyGate || scanner.windowFill < windowSamples) {
+                    continue;
+                }
+                for (int v : scanner.window) {
+                    totalSum += (double) v * v;
+                }
+                for (int c = 0; c < candidates; c++) {
+                    double m = scanner.magnitudes[c];
+                    sum[c] += m;
+                    energySum[c] += 2.0 * m * m / windowSamples;
+                }
+                windows++;
+            }
+        } finally {
+            clip.close();
+        }
+        if (windows == 0) {
+            throw new IllegalStateException("Training clip never exceeded the energy gate of " + energyGate);
+        }
+
+        // Keep the strongest local maxima of the averaged spectrum
+        Integer[] order = new Integer[candidates];
+        for (int c = 0; c < candidates; c++) {
+            order[c] = c;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(sum[b], sum[a]));
+        double[] freqs = new double[bands];
+        double[] weights = new double[bands];
+        double bandEnergy = 0.0;
+        int picked = 0;
+        for (int idx = 0; idx < candidates && picked < bands; idx++) {
+            int c = order[idx];
+            boolean localMax = (c == 0 || sum[c] >= sum[c - 1]) && (c == candidates - 1 || sum[c] >= sum[c + 1]);
+            if (localMax) {
+                freqs[picked] = candidateFreqs[c];
+                weights[picked] = sum[c] / windows;
+                bandEnergy += energySum[c];
+                picked++;
+            }
+        }
+
+        // Share of the clip's energy that the chosen bands explain, measured the same way as score()
+        double ratio = (totalSum > 0) ? bandEnergy / totalSum : 0.0;
+        return new ToneSignatureMatcher(Arrays.copyOf(freqs, picked), Arrays.copyOf(weights, picked),
+                windowSamples, ratio, minConfidence);
+    }
+
+    // learn <clip.wav> <out.sig> [bands] [window] [energyGate] [minConfidence]
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: ToneSignatureMatcher <clip.wav|clip.pcm> <out.sig> [bands=4] [window=160] [energyGate=10] [minConfidence=0.75]");
+            System.exit(2);
+        }
+        int bands = (args.length > 2) ? Integer.parseInt(args[2]) : 4;
+        int windowSamples = (args.length > 3) ? Integer.parseInt(args[3]) : 160;
+        int gate = (args.length > 4) ? Integer.parseInt(args[4]) : 10;
+        double minConfidence = (args.length > 5) ? Double.parseDouble(args[5]) : 0.75;
+
+        ToneSignatureMatcher matcher = learn(new FileAudioSource(new File(args[0]), false),
+                bands, windowSamples, gate, minConfidence);
+        matcher.save(new File(args[1]));
+        System.out.println("Learned signature: " + Arrays.toString(matcher.frequencies) + " Hz, in-band ratio "
+                + String.format(Locale.ROOT, "%.2f", matcher.inBandRatio) + " -> " + args[1]);
+    }
+}
@@ -0,0 +1,53 @@
+package com.AviatorScraper;
+
+/**
+ * One round-end trigger as handed to the scraper. When several detections pile up while a
+ * scrape is running they are merged: {@code firstSequence..sequence} is the merged range,
+ * {@code onsetNanos} is the earliest onset and {@code confidence} the best match.
+ */
+public final class Trigger {
+    private final long sequence;
+    private final long firstSequence;
+    private final long onsetNanos;
+    private final long enqueuedNanos;
+    private final double confidence;
+
+    public Trigger(long sequence, long firstSequence, long onsetNanos, long enqueuedNanos, double confidence) {
+        this.sequence = sequence;
+        this.firstSequence = firstSequence;
+        this.onsetNanos = onsetNanos;
+        this.enqueuedNanos = enqueuedNanos;
+        this.confidence = confidence;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getFirstSequence() {
+        return firstSequence;
+    }
+
+    // Number of detections folded into this trigger (1 when nothing was coalesced)
+    public int getMergedCount() {
+        return (int) (sequence - firstSequence + 1);
+    }
+
+    public long getOnsetNanos() {
+        return onsetNanos;
+    }
+
+    public long getEnqueuedNanos() {
+        return enqueuedNanos;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    @Override
+    public String toString() {
+        return "Trigger#" + sequence + (getMergedCount() > 1 ? " (merged " + getMergedCount() + ")" : "")
+                + String.format(" confidence=%.2f", confidence);
+    }
+}
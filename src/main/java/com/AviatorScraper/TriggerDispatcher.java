@@ -0,0 +1,76 @@
+package com.AviatorScraper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sits between {@link SoundDetector} and the scraper. The detector's callback only
+ * publishes into a {@link TriggerQueue} and returns, so audio keeps being read while a
+ * scrape runs; a dedicated thread takes merged triggers off the queue and runs the
+ * (slow) downstream listener.
+ */
+public class TriggerDispatcher implements SoundDetectionListener {
+    private final SoundDetectionListener downstream;
+    private final TriggerQueue queue;
+    private volatile boolean running;
+    private Thread worker;
+
+    public TriggerDispatcher(SoundDetectionListener downstream, int capacity) {
+        this.downstream = downstream;
+        this.queue = new TriggerQueue(capacity);
+    }
+
+    public TriggerQueue getQueue() {
+        return queue;
+    }
+
+    @Override
+    public void onSoundDetected() {
+        onSoundDetected(System.nanoTime(), 1.0);
+    }
+
+    @Override
+    public void onSoundDetected(long onsetNanos, double confidence) {
+        if (!queue.offer(onsetNanos, confidence)) {
+            System.err.println("Trigger queue full, dropping detection (" + queue.describeCounters() + ")");
+        }
+    }
+
+    public void start() {
+        running = true;
+        worker = new Thread(this::dispatchLoop, "trigger-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            Trigger trigger;
+            try {
+                trigger = queue.take(1, TimeUnit.SECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (trigger == null) {
+                continue;
+            }
+
+            double lagMillis = (System.nanoTime() - trigger.getOnsetNanos()) / 1_000_000.0;
+            System.out.printf("%s dispatched, onset-to-dispatch=%.1f ms [%s]%n",
+                    trigger, lagMillis, queue.describeCounters());
+            try {
+                downstream.onSoundDetected(trigger.getOnsetNanos(), trigger.getConfidence());
+            } catch (Exception e) {
+                System.err.println("Error while handling " + trigger + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+}
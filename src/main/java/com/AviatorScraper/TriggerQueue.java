@@ -0,0 +1,183 @@
+package com.AviatorScraper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free ring between the audio capture thread(s) and the single scrape thread.
+ * Producers never block: when the ring is full the trigger is dropped and counted as an
+ * overrun. Slots are preallocated primitive arrays, so publishing does not allocate.
+ * The consumer drains every pending slot at once and merges them into a single
+ * {@link Trigger}, so detections that arrive while a scrape is in flight cost one scrape.
+ */
+public class TriggerQueue {
+    private final int capacity;
+    private final int mask;
+
+    // Per-slot sequence (Vyukov bounded MPMC scheme, used here with one consumer)
+    private final AtomicLongArray slotSequence;
+    private final long[] onsetNanos;
+    private final long[] enqueuedNanos;
+    private final double[] confidence;
+
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private volatile Thread consumer;
+
+    // Counters
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+    private volatile long delivered;
+    private volatile long coalesced;
+    private volatile long maxDepth;
+
+    public TriggerQueue(int requestedCapacity) {
+        int cap = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.capacity = cap;
+        this.mask = cap - 1;
+        this.slotSequence = new AtomicLongArray(cap);
+        for (int i = 0; i < cap; i++) {
+            slotSequence.set(i, i);
+        }
+        this.onsetNanos = new long[cap];
+        this.enqueuedNanos = new long[cap];
+        this.confidence = new double[cap];
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Producer side (capture thread): never blocks
+    // ———————————————————————————————————————————————————————————————————————
+    public boolean offer(long onset, double matchConfidence) {
+        long pos = tail.get();
+        int idx;
+        while (true) {
+            idx = (int) (pos & mask);
+            long diff = slotSequence.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                overruns.incrementAndGet();
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+        onsetNanos[idx] = onset;
+        enqueuedNanos[idx] = System.nanoTime();
+        confidence[idx] = matchConfidence;
+        slotSequence.lazySet(idx, pos + 1);
+        published.incrementAndGet();
+
+        Thread waiting = consumer;
+        if (waiting != null) {
+            LockSupport.unpark(waiting);
+        }
+        return true;
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Consumer side (scrape thread): drain and coalesce
+    // ———————————————————————————————————————————————————————————————————————
+
+    /** Merges everything pending into one trigger, or returns null when the ring is empty. */
+    public Trigger poll() {
+        long first = head;
+        long pos = first;
+        long earliestOnset = Long.MAX_VALUE;
+        long earliestEnqueue = Long.MAX_VALUE;
+        double best = 0.0;
+
+        long depth = tail.get() - first;
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+
+        while (true) {
+            int idx = (int) (pos & mask);
+            if (slotSequence.get(idx) != pos + 1) {
+                break;
+            }
+            earliestOnset = Math.min(earliestOnset, onsetNanos[idx]);
+            earliestEnqueue = Math.min(earliestEnqueue, enqueuedNanos[idx]);
+            best = Math.max(best, confidence[idx]);
+            slotSequence.lazySet(idx, pos + capacity);
+            pos++;
+        }
+        if (pos == first) {
+            return null;
+        }
+        head = pos;
+
+        long merged = pos - first;
+        delivered++;
+        coalesced += merged - 1;
+        // Ring positions are 0-based; sequence numbers start at 1
+        return new Trigger(pos, first + 1, earliestOnset, earliestEnqueue, best);
+    }
+
+    /** Blocks until at least one trigger is pending, then returns them merged. */
+    public Trigger take(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        consumer = Thread.currentThread();
+        try {
+            while (true) {
+                Trigger t = poll();
+                if (t != null) {
+                    return t;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            consumer = null;
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Counters
+    // ———————————————————————————————————————————————————————————————————————
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getDepth() {
+        return Math.max(0, tail.get() - head);
+    }
+
+    public long getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public long getOverrunCount() {
+        return overruns.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered;
+    }
+
+    public long getCoalescedCount() {
+        return coalesced;
+    }
+
+    public String describeCounters() {
+        return String.format("published=%d delivered=%d coalesced=%d overruns=%d depth=%d maxDepth=%d",
+                getPublishedCount(), getDeliveredCount(), getCoalescedCount(), getOverrunCount(),
+                getDepth(), getMaxDepth());
+    }
+}
@@ -0,0 +1,141 @@
+package com.AviatorScraper;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Minimal stand-in for the game's WebSocket server. Replays recorded frames (one per line,
+ * {@code #} comments skipped) to every client in a loop. A plain GET on {@code /} returns a
+ * tiny page that connects to the socket, so Chrome can be pointed at it and
+ * {@link WebSocketRoundCapture} sees real CDP frame events.
+ *
+ * <pre>
+ *   WebSocketReplayServer [port=8765] [frames=fixtures/ws-frames.txt] [intervalMs=500]
+ * </pre>
+ */
+public class WebSocketReplayServer {
+    private static final String WS_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private static final String CLIENT_PAGE = """
+            <!DOCTYPE html>
+            <html><body><pre id="log"></pre>
+            <script>
+              var ws = new WebSocket('ws://' + location.host + '/ws');
+              ws.onmessage = function (e) {
+                var log = document.getElementById('log');
+                log.textContent = (e.data.substring(0, 120) + '\\n' + log.textContent).substring(0, 4000);
+              };
+            </script>
+            </body></html>
+            """;
+
+    private final List<String> frames;
+    private final long intervalMillis;
+
+    public WebSocketReplayServer(List<String> frames, long intervalMillis) {
+        this.frames = frames;
+        this.intervalMillis = intervalMillis;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : 8765;
+        File file = new File((args.length > 1) ? args[1] : "fixtures/ws-frames.txt");
+        long interval = (args.length > 2) ? Long.parseLong(args[2]) : 500;
+
+        List<String> frames = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                .collect(Collectors.toList());
+        System.out.println("Replaying " + frames.size() + " frames from " + file + " on port " + port);
+        new WebSocketReplayServer(frames, interval).serve(port);
+    }
+
+    public void serve(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port)) {
+            while (true) {
+                Socket client = server.accept();
+                Thread t = new Thread(() -> handle(client), "ws-replay-" + client.getPort());
+                t.setDaemon(true);
+                t.start();
+            }
+        }
+    }
+
+    private void handle(Socket client) {
+        try (Socket socket = client) {
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.ISO_8859_1));
+
+            String requestLine = reader.readLine();
+            Map<String, String> headers = new HashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+                }
+            }
+
+            String key = headers.get("sec-websocket-key");
+            if (key == null) {
+                byte[] body = CLIENT_PAGE.getBytes(StandardCharsets.UTF_8);
+                out.write(("HTTP/1.1 200 OK\r\nContent-Type: text/html; charset=utf-8\r\nContent-Length: "
+                        + body.length + "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                out.write(body);
+                out.flush();
+                return;
+            }
+
+            String accept = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-1")
+                    .digest((key + WS_GUID).getBytes(StandardCharsets.ISO_8859_1)));
+            out.write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            System.out.println("Client connected: " + requestLine);
+
+            while (!socket.isClosed()) {
+                for (String frame : frames) {
+                    writeTextFrame(out, frame);
+                    Thread.sleep(intervalMillis);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Client disconnected: " + e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void writeTextFrame(OutputStream out, String text) throws IOException {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        out.write(0x81); // FIN + text
+        if (payload.length < 126) {
+            out.write(payload.length);
+        } else if (payload.length < 65536) {
+            out.write(126);
+            out.write(payload.length >>> 8);
+            out.write(payload.length & 0xFF);
+        } else {
+            out.write(127);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (((long) payload.length >>> shift) & 0xFF));
+            }
+        }
+        out.write(payload);
+        out.flush();
+    }
+}
@@ -0,0 +1,137 @@
+package com.AviatorScraper;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Captures rounds straight from the game client's WebSocket traffic. Subscribes to the CDP
+ * {@code Network.webSocketFrameReceived} event on the ChromeDriver session and runs every
+ * received frame through a {@link RoundFrameDecoder}; decoded rounds go to the same sink as
+ * the DOM engines, so they land in the existing tables.
+ *
+ * <p>Like push capture, this needs the game iframe in the page's process, so launch Chrome
+ * with {@link PushRoundCapture#addLaunchArguments}.
+ */
+public class WebSocketRoundCapture {
+    private final WebDriver driver;
+    private final RoundFrameDecoder decoder;
+    private final Consumer<Round> sink;
+
+    private DevTools devTools;
+    private final AtomicLong framesSeen = new AtomicLong();
+    private final AtomicLong roundsDecoded = new AtomicLong();
+    private final AtomicLong decodeErrors = new AtomicLong();
+
+    public WebSocketRoundCapture(WebDriver driver, RoundFrameDecoder decoder, Consumer<Round> sink) {
+        this.driver = driver;
+        this.decoder = decoder;
+        this.sink = sink;
+    }
+
+    public void install() {
+        if (!(driver instanceof HasDevTools)) {
+            throw new IllegalStateException("WebSocket capture needs a driver with DevTools support");
+        }
+        devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        devTools.send(new Command<Void>("Network.enable", Map.of()));
+        devTools.addListener(
+                new Event<Map<String, Object>>("Network.webSocketCreated", input -> input.read(Json.MAP_TYPE)),
+                params -> System.out.println("Game WebSocket opened: " + params.get("url")));
+        devTools.addListener(
+                new Event<Map<String, Object>>("Network.webSocketFrameReceived", input -> input.read(Json.MAP_TYPE)),
+                this::onFrameReceived);
+        System.out.println("WebSocket capture installed.");
+    }
+
+    public void close() {
+        if (devTools != null) {
+            try {
+                devTools.clearListeners();
+                devTools.send(new Command<Void>("Network.disable", Map.of()));
+                devTools.disconnectSession();
+            } catch (Exception e) {
+                System.out.println("Error closing DevTools session: " + e.getMessage());
+            }
+            devTools = null;
+        }
+    }
+
+    public String describeCounters() {
+        return String.format("frames=%d rounds=%d decodeErrors=%d",
+                framesSeen.get(), roundsDecoded.get(), decodeErrors.get());
+    }
+
+    private void onFrameReceived(Map<String, Object> params) {
+        framesSeen.incrementAndGet();
+        Object response = params.get("response");
+        if (!(response instanceof Map)) {
+            return;
+        }
+        Map<?, ?> frame = (Map<?, ?>) response;
+        Object data = frame.get("payloadData");
+        if (data == null) {
+            return;
+        }
+        // Opcode 1 = text, 2 = binary (base64 in CDP)
+        int opcode = (frame.get("opcode") instanceof Number) ? ((Number) frame.get("opcode")).intValue() : 1;
+        String payload = (opcode == 2)
+                ? new String(Base64.getDecoder().decode(data.toString()), StandardCharsets.UTF_8)
+                : data.toString();
+
+        try {
+            Round round = decoder.decode(payload, System.currentTimeMillis());
+            if (round != null) {
+                roundsDecoded.incrementAndGet();
+                sink.accept(round);
+            }
+        } catch (Exception e) {
+            decodeErrors.incrementAndGet();
+            System.out.println("Error decoding WebSocket frame: " + e.getMessage());
+        }
+    }
+
+    // ———————————————————————————————————————————————————————————————————————
+    // Stand-in check: start WebSocketReplayServer, then
+    //   java ... WebSocketRoundCapture http://localhost:8765/ [seconds]
+    // ———————————————————————————————————————————————————————————————————————
+    public static void main(String[] args) throws Exception {
+        String url = (args.length > 0) ? args[0] : "http://localhost:8765/";
+        long seconds = (args.length > 1) ? Long.parseLong(args[1]) : 15;
+
+        ChromeOptions options = new ChromeOptions();
+        String chromeBinary = System.getProperty("chrome.binary");
+        if (chromeBinary != null) {
+            options.setBinary(chromeBinary);
+        }
+        options.addArguments("--headless=new");
+        PushRoundCapture.addLaunchArguments(options);
+
+        ChromeDriver driver = new ChromeDriver(options);
+        try {
+            WebSocketRoundCapture capture = new WebSocketRoundCapture(driver, new JsonRoundFrameDecoder(),
+                    round -> System.out.printf("round %sx  bets=%d  staked=%.2f  cashOut=%.2f  bank=%.2f%n",
+                            round.getRoundMultiplier(), round.getBets().size(), round.getTotalBetAmount(),
+                            round.getTotalCashOut(), round.getBank()));
+            capture.install();
+            driver.get(url);
+            Thread.sleep(seconds * 1000);
+            System.out.println(capture.describeCounters());
+            capture.close();
+        } finally {
+            driver.quit();
+        }
+    }
+}